@@ -0,0 +1,35 @@
+package ca.watier.echechess.engine.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The positions used by the benchmarks
+ */
+final class BenchmarkPositions {
+    static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    // puzzles.pgn, first game after 14...Nxh5
+    static final String PUZZLE_MIDDLE_GAME = "r4rk1/1b2bppp/ppq1p3/2ppB2n/5P2/1P1BP3/P1PPQ1PP/R4RK1 w - - 0 15";
+    // puzzles.pgn, Giese - Alekhine after 16...O-O-O
+    static final String PUZZLE_ATTACK = "2kr3r/ppp2pb1/2n4p/4Pq2/3PbBpP/8/PPPQN1P1/R3N1KR w - - 0 17";
+
+    private static final String PUZZLES_RESOURCE = "/puzzles.pgn";
+
+    private BenchmarkPositions() {
+    }
+
+    static String readPuzzles() {
+        try (InputStream inputStream = BenchmarkPositions.class.getResourceAsStream(PUZZLES_RESOURCE)) {
+            if (inputStream == null) {
+                throw new IllegalStateException(PUZZLES_RESOURCE + " not found in the classpath");
+            }
+
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ca.watier.echechess.engine.benchmarks;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.KingStatus;
+import ca.watier.echechess.common.enums.MoveType;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.abstracts.GameBoardData;
+import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
+import ca.watier.echechess.engine.exceptions.FenParserException;
+import ca.watier.echechess.engine.game.FenPositionGameHandler;
+import ca.watier.echechess.engine.models.MoveList;
+import ca.watier.echechess.engine.utils.FenGameParser;
+import ca.watier.echechess.engine.utils.MoveGenerator;
+import ca.watier.echechess.engine.utils.MoveUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The move validation paths, called on each move of a game
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MoveValidationBenchmark {
+
+    @Param({
+            BenchmarkPositions.START_POSITION,
+            BenchmarkPositions.KIWIPETE,
+            BenchmarkPositions.PUZZLE_MIDDLE_GAME,
+            BenchmarkPositions.PUZZLE_ATTACK
+    })
+    private String fen;
+
+    private PieceMoveConstraintDelegate pieceMoveConstraintDelegate;
+    private GameBoardData gameBoardData;
+    private FenPositionGameHandler gameHandler;
+    private Side side;
+    private List<CasePosition> sidePositions;
+    private CasePosition moveFrom;
+    private CasePosition moveTo;
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws FenParserException {
+        pieceMoveConstraintDelegate = new PieceMoveConstraintDelegate();
+        gameBoardData = FenGameParser.parse(fen).getCloneOfCurrentDataState();
+        side = gameBoardData.getCurrentAllowedMoveSide();
+        sidePositions = List.copyOf(gameBoardData.getPiecesLocation(side).keySet());
+
+        // The first legal move that is not a castling, played by the movePiece benchmark
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(side, gameBoardData, moves);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+
+            if (MoveUtils.getFlag(move) != MoveUtils.FLAG_CASTLING) {
+                moveFrom = MoveUtils.getFromPosition(move);
+                moveTo = MoveUtils.getToPosition(move);
+                break;
+            }
+        }
+    }
+
+    // The move changes the game, a new one is needed for each call
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws FenParserException {
+        gameHandler = FenGameParser.parse(fen);
+    }
+
+    @Benchmark
+    public MoveType movePiece() {
+        return gameHandler.movePiece(moveFrom, moveTo, side);
+    }
+
+    @Benchmark
+    public void getAllAvailableMoves(Blackhole blackhole) {
+        for (CasePosition from : sidePositions) {
+            blackhole.consume(pieceMoveConstraintDelegate.getAllAvailableMoves(from, side, gameBoardData));
+        }
+    }
+
+    @Benchmark
+    public int generateLegalMoves() {
+        return MoveGenerator.generateLegalMoves(side, gameBoardData, new MoveList());
+    }
+
+    @Benchmark
+    public KingStatus getKingStatus() {
+        return pieceMoveConstraintDelegate.getKingStatus(side, gameBoardData);
+    }
+
+    @Benchmark
+    public GameBoardData cloneGameBoardData() throws CloneNotSupportedException {
+        return gameBoardData.clone();
+    }
+}
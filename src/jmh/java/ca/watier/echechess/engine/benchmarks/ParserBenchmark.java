@@ -0,0 +1,42 @@
+package ca.watier.echechess.engine.benchmarks;
+
+import ca.watier.echechess.engine.engines.GenericGameHandler;
+import ca.watier.echechess.engine.exceptions.ChessException;
+import ca.watier.echechess.engine.exceptions.FenParserException;
+import ca.watier.echechess.engine.game.FenPositionGameHandler;
+import ca.watier.echechess.engine.utils.FenGameParser;
+import ca.watier.echechess.engine.utils.PgnGameExtractor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The FEN and PGN parsers; the PGN one replays every move of the games
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ParserBenchmark {
+
+    private String puzzles;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        puzzles = BenchmarkPositions.readPuzzles();
+    }
+
+    @Benchmark
+    public FenPositionGameHandler parseFen() throws FenParserException {
+        return FenGameParser.parse(BenchmarkPositions.KIWIPETE);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<GenericGameHandler> parseMultipleGameWithHeader() throws ChessException {
+        return new PgnGameExtractor().parseMultipleGameWithHeader(puzzles);
+    }
+}
@@ -21,11 +21,16 @@ import ca.watier.echechess.common.enums.Pieces;
 import ca.watier.echechess.common.enums.Side;
 import ca.watier.echechess.common.pojos.MoveHistory;
 import ca.watier.echechess.common.utils.MathUtils;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+import ca.watier.echechess.engine.models.PersistentList;
+import ca.watier.echechess.engine.utils.EvaluationUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.exception.CloneFailedException;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
 import java.util.List;
@@ -41,6 +46,11 @@ public abstract class GameBoard implements Serializable {
 
     private static final org.slf4j.Logger LOGGER = LoggerFactory.getLogger(GameBoard.class);
     private final GameBoardData gameBoardData;
+    //Read by the pollers without lock, to check if the values computed from the board are still valid
+    private volatile long version;
+    //The history shared with the snapshots, kept with the one of the GameBoardData (rebuilt from it when deserialized)
+    private transient PersistentList<MoveHistory> persistentMoveHistory = PersistentList.empty();
+    private transient volatile VersionedSnapshot snapshot;
 
     public GameBoard() {
         gameBoardData = new GameBoardData();
@@ -51,7 +61,7 @@ public abstract class GameBoard implements Serializable {
             return;
         }
 
-        gameBoardData.addPawnPromotionToMap(side, Pair.of(from, to));
+        change(() -> gameBoardData.addPawnPromotionToMap(side, Pair.of(from, to)));
     }
 
     /**
@@ -76,13 +86,16 @@ public abstract class GameBoard implements Serializable {
             return;
         }
 
-        gameBoardData.removePiece(from);
-        gameBoardData.setPiecePositionWithoutMoveState(piece, to);
-        gameBoardData.changeMovedStateOfPiece(piece, from, to);
-        changePawnSpecialMove(piece, from, to);
-        updatePlayerTurnValue(piece.getSide());
-        gameBoardData.changePieceTurnNumber(from, to);
-        gameBoardData.incrementTotalMove();
+        change(() -> {
+            gameBoardData.removePiece(from);
+            gameBoardData.setPiecePositionWithoutMoveState(piece, to);
+            gameBoardData.changeMovedStateOfPiece(piece, from, to);
+            changePawnSpecialMove(piece, from, to);
+            updatePlayerTurnValue(piece.getSide());
+            gameBoardData.changePieceTurnNumber(from, to);
+            gameBoardData.incrementTotalMove();
+            gameBoardData.updateStateKeys(piece, from, to);
+        });
     }
 
     /**
@@ -136,14 +149,17 @@ public abstract class GameBoard implements Serializable {
             }
         }
 
-        boolean isPresent = pair != null;
+        Pair<CasePosition, CasePosition> promotion = pair;
+        boolean isPresent = promotion != null;
         if (isPresent) {
-            gameBoardData.removePawnPromotion(pair, playerSide);
-            CasePosition currentPawnFromPosition = pair.getKey();
-
-            gameBoardData.removePiece(currentPawnFromPosition); //remove the pawn
-            gameBoardData.setPiecePositionWithoutMoveState(pieces, to); // add the wanted piece
-            gameBoardData.setGamePaused(false);
+            change(() -> {
+                gameBoardData.removePawnPromotion(promotion, playerSide);
+                CasePosition currentPawnFromPosition = promotion.getKey();
+
+                gameBoardData.removePiece(currentPawnFromPosition); //remove the pawn
+                gameBoardData.setPiecePositionWithoutMoveState(pieces, to); // add the wanted piece
+                gameBoardData.setGamePaused(false);
+            });
         }
 
         return isPresent;
@@ -154,51 +170,62 @@ public abstract class GameBoard implements Serializable {
     }
 
     protected void addHistory(MoveHistory moveHistory) {
-        gameBoardData.addHistory(moveHistory);
+        change(() -> {
+            gameBoardData.addHistory(moveHistory);
+            persistentMoveHistory = persistentMoveHistory.add(moveHistory);
+        });
     }
 
     protected void setGamePaused(boolean paused) {
-        gameBoardData.setGamePaused(paused);
+        change(() -> gameBoardData.setGamePaused(paused));
     }
 
     protected void changeAllowedMoveSide() {
-        gameBoardData.changeAllowedMoveSide();
+        change(gameBoardData::changeAllowedMoveSide);
     }
 
     protected void removePieceFromBoard(CasePosition position) {
-        gameBoardData.removePieceFromBoard(position);
+        change(() -> gameBoardData.removePieceFromBoard(position));
     }
 
     protected void setPositionPiecesMap(Map<CasePosition, Pieces> positions) {
-        gameBoardData.setPositionPiecesMap(positions);
+        change(() -> gameBoardData.setPositionPiecesMap(positions));
+    }
+
+    protected void setMoveCounters(int totalMove, int whiteTurnNumber, int blackTurnNumber) {
+        change(() -> gameBoardData.setMoveCounters(totalMove, whiteTurnNumber, blackTurnNumber));
+    }
+
+    protected void setPawnHopOnLastMove(CasePosition position) {
+        change(() -> gameBoardData.setPawnHopOnLastMove(position));
     }
 
     protected void setCurrentAllowedMoveSide(Side side) {
-        gameBoardData.setCurrentAllowedMoveSide(side);
+        change(() -> gameBoardData.setCurrentAllowedMoveSide(side));
     }
 
     protected void setWhiteKingCastlingAvailable(boolean casting) {
-        gameBoardData.setWhiteKingCastlingAvailable(casting);
+        change(() -> gameBoardData.setWhiteKingCastlingAvailable(casting));
     }
 
     protected void setBlackKingCastlingAvailable(boolean casting) {
-        gameBoardData.setBlackKingCastlingAvailable(casting);
+        change(() -> gameBoardData.setBlackKingCastlingAvailable(casting));
     }
 
     protected void setWhiteQueenCastlingAvailable(boolean casting) {
-        gameBoardData.setWhiteQueenCastlingAvailable(casting);
+        change(() -> gameBoardData.setWhiteQueenCastlingAvailable(casting));
     }
 
     protected void setBlackQueenCastlingAvailable(boolean casting) {
-        gameBoardData.setBlackQueenCastlingAvailable(casting);
+        change(() -> gameBoardData.setBlackQueenCastlingAvailable(casting));
     }
 
     protected void addWhitePlayerPoint(byte point) {
-        gameBoardData.addWhitePlayerPoint(point);
+        change(() -> gameBoardData.addWhitePlayerPoint(point));
     }
 
     protected void addBlackPlayerPoint(byte point) {
-        gameBoardData.addBlackPlayerPoint(point);
+        change(() -> gameBoardData.addBlackPlayerPoint(point));
     }
 
     protected short getBlackPlayerPoint() {
@@ -214,7 +241,7 @@ public abstract class GameBoard implements Serializable {
     }
 
     public void setAllowOtherToJoin(boolean allowOtherToJoin) {
-        gameBoardData.setAllowOtherToJoin(allowOtherToJoin);
+        change(() -> gameBoardData.setAllowOtherToJoin(allowOtherToJoin));
     }
 
     public boolean isAllowObservers() {
@@ -222,13 +249,32 @@ public abstract class GameBoard implements Serializable {
     }
 
     public void setAllowObservers(boolean allowObservers) {
-        gameBoardData.setAllowObservers(allowObservers);
+        change(() -> gameBoardData.setAllowObservers(allowObservers));
+    }
+
+    /**
+     * Keeps the attackers of each square up to date on each move (see {@link GameBoardData#setAttackMapsEnabled(boolean)})
+     *
+     * @param enabled
+     */
+    public void setAttackMapsEnabled(boolean enabled) {
+        change(() -> gameBoardData.setAttackMapsEnabled(enabled));
     }
 
     public boolean isGamePaused() {
         return gameBoardData.isGamePaused();
     }
 
+    /**
+     * Gets a read-only view of the current state, backed by the board (no copy); the view changes when a move is made.
+     * Use {@link #getCloneOfCurrentDataState()} when the state needs to be modified or kept.
+     *
+     * @return
+     */
+    public ReadOnlyGameBoardData getCurrentDataState() {
+        return gameBoardData;
+    }
+
     public GameBoardData getCloneOfCurrentDataState() {
         try {
             return ObjectUtils.cloneIfPossible(gameBoardData);
@@ -245,4 +291,118 @@ public abstract class GameBoard implements Serializable {
     public List<MoveHistory> getMoveHistory() {
         return gameBoardData.getMoveHistory();
     }
+
+    /**
+     * Gets the Zobrist hash of the current position
+     *
+     * @return
+     */
+    public final long getZobristKey() {
+        return gameBoardData.getZobristKey();
+    }
+
+    /**
+     * Gets the static evaluation of the current position, in centipawns from the white side (see {@link EvaluationUtils#getScore})
+     *
+     * @return
+     */
+    public final int getEvaluation() {
+        return EvaluationUtils.getScore(gameBoardData);
+    }
+
+    /**
+     * Gets the version of the board, incremented before and after each change of the state of the board (odd while it's
+     * changed, see {@link #isChanging(long)}); the values computed from the board can be kept as long as the version is the same
+     *
+     * @return
+     */
+    public final long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets an immutable snapshot of the board; the snapshot is kept as long as the board is not changed, and the move
+     * history is shared with the previous snapshots (see {@link PersistentGameBoardData}). A snapshot taken while the
+     * board was changed is dropped and taken again once the change is done.
+     *
+     * @return
+     */
+    public final PersistentGameBoardData getSnapshot() {
+        while (true) {
+            long currentVersion = version;
+
+            if (isChanging(currentVersion)) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            VersionedSnapshot current = snapshot;
+
+            if (current != null && current.version == currentVersion) {
+                return current.snapshot;
+            }
+
+            PersistentGameBoardData taken;
+
+            try {
+                taken = PersistentGameBoardData.of(gameBoardData, persistentMoveHistory);
+            } catch (RuntimeException e) {
+                if (version == currentVersion) {
+                    throw e;
+                }
+
+                continue; // The board was changed during the copy
+            }
+
+            if (version == currentVersion) {
+                snapshot = new VersionedSnapshot(currentVersion, taken);
+                return taken;
+            }
+        }
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        persistentMoveHistory = PersistentList.of(gameBoardData.getMoveHistory());
+    }
+
+    /**
+     * Applies a change on the board; the version is odd while the board is changed and incremented again after, so a
+     * poller can keep a value computed between two reads of the same even version (the changes are made by one thread)
+     *
+     * @param change
+     */
+    private void change(Runnable change) {
+        version++;
+
+        try {
+            change.run();
+        } finally {
+            version++;
+        }
+    }
+
+    /**
+     * Returns true when the version is the one of a board being changed, the values computed from it can't be kept
+     *
+     * @param version
+     * @return
+     */
+    protected static boolean isChanging(long version) {
+        return (version & 1) != 0;
+    }
+
+    /**
+     * A snapshot with the version of the board it was taken from, replaced as a whole so the pollers never mix them
+     */
+    private static final class VersionedSnapshot {
+        private final long version;
+        private final PersistentGameBoardData snapshot;
+
+        private VersionedSnapshot(long version, PersistentGameBoardData snapshot) {
+            this.version = version;
+            this.snapshot = snapshot;
+        }
+    }
 }
@@ -1,10 +1,21 @@
 package ca.watier.echechess.engine.abstracts;
 
 import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.KingStatus;
+import ca.watier.echechess.common.enums.MoveType;
 import ca.watier.echechess.common.enums.Pieces;
 import ca.watier.echechess.common.enums.Side;
 import ca.watier.echechess.common.pojos.MoveHistory;
+import ca.watier.echechess.common.utils.CastlingPositionHelper;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+import ca.watier.echechess.engine.models.AttackMapsModel;
+import ca.watier.echechess.engine.models.MoveUndoModel;
+import ca.watier.echechess.engine.utils.AttackUtils;
+import ca.watier.echechess.engine.utils.BitboardUtils;
+import ca.watier.echechess.engine.utils.EvaluationUtils;
 import ca.watier.echechess.engine.utils.GameUtils;
+import ca.watier.echechess.engine.utils.MoveUtils;
+import ca.watier.echechess.engine.utils.ZobristUtils;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MultiValuedMap;
 import org.apache.commons.collections4.multimap.ArrayListValuedHashMap;
@@ -12,21 +23,37 @@ import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
-import java.io.Serial;
-import java.io.Serializable;
+import java.io.*;
 import java.util.*;
 
 import static ca.watier.echechess.common.enums.Side.WHITE;
 
-public class GameBoardData implements Cloneable, Serializable {
+public class GameBoardData implements ReadOnlyGameBoardData, Cloneable, Externalizable {
 
     @Serial
-    private static final long serialVersionUID = -5242416504518941779L;
+    private static final long serialVersionUID = -2816735312316424208L;
+
+    private static final byte WHITE_QUEEN_CASTLING_FLAG = 1;
+    private static final byte WHITE_KING_CASTLING_FLAG = 1 << 1;
+    private static final byte BLACK_QUEEN_CASTLING_FLAG = 1 << 2;
+    private static final byte BLACK_KING_CASTLING_FLAG = 1 << 3;
+    private static final int NO_KING = -1;
+    private static final int NO_EN_PASSANT_FILE = -1;
+    private static final int WHITE_KING_SQUARE = 4; // E1
+    private static final int BLACK_KING_SQUARE = 60; // E8
+    private static final byte EXTERNAL_FORMAT_VERSION = 1;
+    private static final int NO_VALUE = 0;
 
     //The default position of the board
-    private final Map<CasePosition, Pieces> defaultPositions;
-    //The pieces position on the board
-    private Map<CasePosition, Pieces> positionPiecesMap;
+    private Map<CasePosition, Pieces> defaultPositions;
+    //The pieces position on the board, one bitboard per piece (see BitboardUtils for the indexes)
+    private long[] pieceBitboards;
+    //The occupancy masks of each side
+    private long whitePiecesBitboard;
+    private long blackPiecesBitboard;
+    //The square of each king (see BitboardUtils), NO_KING when the king is not on the board
+    private int whiteKingSquare = NO_KING;
+    private int blackKingSquare = NO_KING;
     //Used to check if the piece have moved
     private Map<CasePosition, Boolean> isPiecesMovedMap;
     //Used to check if the pawn used it's special ability to move by two case
@@ -51,14 +78,24 @@ public class GameBoardData implements Cloneable, Serializable {
     private Side currentAllowedMoveSide;
     private boolean allowOtherToJoin;
     private boolean allowObservers;
+    //The Zobrist hash of the position, updated on each change of the pieces, castling rights, en passant file or side to move
+    private long zobristKey;
+    //The castling rights and en passant file in the hash (same bits as the castling flags), updated when a move touches them
+    private int hashedCastlingRights;
+    private int hashedEnPassantFile = NO_EN_PASSANT_FILE;
+    //The terms of the evaluation (see EvaluationUtils), updated on each change of the pieces
+    private int middlegameScore;
+    private int endgameScore;
+    private int gamePhase;
+    private AttackMapsModel attackMaps;
 
     public GameBoardData() {
         pawnPromotionMap = new ArrayListValuedHashMap<>(); //FIXME: Note that ArrayListValuedHashMap is not synchronized and is not thread-safe
         defaultPositions = GameUtils.getDefaultGame();
-        positionPiecesMap = GameUtils.getDefaultGame();
-        isPiecesMovedMap = GameUtils.initNewMovedPieceMap(positionPiecesMap);
-        isPawnUsedSpecialMoveMap = GameUtils.initPawnMap(positionPiecesMap);
-        turnNumberPieceMap = GameUtils.initTurnMap(positionPiecesMap);
+        pieceBitboards = new long[BitboardUtils.NB_OF_PIECES];
+        isPiecesMovedMap = GameUtils.initNewMovedPieceMap(defaultPositions);
+        isPawnUsedSpecialMoveMap = GameUtils.initPawnMap(defaultPositions);
+        turnNumberPieceMap = GameUtils.initTurnMap(defaultPositions);
         moveHistoryList = new ArrayList<>();
         blackPlayerPoint = 0;
         whitePlayerPoint = 0;
@@ -72,6 +109,41 @@ public class GameBoardData implements Cloneable, Serializable {
         isBlackKingCastlingAvailable = true;
         allowOtherToJoin = false;
         allowObservers = false;
+        setBitboardsFromMap(defaultPositions);
+    }
+
+    /**
+     * Copy the state (used by {@link PersistentGameBoardData#toGameBoardData()}); the pending pawn promotions are not copied
+     *
+     * @param source
+     */
+    GameBoardData(ReadOnlyGameBoardData source) {
+        pawnPromotionMap = new ArrayListValuedHashMap<>();
+        defaultPositions = new EnumMap<>(CasePosition.class);
+        defaultPositions.putAll(source.getDefaultPositions());
+        isPiecesMovedMap = new EnumMap<>(CasePosition.class);
+        isPiecesMovedMap.putAll(source.getIsPiecesMovedMap());
+        isPawnUsedSpecialMoveMap = new EnumMap<>(CasePosition.class);
+        isPawnUsedSpecialMoveMap.putAll(source.getIsPawnUsedSpecialMoveMap());
+        turnNumberPieceMap = new EnumMap<>(CasePosition.class);
+        turnNumberPieceMap.putAll(source.getTurnNumberPieceMap());
+        moveHistoryList = new ArrayList<>(source.getMoveHistory());
+        blackPlayerPoint = source.getBlackPlayerPoint();
+        whitePlayerPoint = source.getWhitePlayerPoint();
+        currentAllowedMoveSide = source.getCurrentAllowedMoveSide();
+        blackTurnNumber = source.getBlackTurnNumber();
+        whiteTurnNumber = source.getWhiteTurnNumber();
+        totalMove = source.getNbTotalMove();
+        isGameDraw = source.isGameDraw();
+        isGamePaused = source.isGamePaused();
+        isWhiteQueenCastlingAvailable = source.isWhiteQueenCastlingAvailable();
+        isWhiteKingCastlingAvailable = source.isWhiteKingCastlingAvailable();
+        isBlackQueenCastlingAvailable = source.isBlackQueenCastlingAvailable();
+        isBlackKingCastlingAvailable = source.isBlackKingCastlingAvailable();
+        allowOtherToJoin = source.isAllowOtherToJoin();
+        allowObservers = source.isAllowObservers();
+        pieceBitboards = new long[BitboardUtils.NB_OF_PIECES];
+        setBitboardsFromMap(source.getPiecesLocation());
     }
 
     protected Collection<Pair<CasePosition, CasePosition>> getPawnPromotionBySide(Side playerSide) {
@@ -87,11 +159,12 @@ public class GameBoardData implements Cloneable, Serializable {
             return null;
         }
 
-        return positionPiecesMap.get(position);
+        return getPiece(position);
     }
 
+    @Override
     public final Map<CasePosition, Pieces> getPiecesLocation() {
-        return Map.copyOf(positionPiecesMap);
+        return Collections.unmodifiableMap(getPiecesLocationFromBitboard(getOccupiedBitboard()));
     }
 
 
@@ -101,50 +174,507 @@ public class GameBoardData implements Cloneable, Serializable {
      * @param side
      * @return
      */
+    @Override
     public final Map<CasePosition, Pieces> getPiecesLocation(Side side) {
+        if (side == null) {
+            return new EnumMap<>(CasePosition.class);
+        }
+
+        return getPiecesLocationFromBitboard(getSideBitboard(side));
+    }
+
+    private Map<CasePosition, Pieces> getPiecesLocationFromBitboard(long bitboard) {
         Map<CasePosition, Pieces> values = new EnumMap<>(CasePosition.class);
 
+        while (bitboard != BitboardUtils.EMPTY) {
+            int square = Long.numberOfTrailingZeros(bitboard);
+            bitboard &= bitboard - 1;
+
+            values.put(BitboardUtils.getPosition(square), getPieceAt(square));
+        }
+
+        return values;
+    }
+
+    /**
+     * Gets the bitboard of a piece
+     *
+     * @param piece
+     * @return
+     */
+    @Override
+    public final long getPieceBitboard(Pieces piece) {
+        if (piece == null) {
+            return BitboardUtils.EMPTY;
+        }
+
+        return pieceBitboards[BitboardUtils.getPieceIndex(piece)];
+    }
+
+    /**
+     * Gets the bitboard of a piece, by index
+     *
+     * @param pieceIndex - see {@link BitboardUtils#getPieceIndex}
+     * @return
+     */
+    @Override
+    public final long getPieceBitboard(int pieceIndex) {
+        return pieceBitboards[pieceIndex];
+    }
+
+    /**
+     * Gets the occupancy bitboard of a side
+     *
+     * @param side
+     * @return
+     */
+    @Override
+    public final long getSideBitboard(Side side) {
         if (side == null) {
-            return values;
+            return BitboardUtils.EMPTY;
+        }
+
+        return switch (side) {
+            case WHITE -> whitePiecesBitboard;
+            case BLACK -> blackPiecesBitboard;
+            default -> BitboardUtils.EMPTY;
+        };
+    }
+
+    /**
+     * Gets the occupancy bitboard of both sides
+     *
+     * @return
+     */
+    @Override
+    public final long getOccupiedBitboard() {
+        return whitePiecesBitboard | blackPiecesBitboard;
+    }
+
+    /**
+     * Gets the piece on a square index (0 to 63), null if the square is empty
+     *
+     * @param square
+     * @return
+     */
+    @Override
+    public final Pieces getPieceAt(int square) {
+        long mask = 1L << square;
+
+        int firstIndex;
+        if ((whitePiecesBitboard & mask) != 0) {
+            firstIndex = BitboardUtils.WHITE_PAWN;
+        } else if ((blackPiecesBitboard & mask) != 0) {
+            firstIndex = BitboardUtils.BLACK_PAWN;
+        } else {
+            return null;
+        }
+
+        for (int index = firstIndex; index < firstIndex + 6; index++) {
+            if ((pieceBitboards[index] & mask) != 0) {
+                return BitboardUtils.getPiece(index);
+            }
+        }
+
+        return null;
+    }
+
+    private void addPieceToBitboards(Pieces piece, int square) {
+        long mask = 1L << square;
+        int index = BitboardUtils.getPieceIndex(piece);
+
+        pieceBitboards[index] |= mask;
+        zobristKey ^= ZobristUtils.getPieceKey(index, square);
+        middlegameScore += EvaluationUtils.getMiddlegameValue(index, square);
+        endgameScore += EvaluationUtils.getEndgameValue(index, square);
+        gamePhase += EvaluationUtils.getPhaseWeight(index);
+
+        if (index < BitboardUtils.BLACK_PAWN) {
+            whitePiecesBitboard |= mask;
+        } else {
+            blackPiecesBitboard |= mask;
+        }
+
+        if (index == BitboardUtils.WHITE_KING || index == BitboardUtils.BLACK_KING) {
+            updateKingSquare(index);
+        }
+
+        if (attackMaps != null) {
+            attackMaps.onSquareChanged(square, this);
+        }
+    }
+
+    private void removePieceFromBitboards(int square) {
+        Pieces piece = getPieceAt(square);
+
+        if (piece == null) {
+            return;
+        }
+
+        int index = BitboardUtils.getPieceIndex(piece);
+        long mask = ~(1L << square);
+        pieceBitboards[index] &= mask;
+        zobristKey ^= ZobristUtils.getPieceKey(index, square);
+        middlegameScore -= EvaluationUtils.getMiddlegameValue(index, square);
+        endgameScore -= EvaluationUtils.getEndgameValue(index, square);
+        gamePhase -= EvaluationUtils.getPhaseWeight(index);
+        whitePiecesBitboard &= mask;
+        blackPiecesBitboard &= mask;
+
+        if (index == BitboardUtils.WHITE_KING || index == BitboardUtils.BLACK_KING) {
+            updateKingSquare(index);
+        }
+
+        if (attackMaps != null) {
+            attackMaps.onSquareChanged(square, this);
+        }
+    }
+
+    private void updateKingSquare(int kingIndex) {
+        long kings = pieceBitboards[kingIndex];
+        int square = kings == BitboardUtils.EMPTY ? NO_KING : Long.numberOfTrailingZeros(kings);
+
+        if (kingIndex == BitboardUtils.WHITE_KING) {
+            whiteKingSquare = square;
+        } else {
+            blackKingSquare = square;
+        }
+    }
+
+    /**
+     * Gets the square (0 to 63) of the king of the side, -1 if the king is not on the board
+     *
+     * @param side
+     * @return
+     */
+    @Override
+    public final int getKingSquare(Side side) {
+        if (side == null) {
+            return NO_KING;
+        }
+
+        return switch (side) {
+            case WHITE -> whiteKingSquare;
+            case BLACK -> blackKingSquare;
+            default -> NO_KING;
+        };
+    }
+
+    /**
+     * Gets the position of the king of the side, null if the king is not on the board
+     *
+     * @param side
+     * @return
+     */
+    @Override
+    public final CasePosition getKingPosition(Side side) {
+        int square = getKingSquare(side);
+        return square == NO_KING ? null : BitboardUtils.getPosition(square);
+    }
+
+    /**
+     * Gets the pieces of the side that attack the square; read from the attack maps when enabled (see {@link #setAttackMapsEnabled(boolean)})
+     *
+     * @param square
+     * @param attackerSide
+     * @return
+     */
+    @Override
+    public final long getAttackers(int square, Side attackerSide) {
+        if (attackMaps != null) {
+            return attackMaps.getAttackers(square, attackerSide);
+        }
+
+        return AttackUtils.getAttackers(square, attackerSide, this, getOccupiedBitboard());
+    }
+
+    @Override
+    public final boolean isAttackMapsEnabled() {
+        return attackMaps != null;
+    }
+
+    /**
+     * When enabled, the attackers of each square are kept up to date on each change of the board, instead of being
+     * computed on each call of {@link #getAttackers(int, Side)}
+     *
+     * @param enabled
+     */
+    protected final void setAttackMapsEnabled(boolean enabled) {
+        if (enabled == isAttackMapsEnabled()) {
+            return;
         }
 
+        attackMaps = enabled ? new AttackMapsModel(this) : null;
+    }
+
+    private void setBitboardsFromMap(Map<CasePosition, Pieces> positionPiecesMap) {
+        boolean isAttackMapsEnabled = isAttackMapsEnabled();
+        attackMaps = null; // Rebuilt once all the pieces are added
+
+        Arrays.fill(pieceBitboards, BitboardUtils.EMPTY);
+        whitePiecesBitboard = BitboardUtils.EMPTY;
+        blackPiecesBitboard = BitboardUtils.EMPTY;
+        whiteKingSquare = NO_KING;
+        blackKingSquare = NO_KING;
+        middlegameScore = 0;
+        endgameScore = 0;
+        gamePhase = 0;
+
         for (Map.Entry<CasePosition, Pieces> casePositionPiecesEntry : positionPiecesMap.entrySet()) {
-            CasePosition key = casePositionPiecesEntry.getKey();
-            Pieces value = casePositionPiecesEntry.getValue();
+            addPieceToBitboards(casePositionPiecesEntry.getValue(), BitboardUtils.getSquare(casePositionPiecesEntry.getKey()));
+        }
+
+        resetZobristKey();
+        setAttackMapsEnabled(isAttackMapsEnabled);
+    }
 
-            if (side.equals(value.getSide())) {
-                values.put(key, value);
+    private void resetZobristKey() {
+        long key = ZobristUtils.getSideKey(currentAllowedMoveSide);
+
+        for (int index = 0; index < BitboardUtils.NB_OF_PIECES; index++) {
+            long bitboard = pieceBitboards[index];
+
+            while (bitboard != BitboardUtils.EMPTY) {
+                key ^= ZobristUtils.getPieceKey(index, Long.numberOfTrailingZeros(bitboard));
+                bitboard &= bitboard - 1;
             }
         }
 
-        return values;
+        zobristKey = key;
+        hashedCastlingRights = 0;
+        hashedEnPassantFile = NO_EN_PASSANT_FILE;
+        resetStateKeys();
+    }
+
+    /**
+     * Recomputes the castling rights and the en passant file of the hash, when the pieces or their state are replaced
+     */
+    private void resetStateKeys() {
+        setHashedCastlingRights(getCastlingRights());
+        setHashedEnPassantFile(findEnPassantFile());
+    }
+
+    /**
+     * Updates the hash after a move from / to the squares; a castling right is lost when a piece leaves or reaches the
+     * square of its king or rook, and the en passant file is only kept after a pawn hop
+     *
+     * @param fromSquare
+     * @param toSquare
+     * @param isPawnHop
+     */
+    private void updateStateKeys(int fromSquare, int toSquare, boolean isPawnHop) {
+        int lostCastlingRights = hashedCastlingRights & (getCastlingRightsOfSquare(fromSquare) | getCastlingRightsOfSquare(toSquare));
+
+        if (lostCastlingRights != 0) {
+            setHashedCastlingRights(hashedCastlingRights & ~lostCastlingRights);
+        }
+
+        setHashedEnPassantFile(isPawnHop ? getEnPassantFile(toSquare) : NO_EN_PASSANT_FILE);
     }
 
+    /**
+     * Same as {@link #updateStateKeys(int, int, boolean)}, for the moves made with {@link GameBoard#movePieceTo(CasePosition, CasePosition, Pieces)}
+     *
+     * @param piece
+     * @param from
+     * @param to
+     */
+    protected final void updateStateKeys(Pieces piece, CasePosition from, CasePosition to) {
+        if (ObjectUtils.anyNull(piece, from, to)) {
+            return;
+        }
+
+        int fromSquare = BitboardUtils.getSquare(from);
+        int toSquare = BitboardUtils.getSquare(to);
+        updateStateKeys(fromSquare, toSquare, isPawnHop(piece, fromSquare, toSquare));
+    }
+
+    private void setHashedCastlingRights(int castlingRights) {
+        zobristKey ^= ZobristUtils.getCastlingKey(hashedCastlingRights) ^ ZobristUtils.getCastlingKey(castlingRights);
+        hashedCastlingRights = castlingRights;
+    }
+
+    private void setHashedEnPassantFile(int enPassantFile) {
+        zobristKey ^= ZobristUtils.getEnPassantKey(hashedEnPassantFile) ^ ZobristUtils.getEnPassantKey(enPassantFile);
+        hashedEnPassantFile = enPassantFile;
+    }
+
+    /**
+     * Gets the castling rights that can still be used; the flags are only removed when castling, a right also needs
+     * the king and the rook on their default squares, both never moved
+     *
+     * @return the castling flags of the rights
+     */
+    private int getCastlingRights() {
+        int rights = 0;
+
+        if (isWhiteQueenCastlingAvailable && hasCastlingPieces(BitboardUtils.WHITE_KING, WHITE_KING_SQUARE, WHITE_KING_SQUARE - 4)) {
+            rights |= WHITE_QUEEN_CASTLING_FLAG;
+        }
+
+        if (isWhiteKingCastlingAvailable && hasCastlingPieces(BitboardUtils.WHITE_KING, WHITE_KING_SQUARE, WHITE_KING_SQUARE + 3)) {
+            rights |= WHITE_KING_CASTLING_FLAG;
+        }
+
+        if (isBlackQueenCastlingAvailable && hasCastlingPieces(BitboardUtils.BLACK_KING, BLACK_KING_SQUARE, BLACK_KING_SQUARE - 4)) {
+            rights |= BLACK_QUEEN_CASTLING_FLAG;
+        }
+
+        if (isBlackKingCastlingAvailable && hasCastlingPieces(BitboardUtils.BLACK_KING, BLACK_KING_SQUARE, BLACK_KING_SQUARE + 3)) {
+            rights |= BLACK_KING_CASTLING_FLAG;
+        }
+
+        return rights;
+    }
+
+    private boolean hasCastlingPieces(int kingIndex, int kingSquare, int rookSquare) {
+        return (pieceBitboards[kingIndex] & (1L << kingSquare)) != 0 &&
+                (pieceBitboards[kingIndex - BitboardUtils.KING + BitboardUtils.ROOK] & (1L << rookSquare)) != 0 &&
+                !isPieceMoved(BitboardUtils.getPosition(kingSquare)) &&
+                !isPieceMoved(BitboardUtils.getPosition(rookSquare));
+    }
+
+    private static int getCastlingRightsOfSquare(int square) {
+        return switch (square) {
+            case WHITE_KING_SQUARE -> WHITE_QUEEN_CASTLING_FLAG | WHITE_KING_CASTLING_FLAG;
+            case WHITE_KING_SQUARE - 4 -> WHITE_QUEEN_CASTLING_FLAG;
+            case WHITE_KING_SQUARE + 3 -> WHITE_KING_CASTLING_FLAG;
+            case BLACK_KING_SQUARE -> BLACK_QUEEN_CASTLING_FLAG | BLACK_KING_CASTLING_FLAG;
+            case BLACK_KING_SQUARE - 4 -> BLACK_QUEEN_CASTLING_FLAG;
+            case BLACK_KING_SQUARE + 3 -> BLACK_KING_CASTLING_FLAG;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Gets the file of the pawn that made the hop, when an enemy pawn next to it can take it en passant
+     *
+     * @param pawnSquare
+     * @return the file (0 to 7), {@link #NO_EN_PASSANT_FILE} if there's no en passant capture
+     */
+    private int getEnPassantFile(int pawnSquare) {
+        Pieces pawn = getPieceAt(pawnSquare);
+
+        if (!Pieces.isPawn(pawn)) {
+            return NO_EN_PASSANT_FILE;
+        }
+
+        boolean isWhite = Side.WHITE.equals(pawn.getSide());
+        int file = BitboardUtils.getFile(pawnSquare);
+        long neighbours = BitboardUtils.EMPTY;
+
+        if (file > 0) {
+            neighbours |= 1L << (pawnSquare - 1);
+        }
+
+        if (file < 7) {
+            neighbours |= 1L << (pawnSquare + 1);
+        }
+
+        boolean isTargetEmpty = (getOccupiedBitboard() & (1L << (pawnSquare + (isWhite ? -8 : 8)))) == 0;
+        long enemyPawns = pieceBitboards[isWhite ? BitboardUtils.BLACK_PAWN : BitboardUtils.WHITE_PAWN];
+
+        return isTargetEmpty && (enemyPawns & neighbours) != BitboardUtils.EMPTY ? file : NO_EN_PASSANT_FILE;
+    }
+
+    /**
+     * Finds the pawn that made the hop on the last move (on the fourth rank of its side) and gets its en passant file
+     */
+    private int findEnPassantFile() {
+        long pawns = (pieceBitboards[BitboardUtils.WHITE_PAWN] & (0xFFL << 24)) | (pieceBitboards[BitboardUtils.BLACK_PAWN] & (0xFFL << 32));
+
+        for (; pawns != BitboardUtils.EMPTY; pawns &= pawns - 1) {
+            int square = Long.numberOfTrailingZeros(pawns);
+            CasePosition position = BitboardUtils.getPosition(square);
+            Integer pawnTurn = turnNumberPieceMap.get(position);
+
+            if (pawnTurn != null && isPawnUsedSpecialMove(position) && totalMove - pawnTurn == 1) {
+                return getEnPassantFile(square);
+            }
+        }
+
+        return NO_EN_PASSANT_FILE;
+    }
+
+    private static boolean isPawnHop(Pieces piece, int fromSquare, int toSquare) {
+        return Pieces.isPawn(piece) && BitboardUtils.getFile(fromSquare) == BitboardUtils.getFile(toSquare) &&
+                Math.abs(BitboardUtils.getRank(fromSquare) - BitboardUtils.getRank(toSquare)) == 2;
+    }
+
+    /**
+     * Gets the Zobrist hash of the current position (pieces, castling rights that can still be used, en passant file
+     * when a capture is possible, and side to move)
+     *
+     * @return
+     */
+    @Override
+    public final long getZobristKey() {
+        return zobristKey;
+    }
+
+    @Override
+    public final int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    @Override
+    public final int getEndgameScore() {
+        return endgameScore;
+    }
+
+    @Override
+    public final int getGamePhase() {
+        return gamePhase;
+    }
+
+    @Override
     public Map<CasePosition, Pieces> getDefaultPositions() {
         return Map.copyOf(defaultPositions);
     }
 
+    /**
+     * Check if the piece was at this position when the game started
+     *
+     * @param position
+     * @param piece
+     * @return
+     */
+    @Override
+    public final boolean isDefaultPosition(CasePosition position, Pieces piece) {
+        if (ObjectUtils.anyNull(position, piece)) {
+            return false;
+        }
+
+        return piece.equals(defaultPositions.get(position));
+    }
+
+    @Override
     public int getBlackTurnNumber() {
         return blackTurnNumber;
     }
 
+    @Override
     public int getWhiteTurnNumber() {
         return whiteTurnNumber;
     }
 
+    @Override
     public int getNbTotalMove() {
         return totalMove;
     }
 
 
+    @Override
     public Map<CasePosition, Boolean> getIsPiecesMovedMap() {
         return Map.copyOf(isPiecesMovedMap);
     }
 
+    @Override
     public Map<CasePosition, Boolean> getIsPawnUsedSpecialMoveMap() {
         return Map.copyOf(isPawnUsedSpecialMoveMap);
     }
 
+    @Override
     public Map<CasePosition, Integer> getTurnNumberPieceMap() {
         return Map.copyOf(turnNumberPieceMap);
     }
@@ -155,6 +685,7 @@ public class GameBoardData implements Cloneable, Serializable {
      * @param position
      * @return
      */
+    @Override
     public final Integer getPieceTurn(CasePosition position) {
         if (position == null) {
             return null;
@@ -176,7 +707,7 @@ public class GameBoardData implements Cloneable, Serializable {
             return;
         }
 
-        positionPiecesMap.remove(from);
+        removePieceFromBitboards(BitboardUtils.getSquare(from));
     }
 
     public void setPiecePositionWithoutMoveState(Pieces piece, CasePosition to) {
@@ -184,7 +715,9 @@ public class GameBoardData implements Cloneable, Serializable {
             return;
         }
 
-        positionPiecesMap.put(to, piece);
+        int square = BitboardUtils.getSquare(to);
+        removePieceFromBitboards(square);
+        addPieceToBitboards(piece, square);
     }
 
     /**
@@ -209,6 +742,7 @@ public class GameBoardData implements Cloneable, Serializable {
      * @param position
      * @return
      */
+    @Override
     public final boolean isPieceMoved(CasePosition position) {
         if (position == null) {
             return false;
@@ -224,6 +758,7 @@ public class GameBoardData implements Cloneable, Serializable {
      * @param position
      * @return
      */
+    @Override
     public final boolean isPawnUsedSpecialMove(CasePosition position) {
         if (position == null) {
             return false;
@@ -240,6 +775,21 @@ public class GameBoardData implements Cloneable, Serializable {
         isPawnUsedSpecialMoveMap.put(to, isValid);
     }
 
+    /**
+     * Flag the pawn as the one that made the hop on the last move, to allow the en passant on it
+     *
+     * @param position
+     */
+    protected final void setPawnHopOnLastMove(CasePosition position) {
+        if (position == null) {
+            return;
+        }
+
+        isPawnUsedSpecialMoveMap.put(position, true);
+        turnNumberPieceMap.put(position, totalMove - 1);
+        setHashedEnPassantFile(getEnPassantFile(BitboardUtils.getSquare(position)));
+    }
+
     protected void removePawnUsedSpecialMove(CasePosition from) {
         if (from == null) {
             return;
@@ -269,6 +819,13 @@ public class GameBoardData implements Cloneable, Serializable {
         totalMove++;
     }
 
+    protected final void setMoveCounters(int totalMove, int whiteTurnNumber, int blackTurnNumber) {
+        this.totalMove = totalMove;
+        this.whiteTurnNumber = whiteTurnNumber;
+        this.blackTurnNumber = blackTurnNumber;
+        setHashedEnPassantFile(findEnPassantFile());
+    }
+
     public void addHistory(MoveHistory move) {
         moveHistoryList.add(move);
     }
@@ -284,6 +841,7 @@ public class GameBoardData implements Cloneable, Serializable {
         this.isPawnUsedSpecialMoveMap = new EnumMap<>(isPawnUsedSpecialMoveMap);
         this.turnNumberPieceMap = new EnumMap<>(turnNumberPieceMap);
         this.isPiecesMovedMap = new EnumMap<>(isPiecesMovedMap);
+        resetStateKeys();
     }
 
     /**
@@ -296,10 +854,239 @@ public class GameBoardData implements Cloneable, Serializable {
             return;
         }
 
-        positionPiecesMap.remove(from);
+        int square = BitboardUtils.getSquare(from);
+        int lostCastlingRights = hashedCastlingRights & getCastlingRightsOfSquare(square);
+
+        removePieceFromBitboards(square);
         isPiecesMovedMap.remove(from);
         isPawnUsedSpecialMoveMap.remove(from);
         turnNumberPieceMap.remove(from);
+
+        if (lostCastlingRights != 0) {
+            setHashedCastlingRights(hashedCastlingRights & ~lostCastlingRights);
+        }
+    }
+
+    /**
+     * Apply a move on the board, without any validation; the returned {@link MoveUndoModel} can be used with
+     * {@link #unmakeMove(MoveUndoModel)} to revert it. Returns null if there's no piece to move.
+     * <p>
+     * The en passant move removes the enemy pawn and the castling (king to rook position) moves both pieces, the
+     * same way as the game handler does.
+     *
+     * @param from
+     * @param to
+     * @param moveType
+     * @return
+     */
+    public final MoveUndoModel makeMove(CasePosition from, CasePosition to, MoveType moveType) {
+        return makeMove(from, to, moveType, null);
+    }
+
+    /**
+     * Same as {@link #makeMove(CasePosition, CasePosition, MoveType)}, the pawn is replaced by the promotion piece
+     * when the move type is {@link MoveType#PAWN_PROMOTION}
+     *
+     * @param from
+     * @param to
+     * @param moveType
+     * @param promotion
+     * @return
+     */
+    public final MoveUndoModel makeMove(CasePosition from, CasePosition to, MoveType moveType, Pieces promotion) {
+        if (ObjectUtils.anyNull(from, to)) {
+            return null;
+        }
+
+        Pieces piece = getPiece(from);
+
+        if (piece == null) {
+            return null;
+        }
+
+        Side side = piece.getSide();
+        MoveUndoModel undo = new MoveUndoModel(totalMove, whiteTurnNumber, blackTurnNumber, currentAllowedMoveSide, getCastlingFlags(),
+                hashedCastlingRights, hashedEnPassantFile);
+        int fromSquare = BitboardUtils.getSquare(from);
+        int toSquare = BitboardUtils.getSquare(to);
+        boolean isPawnHop = false;
+
+        if (MoveType.EN_PASSANT.equals(moveType)) {
+            CasePosition enemyPawnPosition = BitboardUtils.getPosition(
+                    (BitboardUtils.getRank(BitboardUtils.getSquare(from)) << 3) | BitboardUtils.getFile(BitboardUtils.getSquare(to)));
+
+            saveSquare(undo, from);
+            saveSquare(undo, to);
+            saveSquare(undo, enemyPawnPosition);
+
+            removePieceFromBoard(enemyPawnPosition);
+            relocatePiece(piece, from, to);
+        } else if (MoveType.CASTLING.equals(moveType)) {
+            CastlingPositionHelper castlingPositionHelper = new CastlingPositionHelper(from, to, side).invoke();
+            CasePosition kingPosition = castlingPositionHelper.getKingPosition();
+            CasePosition rookPosition = castlingPositionHelper.getRookPosition();
+            Pieces rook = getPiece(to);
+
+            saveSquare(undo, from);
+            saveSquare(undo, to);
+            saveSquare(undo, kingPosition);
+            saveSquare(undo, rookPosition);
+
+            removeCastlingFlag(side, castlingPositionHelper.isQueenSide());
+            relocatePiece(piece, from, kingPosition);
+
+            if (rook != null) {
+                relocatePiece(rook, to, rookPosition);
+            }
+        } else {
+            saveSquare(undo, from);
+            saveSquare(undo, to);
+
+            relocatePiece(piece, from, to);
+            isPawnHop = isPawnHop(piece, fromSquare, toSquare);
+
+            if (MoveType.PAWN_PROMOTION.equals(moveType) && promotion != null) {
+                setPiecePositionWithoutMoveState(promotion, to);
+            }
+        }
+
+        // Counted once, also for the castling that moves two pieces
+        if (Side.WHITE.equals(side)) {
+            whiteTurnNumber++;
+        } else {
+            blackTurnNumber++;
+        }
+
+        totalMove++;
+        updateAllowedMoveSide(Side.getOtherPlayerSide(side));
+        updateStateKeys(fromSquare, toSquare, isPawnHop);
+
+        return undo;
+    }
+
+    /**
+     * Same as {@link #makeMove(CasePosition, CasePosition, MoveType, Pieces)}, with a move encoded with {@link MoveUtils}
+     *
+     * @param move
+     * @return
+     */
+    public final MoveUndoModel makeMove(int move) {
+        return makeMove(MoveUtils.getFromPosition(move), MoveUtils.getToPosition(move), MoveUtils.getMoveType(move), MoveUtils.getPromotion(move));
+    }
+
+    /**
+     * Revert a move applied with {@link #makeMove(CasePosition, CasePosition, MoveType)}
+     *
+     * @param undo
+     */
+    public final void unmakeMove(MoveUndoModel undo) {
+        if (undo == null) {
+            return;
+        }
+
+        for (int i = undo.getNbOfSquares() - 1; i >= 0; i--) {
+            CasePosition position = undo.getPosition(i);
+            int square = BitboardUtils.getSquare(position);
+
+            removePieceFromBitboards(square);
+
+            Pieces piece = undo.getPiece(i);
+            if (piece != null) {
+                addPieceToBitboards(piece, square);
+            }
+
+            restoreState(isPiecesMovedMap, position, undo.getPieceMovedState(i));
+            restoreState(isPawnUsedSpecialMoveMap, position, undo.getPawnUsedSpecialMoveState(i));
+            restoreState(turnNumberPieceMap, position, undo.getPieceTurn(i));
+        }
+
+        totalMove = undo.getTotalMove();
+        whiteTurnNumber = undo.getWhiteTurnNumber();
+        blackTurnNumber = undo.getBlackTurnNumber();
+        updateAllowedMoveSide(undo.getAllowedMoveSide());
+        setCastlingFlags(undo.getCastlingFlags());
+        setHashedCastlingRights(undo.getCastlingRights());
+        setHashedEnPassantFile(undo.getEnPassantFile());
+    }
+
+    private void saveSquare(MoveUndoModel undo, CasePosition position) {
+        undo.addSquare(position,
+                getPiece(position),
+                isPiecesMovedMap.get(position),
+                isPawnUsedSpecialMoveMap.get(position),
+                turnNumberPieceMap.get(position));
+    }
+
+    private <T> void restoreState(Map<CasePosition, T> map, CasePosition position, T value) {
+        if (value == null) {
+            map.remove(position);
+        } else {
+            map.put(position, value);
+        }
+    }
+
+    /**
+     * Same as {@link GameBoard#movePieceTo(CasePosition, CasePosition, Pieces)}, the move counters are updated by the caller
+     */
+    private void relocatePiece(Pieces piece, CasePosition from, CasePosition to) {
+        removePiece(from);
+        setPiecePositionWithoutMoveState(piece, to);
+        changeMovedStateOfPiece(piece, from, to);
+
+        if (Pieces.isPawn(piece)) {
+            addPawnUsedSpecialMove(to, isPawnUsedSpecialMove(from) || isPawnHop(piece, BitboardUtils.getSquare(from), BitboardUtils.getSquare(to)));
+            removePawnUsedSpecialMove(from);
+        }
+
+        changePieceTurnNumber(from, to);
+    }
+
+    private void removeCastlingFlag(Side side, boolean isQueenSide) {
+        switch (side) {
+            case WHITE -> {
+                if (isQueenSide) {
+                    setWhiteQueenCastlingAvailable(false);
+                } else {
+                    setWhiteKingCastlingAvailable(false);
+                }
+            }
+            case BLACK -> {
+                if (isQueenSide) {
+                    setBlackQueenCastlingAvailable(false);
+                } else {
+                    setBlackKingCastlingAvailable(false);
+                }
+            }
+        }
+    }
+
+    private byte getCastlingFlags() {
+        byte flags = 0;
+
+        if (isWhiteQueenCastlingAvailable) {
+            flags |= WHITE_QUEEN_CASTLING_FLAG;
+        }
+
+        if (isWhiteKingCastlingAvailable) {
+            flags |= WHITE_KING_CASTLING_FLAG;
+        }
+
+        if (isBlackQueenCastlingAvailable) {
+            flags |= BLACK_QUEEN_CASTLING_FLAG;
+        }
+
+        if (isBlackKingCastlingAvailable) {
+            flags |= BLACK_KING_CASTLING_FLAG;
+        }
+
+        return flags;
+    }
+
+    private void setCastlingFlags(byte flags) {
+        isWhiteQueenCastlingAvailable = (flags & WHITE_QUEEN_CASTLING_FLAG) != 0;
+        isWhiteKingCastlingAvailable = (flags & WHITE_KING_CASTLING_FLAG) != 0;
+        isBlackQueenCastlingAvailable = (flags & BLACK_QUEEN_CASTLING_FLAG) != 0;
+        isBlackKingCastlingAvailable = (flags & BLACK_KING_CASTLING_FLAG) != 0;
     }
 
     protected void removePawnPromotion(Pair<CasePosition, CasePosition> pair, Side side) {
@@ -315,13 +1102,15 @@ public class GameBoardData implements Cloneable, Serializable {
             return;
         }
 
-        this.positionPiecesMap = positionPiecesMap;
+        setBitboardsFromMap(positionPiecesMap);
         this.defaultPositions.clear();
         this.defaultPositions.putAll(positionPiecesMap);
         this.isPiecesMovedMap = GameUtils.initNewMovedPieceMap(positionPiecesMap);
         this.turnNumberPieceMap = GameUtils.initTurnMap(positionPiecesMap);
+        resetStateKeys();
     }
 
+    @Override
     public boolean isGamePaused() {
         return isGamePaused;
     }
@@ -330,18 +1119,196 @@ public class GameBoardData implements Cloneable, Serializable {
         isGamePaused = gamePaused;
     }
 
+    @Override
     public List<MoveHistory> getMoveHistory() {
         return Collections.unmodifiableList(moveHistoryList);
     }
 
+    @Override
     public boolean isGameDraw() {
         return isGameDraw;
     }
 
+    /**
+     * Writes the state in a compact form: the bitboards, the maps as masks / (square, value) pairs and the history as
+     * 6 bytes per move; the occupancy masks, the kings, the Zobrist hash and the attack maps are rebuilt on read.
+     */
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(EXTERNAL_FORMAT_VERSION);
+
+        for (long pieceBitboard : pieceBitboards) {
+            out.writeLong(pieceBitboard);
+        }
+
+        boolean isDefaultGame = GameUtils.getDefaultGame().equals(defaultPositions);
+        out.writeBoolean(isDefaultGame);
+
+        if (!isDefaultGame) {
+            out.writeByte(defaultPositions.size());
+            for (Map.Entry<CasePosition, Pieces> entry : defaultPositions.entrySet()) {
+                out.writeByte(BitboardUtils.getSquare(entry.getKey()));
+                out.writeByte(BitboardUtils.getPieceIndex(entry.getValue()));
+            }
+        }
+
+        writeBooleanMap(out, isPiecesMovedMap);
+        writeBooleanMap(out, isPawnUsedSpecialMoveMap);
+
+        out.writeByte(turnNumberPieceMap.size());
+        for (Map.Entry<CasePosition, Integer> entry : turnNumberPieceMap.entrySet()) {
+            out.writeByte(BitboardUtils.getSquare(entry.getKey()));
+            out.writeInt(entry.getValue());
+        }
+
+        Collection<Map.Entry<Side, Pair<CasePosition, CasePosition>>> pawnPromotions = pawnPromotionMap.entries();
+        out.writeByte(pawnPromotions.size());
+        for (Map.Entry<Side, Pair<CasePosition, CasePosition>> entry : pawnPromotions) {
+            out.writeByte(entry.getKey().ordinal());
+            out.writeByte(BitboardUtils.getSquare(entry.getValue().getLeft()));
+            out.writeByte(BitboardUtils.getSquare(entry.getValue().getRight()));
+        }
+
+        out.writeInt(blackTurnNumber);
+        out.writeInt(whiteTurnNumber);
+        out.writeInt(totalMove);
+        out.writeShort(blackPlayerPoint);
+        out.writeShort(whitePlayerPoint);
+        out.writeByte(getCastlingFlags() |
+                (isGameDraw ? 1 << 4 : 0) |
+                (isGamePaused ? 1 << 5 : 0) |
+                (allowOtherToJoin ? 1 << 6 : 0) |
+                (allowObservers ? 1 << 7 : 0));
+        out.writeBoolean(isAttackMapsEnabled());
+        out.writeByte(currentAllowedMoveSide == null ? NO_VALUE : currentAllowedMoveSide.ordinal() + 1);
+
+        out.writeInt(moveHistoryList.size());
+        for (MoveHistory moveHistory : moveHistoryList) {
+            out.writeByte(BitboardUtils.getSquare(moveHistory.getFrom()));
+            out.writeByte(BitboardUtils.getSquare(moveHistory.getTo()));
+            writeEnum(out, moveHistory.getSide());
+            writeEnum(out, moveHistory.getMoveType());
+            writeEnum(out, moveHistory.getCurrentKingStatus());
+            writeEnum(out, moveHistory.getOtherKingStatus());
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        byte formatVersion = in.readByte();
+
+        if (formatVersion != EXTERNAL_FORMAT_VERSION) {
+            throw new InvalidObjectException("Unknown format version " + formatVersion);
+        }
+
+        Map<CasePosition, Pieces> positions = new EnumMap<>(CasePosition.class);
+        for (int index = 0; index < BitboardUtils.NB_OF_PIECES; index++) {
+            for (long bitboard = in.readLong(); bitboard != BitboardUtils.EMPTY; bitboard &= bitboard - 1) {
+                positions.put(BitboardUtils.getPosition(Long.numberOfTrailingZeros(bitboard)), BitboardUtils.getPiece(index));
+            }
+        }
+
+        if (!in.readBoolean()) {
+            defaultPositions = new EnumMap<>(CasePosition.class);
+            for (int i = in.readUnsignedByte(); i > 0; i--) {
+                defaultPositions.put(BitboardUtils.getPosition(in.readUnsignedByte()), BitboardUtils.getPiece(in.readUnsignedByte()));
+            }
+        }
+
+        isPiecesMovedMap = readBooleanMap(in);
+        isPawnUsedSpecialMoveMap = readBooleanMap(in);
+
+        turnNumberPieceMap = new EnumMap<>(CasePosition.class);
+        for (int i = in.readUnsignedByte(); i > 0; i--) {
+            turnNumberPieceMap.put(BitboardUtils.getPosition(in.readUnsignedByte()), in.readInt());
+        }
+
+        pawnPromotionMap = new ArrayListValuedHashMap<>();
+        for (int i = in.readUnsignedByte(); i > 0; i--) {
+            Side side = Side.values()[in.readUnsignedByte()];
+            pawnPromotionMap.put(side, Pair.of(BitboardUtils.getPosition(in.readUnsignedByte()), BitboardUtils.getPosition(in.readUnsignedByte())));
+        }
+
+        blackTurnNumber = in.readInt();
+        whiteTurnNumber = in.readInt();
+        totalMove = in.readInt();
+        blackPlayerPoint = in.readShort();
+        whitePlayerPoint = in.readShort();
+
+        int flags = in.readUnsignedByte();
+        isWhiteQueenCastlingAvailable = (flags & WHITE_QUEEN_CASTLING_FLAG) != 0;
+        isWhiteKingCastlingAvailable = (flags & WHITE_KING_CASTLING_FLAG) != 0;
+        isBlackQueenCastlingAvailable = (flags & BLACK_QUEEN_CASTLING_FLAG) != 0;
+        isBlackKingCastlingAvailable = (flags & BLACK_KING_CASTLING_FLAG) != 0;
+        isGameDraw = (flags & (1 << 4)) != 0;
+        isGamePaused = (flags & (1 << 5)) != 0;
+        allowOtherToJoin = (flags & (1 << 6)) != 0;
+        allowObservers = (flags & (1 << 7)) != 0;
+
+        boolean isAttackMapsEnabled = in.readBoolean();
+        currentAllowedMoveSide = readEnum(in, Side.values());
+
+        int nbOfMoves = in.readInt();
+        moveHistoryList = new ArrayList<>(nbOfMoves);
+        for (int i = 0; i < nbOfMoves; i++) {
+            CasePosition from = BitboardUtils.getPosition(in.readUnsignedByte());
+            CasePosition to = BitboardUtils.getPosition(in.readUnsignedByte());
+            MoveHistory moveHistory = new MoveHistory(from, to, readEnum(in, Side.values()));
+            moveHistory.setMoveType(readEnum(in, MoveType.values()));
+            moveHistory.setCurrentKingStatus(readEnum(in, KingStatus.values()));
+            moveHistory.setOtherKingStatus(readEnum(in, KingStatus.values()));
+            moveHistoryList.add(moveHistory);
+        }
+
+        // After the side and the castling flags, used by the Zobrist hash
+        setBitboardsFromMap(positions);
+        setAttackMapsEnabled(isAttackMapsEnabled);
+    }
+
+    private static void writeBooleanMap(ObjectOutput out, Map<CasePosition, Boolean> values) throws IOException {
+        long keys = BitboardUtils.EMPTY;
+        long trueValues = BitboardUtils.EMPTY;
+
+        for (Map.Entry<CasePosition, Boolean> entry : values.entrySet()) {
+            long mask = 1L << BitboardUtils.getSquare(entry.getKey());
+            keys |= mask;
+
+            if (BooleanUtils.isTrue(entry.getValue())) {
+                trueValues |= mask;
+            }
+        }
+
+        out.writeLong(keys);
+        out.writeLong(trueValues);
+    }
+
+    private static Map<CasePosition, Boolean> readBooleanMap(ObjectInput in) throws IOException {
+        Map<CasePosition, Boolean> values = new EnumMap<>(CasePosition.class);
+        long keys = in.readLong();
+        long trueValues = in.readLong();
+
+        for (; keys != BitboardUtils.EMPTY; keys &= keys - 1) {
+            int square = Long.numberOfTrailingZeros(keys);
+            values.put(BitboardUtils.getPosition(square), (trueValues & (1L << square)) != 0);
+        }
+
+        return values;
+    }
+
+    private static void writeEnum(ObjectOutput out, Enum<?> value) throws IOException {
+        out.writeByte(value == null ? NO_VALUE : value.ordinal() + 1);
+    }
+
+    private static <T extends Enum<T>> T readEnum(ObjectInput in, T[] values) throws IOException {
+        int value = in.readUnsignedByte();
+        return value == NO_VALUE ? null : values[value - 1];
+    }
+
     @Override
     public GameBoardData clone() throws CloneNotSupportedException {
         GameBoardData cloned = (GameBoardData) super.clone();
-        cloned.positionPiecesMap = new EnumMap<>(this.positionPiecesMap);
+        cloned.pieceBitboards = this.pieceBitboards.clone();
+        cloned.attackMaps = this.attackMaps == null ? null : this.attackMaps.clone();
         cloned.isPiecesMovedMap = new EnumMap<>(this.isPiecesMovedMap);
         cloned.isPawnUsedSpecialMoveMap = new EnumMap<>(this.isPawnUsedSpecialMoveMap);
         cloned.turnNumberPieceMap = new EnumMap<>(this.turnNumberPieceMap);
@@ -366,15 +1333,21 @@ public class GameBoardData implements Cloneable, Serializable {
     }
 
     protected final void changeAllowedMoveSide() {
-        currentAllowedMoveSide = Side.getOtherPlayerSide(currentAllowedMoveSide);
+        updateAllowedMoveSide(Side.getOtherPlayerSide(currentAllowedMoveSide));
+    }
+
+    private void updateAllowedMoveSide(Side side) {
+        zobristKey ^= ZobristUtils.getSideKey(currentAllowedMoveSide) ^ ZobristUtils.getSideKey(side);
+        currentAllowedMoveSide = side;
     }
 
+    @Override
     public Side getCurrentAllowedMoveSide() {
         return currentAllowedMoveSide;
     }
 
     protected final void setCurrentAllowedMoveSide(Side side) {
-        this.currentAllowedMoveSide = side;
+        updateAllowedMoveSide(side);
     }
 
     protected void addBlackPlayerPoint(byte point) {
@@ -385,46 +1358,57 @@ public class GameBoardData implements Cloneable, Serializable {
         whitePlayerPoint += point;
     }
 
+    @Override
     public short getBlackPlayerPoint() {
         return blackPlayerPoint;
     }
 
+    @Override
     public short getWhitePlayerPoint() {
         return whitePlayerPoint;
     }
 
+    @Override
     public final boolean isWhiteQueenCastlingAvailable() {
         return isWhiteQueenCastlingAvailable;
     }
 
     protected final void setWhiteQueenCastlingAvailable(boolean whiteQueenCastlingAvailable) {
         isWhiteQueenCastlingAvailable = whiteQueenCastlingAvailable;
+        setHashedCastlingRights(getCastlingRights());
     }
 
+    @Override
     public final boolean isWhiteKingCastlingAvailable() {
         return isWhiteKingCastlingAvailable;
     }
 
     protected final void setWhiteKingCastlingAvailable(boolean whiteKingCastlingAvailable) {
         isWhiteKingCastlingAvailable = whiteKingCastlingAvailable;
+        setHashedCastlingRights(getCastlingRights());
     }
 
+    @Override
     public final boolean isBlackQueenCastlingAvailable() {
         return isBlackQueenCastlingAvailable;
     }
 
     protected final void setBlackQueenCastlingAvailable(boolean blackQueenCastlingAvailable) {
         isBlackQueenCastlingAvailable = blackQueenCastlingAvailable;
+        setHashedCastlingRights(getCastlingRights());
     }
 
+    @Override
     public final boolean isBlackKingCastlingAvailable() {
         return isBlackKingCastlingAvailable;
     }
 
     protected final void setBlackKingCastlingAvailable(boolean blackKingCastlingAvailable) {
         isBlackKingCastlingAvailable = blackKingCastlingAvailable;
+        setHashedCastlingRights(getCastlingRights());
     }
 
+    @Override
     public boolean isAllowOtherToJoin() {
         return allowOtherToJoin;
     }
@@ -433,6 +1417,7 @@ public class GameBoardData implements Cloneable, Serializable {
         this.allowOtherToJoin = allowOtherToJoin;
     }
 
+    @Override
     public boolean isAllowObservers() {
         return allowObservers;
     }
@@ -441,7 +1426,12 @@ public class GameBoardData implements Cloneable, Serializable {
         this.allowObservers = allowObservers;
     }
 
+    @Override
     public Pieces getPiece(CasePosition position) {
-        return positionPiecesMap.get(position);
+        if (position == null) {
+            return null;
+        }
+
+        return getPieceAt(BitboardUtils.getSquare(position));
     }
 }
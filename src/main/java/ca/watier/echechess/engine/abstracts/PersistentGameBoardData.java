@@ -0,0 +1,577 @@
+package ca.watier.echechess.engine.abstracts;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Pieces;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.common.pojos.MoveHistory;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+import ca.watier.echechess.engine.models.PersistentList;
+import ca.watier.echechess.engine.utils.AttackUtils;
+import ca.watier.echechess.engine.utils.BitboardUtils;
+import ca.watier.echechess.engine.utils.EvaluationUtils;
+import ca.watier.echechess.engine.utils.MoveGenerator;
+import ca.watier.echechess.engine.utils.ZobristUtils;
+import org.apache.commons.lang3.ObjectUtils;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * An immutable state of the board.
+ * <p>
+ * The states made from another one ({@link #withMove(CasePosition, CasePosition)}, {@link #withHistory(MoveHistory)})
+ * share all the parts that are not changed: the maps of the pieces states, the default positions and the move history
+ * (a {@link PersistentList}); only the bitboards (12 longs) are copied. A snapshot and a fork are then done in a constant
+ * time, whatever the length of the game.
+ * <p>
+ * Use {@link #toGameBoardData()} to get a mutable copy.
+ */
+public final class PersistentGameBoardData implements ReadOnlyGameBoardData, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -1853214925671648053L;
+
+    private static final int NO_KING = -1;
+
+    private final long[] pieceBitboards;
+    private final long whitePiecesBitboard;
+    private final long blackPiecesBitboard;
+    private final long zobristKey;
+    private final int middlegameScore;
+    private final int endgameScore;
+    private final int gamePhase;
+    private final Map<CasePosition, Pieces> defaultPositions;
+    private final Map<CasePosition, Boolean> isPiecesMovedMap;
+    private final Map<CasePosition, Boolean> isPawnUsedSpecialMoveMap;
+    private final Map<CasePosition, Integer> turnNumberPieceMap;
+    private final PersistentList<MoveHistory> moveHistory;
+    private final int blackTurnNumber;
+    private final int whiteTurnNumber;
+    private final int totalMove;
+    private final short blackPlayerPoint;
+    private final short whitePlayerPoint;
+    private final boolean isGameDraw;
+    private final boolean isGamePaused;
+    private final boolean isWhiteQueenCastlingAvailable;
+    private final boolean isWhiteKingCastlingAvailable;
+    private final boolean isBlackQueenCastlingAvailable;
+    private final boolean isBlackKingCastlingAvailable;
+    private final Side currentAllowedMoveSide;
+    private final boolean allowOtherToJoin;
+    private final boolean allowObservers;
+
+    private PersistentGameBoardData(Builder builder) {
+        pieceBitboards = builder.pieceBitboards;
+        long whitePieces = BitboardUtils.EMPTY;
+        long blackPieces = BitboardUtils.EMPTY;
+
+        for (int index = 0; index < BitboardUtils.NB_OF_PIECES; index++) {
+            if (index < BitboardUtils.BLACK_PAWN) {
+                whitePieces |= pieceBitboards[index];
+            } else {
+                blackPieces |= pieceBitboards[index];
+            }
+        }
+
+        whitePiecesBitboard = whitePieces;
+        blackPiecesBitboard = blackPieces;
+        zobristKey = builder.zobristKey;
+        middlegameScore = builder.middlegameScore;
+        endgameScore = builder.endgameScore;
+        gamePhase = builder.gamePhase;
+        defaultPositions = builder.defaultPositions;
+        isPiecesMovedMap = builder.isPiecesMovedMap;
+        isPawnUsedSpecialMoveMap = builder.isPawnUsedSpecialMoveMap;
+        turnNumberPieceMap = builder.turnNumberPieceMap;
+        moveHistory = builder.moveHistory;
+        blackTurnNumber = builder.blackTurnNumber;
+        whiteTurnNumber = builder.whiteTurnNumber;
+        totalMove = builder.totalMove;
+        blackPlayerPoint = builder.blackPlayerPoint;
+        whitePlayerPoint = builder.whitePlayerPoint;
+        isGameDraw = builder.isGameDraw;
+        isGamePaused = builder.isGamePaused;
+        isWhiteQueenCastlingAvailable = builder.isWhiteQueenCastlingAvailable;
+        isWhiteKingCastlingAvailable = builder.isWhiteKingCastlingAvailable;
+        isBlackQueenCastlingAvailable = builder.isBlackQueenCastlingAvailable;
+        isBlackKingCastlingAvailable = builder.isBlackKingCastlingAvailable;
+        currentAllowedMoveSide = builder.currentAllowedMoveSide;
+        allowOtherToJoin = builder.allowOtherToJoin;
+        allowObservers = builder.allowObservers;
+    }
+
+    /**
+     * Gets an immutable copy of the state
+     *
+     * @param gameBoardData
+     * @param moveHistory   - the history of the state; shared with the new state
+     * @return
+     */
+    public static PersistentGameBoardData of(ReadOnlyGameBoardData gameBoardData, PersistentList<MoveHistory> moveHistory) {
+        Builder builder = new Builder();
+        builder.pieceBitboards = new long[BitboardUtils.NB_OF_PIECES];
+
+        for (int index = 0; index < BitboardUtils.NB_OF_PIECES; index++) {
+            builder.pieceBitboards[index] = gameBoardData.getPieceBitboard(index);
+        }
+
+        builder.zobristKey = gameBoardData.getZobristKey();
+        builder.middlegameScore = gameBoardData.getMiddlegameScore();
+        builder.endgameScore = gameBoardData.getEndgameScore();
+        builder.gamePhase = gameBoardData.getGamePhase();
+        builder.defaultPositions = Map.copyOf(gameBoardData.getDefaultPositions());
+        builder.isPiecesMovedMap = Map.copyOf(gameBoardData.getIsPiecesMovedMap());
+        builder.isPawnUsedSpecialMoveMap = Map.copyOf(gameBoardData.getIsPawnUsedSpecialMoveMap());
+        builder.turnNumberPieceMap = Map.copyOf(gameBoardData.getTurnNumberPieceMap());
+        builder.moveHistory = moveHistory;
+        builder.blackTurnNumber = gameBoardData.getBlackTurnNumber();
+        builder.whiteTurnNumber = gameBoardData.getWhiteTurnNumber();
+        builder.totalMove = gameBoardData.getNbTotalMove();
+        builder.blackPlayerPoint = gameBoardData.getBlackPlayerPoint();
+        builder.whitePlayerPoint = gameBoardData.getWhitePlayerPoint();
+        builder.isGameDraw = gameBoardData.isGameDraw();
+        builder.isGamePaused = gameBoardData.isGamePaused();
+        builder.isWhiteQueenCastlingAvailable = gameBoardData.isWhiteQueenCastlingAvailable();
+        builder.isWhiteKingCastlingAvailable = gameBoardData.isWhiteKingCastlingAvailable();
+        builder.isBlackQueenCastlingAvailable = gameBoardData.isBlackQueenCastlingAvailable();
+        builder.isBlackKingCastlingAvailable = gameBoardData.isBlackKingCastlingAvailable();
+        builder.currentAllowedMoveSide = gameBoardData.getCurrentAllowedMoveSide();
+        builder.allowOtherToJoin = gameBoardData.isAllowOtherToJoin();
+        builder.allowObservers = gameBoardData.isAllowObservers();
+
+        return new PersistentGameBoardData(builder);
+    }
+
+    /**
+     * Gets an immutable copy of the state, the history is copied
+     *
+     * @param gameBoardData
+     * @return
+     */
+    public static PersistentGameBoardData of(ReadOnlyGameBoardData gameBoardData) {
+        return of(gameBoardData, PersistentList.of(gameBoardData.getMoveHistory()));
+    }
+
+    /**
+     * Gets a new state with the piece moved, and the move given to the other side; this state is unchanged.
+     * <p>
+     * The piece on the target (if any) is captured. The castling, the en passant and the promotion are not handled,
+     * use {@link #toGameBoardData()} and {@link GameBoardData#makeMove} for them. The path of the piece and the checks
+     * are not validated.
+     *
+     * @param from
+     * @param to
+     * @return the new state; this state when there's no piece of the side to move on the source, when the target is
+     * a piece of the same side, or when the move is a castling, an en passant or a promotion
+     */
+    public PersistentGameBoardData withMove(CasePosition from, CasePosition to) {
+        Pieces piece = getPiece(from);
+
+        if (ObjectUtils.anyNull(piece, to) || from == to || !piece.getSide().equals(currentAllowedMoveSide)) {
+            return this;
+        }
+
+        int fromSquare = BitboardUtils.getSquare(from);
+        int toSquare = BitboardUtils.getSquare(to);
+        int pieceIndex = BitboardUtils.getPieceIndex(piece);
+        Pieces captured = getPieceAt(toSquare);
+        boolean isPawn = Pieces.isPawn(piece);
+
+        if (captured != null && captured.getSide().equals(piece.getSide())) {
+            return this; // Also the castling (king to the rook position)
+        }
+
+        if (isPawn && (isLastRank(toSquare) || (captured == null && BitboardUtils.getFile(fromSquare) != BitboardUtils.getFile(toSquare)))) {
+            return this; // The promotion or the en passant
+        }
+
+        Builder builder = new Builder(this);
+        builder.pieceBitboards = pieceBitboards.clone();
+        builder.pieceBitboards[pieceIndex] ^= (1L << fromSquare) | (1L << toSquare);
+        builder.zobristKey ^= ZobristUtils.getPieceKey(pieceIndex, fromSquare) ^ ZobristUtils.getPieceKey(pieceIndex, toSquare);
+        builder.middlegameScore += EvaluationUtils.getMiddlegameValue(pieceIndex, toSquare) - EvaluationUtils.getMiddlegameValue(pieceIndex, fromSquare);
+        builder.endgameScore += EvaluationUtils.getEndgameValue(pieceIndex, toSquare) - EvaluationUtils.getEndgameValue(pieceIndex, fromSquare);
+
+        if (captured != null) {
+            int capturedIndex = BitboardUtils.getPieceIndex(captured);
+            builder.pieceBitboards[capturedIndex] &= ~(1L << toSquare);
+            builder.zobristKey ^= ZobristUtils.getPieceKey(capturedIndex, toSquare);
+            builder.middlegameScore -= EvaluationUtils.getMiddlegameValue(capturedIndex, toSquare);
+            builder.endgameScore -= EvaluationUtils.getEndgameValue(capturedIndex, toSquare);
+            builder.gamePhase -= EvaluationUtils.getPhaseWeight(capturedIndex);
+        }
+
+        Map<CasePosition, Boolean> movedMap = new EnumMap<>(CasePosition.class);
+        movedMap.putAll(isPiecesMovedMap);
+        movedMap.remove(from);
+        movedMap.put(to, true);
+        builder.isPiecesMovedMap = Collections.unmodifiableMap(movedMap);
+
+        Map<CasePosition, Integer> turnMap = new EnumMap<>(CasePosition.class);
+        turnMap.putAll(turnNumberPieceMap);
+        turnMap.remove(from);
+        turnMap.put(to, totalMove);
+        builder.turnNumberPieceMap = Collections.unmodifiableMap(turnMap);
+
+        if (isPawn) { // Same as GameBoardData#makeMove, the hop allows the en passant on the next move
+            boolean isPawnHop = Math.abs(BitboardUtils.getRank(fromSquare) - BitboardUtils.getRank(toSquare)) == 2;
+            Map<CasePosition, Boolean> pawnMap = new EnumMap<>(CasePosition.class);
+            pawnMap.putAll(isPawnUsedSpecialMoveMap);
+            pawnMap.put(to, isPawnUsedSpecialMove(from) || isPawnHop);
+            pawnMap.remove(from);
+            builder.isPawnUsedSpecialMoveMap = Collections.unmodifiableMap(pawnMap);
+        }
+
+        if (Side.WHITE.equals(piece.getSide())) {
+            builder.whiteTurnNumber++;
+        } else {
+            builder.blackTurnNumber++;
+        }
+
+        Side otherSide = Side.getOtherPlayerSide(currentAllowedMoveSide);
+        builder.zobristKey ^= ZobristUtils.getSideKey(currentAllowedMoveSide) ^ ZobristUtils.getSideKey(otherSide);
+        builder.currentAllowedMoveSide = otherSide;
+        builder.totalMove++;
+
+        // The castling rights and the en passant file of the hash can change with the move (see GameBoardData#getZobristKey)
+        PersistentGameBoardData moved = new PersistentGameBoardData(builder);
+        builder.zobristKey ^= ZobristUtils.getCastlingKey(MoveGenerator.getCastlingRights(this)) ^
+                ZobristUtils.getCastlingKey(MoveGenerator.getCastlingRights(moved)) ^
+                ZobristUtils.getEnPassantKey(MoveGenerator.getEnPassantFile(this)) ^
+                ZobristUtils.getEnPassantKey(MoveGenerator.getEnPassantFile(moved));
+
+        return new PersistentGameBoardData(builder);
+    }
+
+    private static boolean isLastRank(int square) {
+        int rank = BitboardUtils.getRank(square);
+        return rank == 0 || rank == 7;
+    }
+
+    /**
+     * Gets a new state with the move added to the history; this state is unchanged
+     *
+     * @param move
+     * @return
+     */
+    public PersistentGameBoardData withHistory(MoveHistory move) {
+        Builder builder = new Builder(this);
+        builder.moveHistory = moveHistory.add(move);
+
+        return new PersistentGameBoardData(builder);
+    }
+
+    /**
+     * Gets a mutable copy of the state
+     *
+     * @return
+     */
+    public GameBoardData toGameBoardData() {
+        return new GameBoardData(this);
+    }
+
+    public PersistentList<MoveHistory> getPersistentMoveHistory() {
+        return moveHistory;
+    }
+
+    @Override
+    public Pieces getPiece(CasePosition position) {
+        return position == null ? null : getPieceAt(BitboardUtils.getSquare(position));
+    }
+
+    @Override
+    public Pieces getPieceAt(int square) {
+        long mask = 1L << square;
+
+        if (((whitePiecesBitboard | blackPiecesBitboard) & mask) == 0) {
+            return null;
+        }
+
+        for (int index = 0; index < BitboardUtils.NB_OF_PIECES; index++) {
+            if ((pieceBitboards[index] & mask) != 0) {
+                return BitboardUtils.getPiece(index);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public Map<CasePosition, Pieces> getPiecesLocation() {
+        return Collections.unmodifiableMap(getPiecesLocationFromBitboard(getOccupiedBitboard()));
+    }
+
+    @Override
+    public Map<CasePosition, Pieces> getPiecesLocation(Side side) {
+        return getPiecesLocationFromBitboard(getSideBitboard(side));
+    }
+
+    private Map<CasePosition, Pieces> getPiecesLocationFromBitboard(long bitboard) {
+        Map<CasePosition, Pieces> values = new EnumMap<>(CasePosition.class);
+
+        while (bitboard != BitboardUtils.EMPTY) {
+            int square = Long.numberOfTrailingZeros(bitboard);
+            bitboard &= bitboard - 1;
+
+            values.put(BitboardUtils.getPosition(square), getPieceAt(square));
+        }
+
+        return values;
+    }
+
+    @Override
+    public long getPieceBitboard(Pieces piece) {
+        return piece == null ? BitboardUtils.EMPTY : pieceBitboards[BitboardUtils.getPieceIndex(piece)];
+    }
+
+    @Override
+    public long getPieceBitboard(int pieceIndex) {
+        return pieceBitboards[pieceIndex];
+    }
+
+    @Override
+    public long getSideBitboard(Side side) {
+        if (side == null) {
+            return BitboardUtils.EMPTY;
+        }
+
+        return switch (side) {
+            case WHITE -> whitePiecesBitboard;
+            case BLACK -> blackPiecesBitboard;
+            default -> BitboardUtils.EMPTY;
+        };
+    }
+
+    @Override
+    public long getOccupiedBitboard() {
+        return whitePiecesBitboard | blackPiecesBitboard;
+    }
+
+    @Override
+    public long getAttackers(int square, Side attackerSide) {
+        return AttackUtils.getAttackers(square, attackerSide, this, getOccupiedBitboard());
+    }
+
+    @Override
+    public boolean isAttackMapsEnabled() {
+        return false;
+    }
+
+    @Override
+    public int getKingSquare(Side side) {
+        if (side == null || Side.OBSERVER.equals(side)) {
+            return NO_KING;
+        }
+
+        long kings = pieceBitboards[BitboardUtils.getPieceIndex(side, BitboardUtils.KING)];
+        return kings == BitboardUtils.EMPTY ? NO_KING : Long.numberOfTrailingZeros(kings);
+    }
+
+    @Override
+    public CasePosition getKingPosition(Side side) {
+        int square = getKingSquare(side);
+        return square == NO_KING ? null : BitboardUtils.getPosition(square);
+    }
+
+    @Override
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    @Override
+    public int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    @Override
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    @Override
+    public int getGamePhase() {
+        return gamePhase;
+    }
+
+    @Override
+    public Map<CasePosition, Pieces> getDefaultPositions() {
+        return defaultPositions;
+    }
+
+    @Override
+    public boolean isDefaultPosition(CasePosition position, Pieces piece) {
+        if (ObjectUtils.anyNull(position, piece)) {
+            return false;
+        }
+
+        return piece.equals(defaultPositions.get(position));
+    }
+
+    @Override
+    public int getBlackTurnNumber() {
+        return blackTurnNumber;
+    }
+
+    @Override
+    public int getWhiteTurnNumber() {
+        return whiteTurnNumber;
+    }
+
+    @Override
+    public int getNbTotalMove() {
+        return totalMove;
+    }
+
+    @Override
+    public Map<CasePosition, Boolean> getIsPiecesMovedMap() {
+        return isPiecesMovedMap;
+    }
+
+    @Override
+    public Map<CasePosition, Boolean> getIsPawnUsedSpecialMoveMap() {
+        return isPawnUsedSpecialMoveMap;
+    }
+
+    @Override
+    public Map<CasePosition, Integer> getTurnNumberPieceMap() {
+        return turnNumberPieceMap;
+    }
+
+    @Override
+    public Integer getPieceTurn(CasePosition position) {
+        return position == null ? null : turnNumberPieceMap.get(position);
+    }
+
+    @Override
+    public boolean isPieceMoved(CasePosition position) {
+        return position != null && Boolean.TRUE.equals(isPiecesMovedMap.get(position));
+    }
+
+    @Override
+    public boolean isPawnUsedSpecialMove(CasePosition position) {
+        return position != null && Boolean.TRUE.equals(isPawnUsedSpecialMoveMap.get(position));
+    }
+
+    /**
+     * Gets the history, built from the {@link PersistentList} on each call; prefer {@link #getPersistentMoveHistory()}
+     *
+     * @return an unmodifiable list
+     */
+    @Override
+    public List<MoveHistory> getMoveHistory() {
+        return moveHistory.toList();
+    }
+
+    @Override
+    public boolean isGamePaused() {
+        return isGamePaused;
+    }
+
+    @Override
+    public boolean isGameDraw() {
+        return isGameDraw;
+    }
+
+    @Override
+    public Side getCurrentAllowedMoveSide() {
+        return currentAllowedMoveSide;
+    }
+
+    @Override
+    public short getBlackPlayerPoint() {
+        return blackPlayerPoint;
+    }
+
+    @Override
+    public short getWhitePlayerPoint() {
+        return whitePlayerPoint;
+    }
+
+    @Override
+    public boolean isWhiteQueenCastlingAvailable() {
+        return isWhiteQueenCastlingAvailable;
+    }
+
+    @Override
+    public boolean isWhiteKingCastlingAvailable() {
+        return isWhiteKingCastlingAvailable;
+    }
+
+    @Override
+    public boolean isBlackQueenCastlingAvailable() {
+        return isBlackQueenCastlingAvailable;
+    }
+
+    @Override
+    public boolean isBlackKingCastlingAvailable() {
+        return isBlackKingCastlingAvailable;
+    }
+
+    @Override
+    public boolean isAllowOtherToJoin() {
+        return allowOtherToJoin;
+    }
+
+    @Override
+    public boolean isAllowObservers() {
+        return allowObservers;
+    }
+
+    private static final class Builder {
+        private long[] pieceBitboards;
+        private long zobristKey;
+        private int middlegameScore;
+        private int endgameScore;
+        private int gamePhase;
+        private Map<CasePosition, Pieces> defaultPositions;
+        private Map<CasePosition, Boolean> isPiecesMovedMap;
+        private Map<CasePosition, Boolean> isPawnUsedSpecialMoveMap;
+        private Map<CasePosition, Integer> turnNumberPieceMap;
+        private PersistentList<MoveHistory> moveHistory;
+        private int blackTurnNumber;
+        private int whiteTurnNumber;
+        private int totalMove;
+        private short blackPlayerPoint;
+        private short whitePlayerPoint;
+        private boolean isGameDraw;
+        private boolean isGamePaused;
+        private boolean isWhiteQueenCastlingAvailable;
+        private boolean isWhiteKingCastlingAvailable;
+        private boolean isBlackQueenCastlingAvailable;
+        private boolean isBlackKingCastlingAvailable;
+        private Side currentAllowedMoveSide;
+        private boolean allowOtherToJoin;
+        private boolean allowObservers;
+
+        private Builder() {
+        }
+
+        private Builder(PersistentGameBoardData source) {
+            pieceBitboards = source.pieceBitboards;
+            zobristKey = source.zobristKey;
+            middlegameScore = source.middlegameScore;
+            endgameScore = source.endgameScore;
+            gamePhase = source.gamePhase;
+            defaultPositions = source.defaultPositions;
+            isPiecesMovedMap = source.isPiecesMovedMap;
+            isPawnUsedSpecialMoveMap = source.isPawnUsedSpecialMoveMap;
+            turnNumberPieceMap = source.turnNumberPieceMap;
+            moveHistory = source.moveHistory;
+            blackTurnNumber = source.blackTurnNumber;
+            whiteTurnNumber = source.whiteTurnNumber;
+            totalMove = source.totalMove;
+            blackPlayerPoint = source.blackPlayerPoint;
+            whitePlayerPoint = source.whitePlayerPoint;
+            isGameDraw = source.isGameDraw;
+            isGamePaused = source.isGamePaused;
+            isWhiteQueenCastlingAvailable = source.isWhiteQueenCastlingAvailable;
+            isWhiteKingCastlingAvailable = source.isWhiteKingCastlingAvailable;
+            isBlackQueenCastlingAvailable = source.isBlackQueenCastlingAvailable;
+            isBlackKingCastlingAvailable = source.isBlackKingCastlingAvailable;
+            currentAllowedMoveSide = source.currentAllowedMoveSide;
+            allowOtherToJoin = source.allowOtherToJoin;
+            allowObservers = source.allowObservers;
+        }
+    }
+}
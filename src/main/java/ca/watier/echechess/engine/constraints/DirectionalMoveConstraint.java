@@ -16,18 +16,19 @@
 
 package ca.watier.echechess.engine.constraints;
 
-import ca.watier.echechess.common.enums.*;
-import ca.watier.echechess.common.utils.MathUtils;
-import ca.watier.echechess.engine.abstracts.GameBoardData;
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Direction;
+import ca.watier.echechess.common.enums.DirectionPattern;
+import ca.watier.echechess.common.enums.Pieces;
 import ca.watier.echechess.engine.interfaces.MoveConstraint;
-import ca.watier.echechess.engine.models.DistancePiecePositionModel;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
 import ca.watier.echechess.engine.models.enums.MoveStatus;
-import ca.watier.echechess.engine.utils.GameUtils;
-import org.apache.commons.collections4.CollectionUtils;
+import ca.watier.echechess.engine.utils.BitboardUtils;
+import ca.watier.echechess.engine.utils.MagicBitboardUtils;
 import org.apache.commons.lang3.ObjectUtils;
 
 import java.io.Serial;
-import java.util.*;
+import java.util.Objects;
 
 /**
  * Created by yannick on 4/23/2017.
@@ -35,10 +36,11 @@ import java.util.*;
 public class DirectionalMoveConstraint implements MoveConstraint {
 
     @Serial
-    private static final long serialVersionUID = 8337007739691270394L;
+    private static final long serialVersionUID = -3127488419536210147L;
 
     private final DirectionPattern pattern;
-    private final List<Direction> directionList;
+    private final boolean isMovingInLine;
+    private final boolean isMovingInDiagonal;
 
     public DirectionalMoveConstraint(DirectionPattern pattern) {
         this.pattern = pattern;
@@ -47,50 +49,64 @@ public class DirectionalMoveConstraint implements MoveConstraint {
             throw new IllegalArgumentException("The pattern cannot be null!");
         }
 
-        directionList = Arrays.asList(pattern.getDirections());
+        boolean inLine = false;
+        boolean inDiagonal = false;
+
+        for (Direction direction : pattern.getDirections()) {
+            switch (direction) {
+                case NORTH, SOUTH, EAST, WEST -> inLine = true;
+                default -> inDiagonal = true;
+            }
+        }
+
+        isMovingInLine = inLine;
+        isMovingInDiagonal = inDiagonal;
     }
 
     @Override
-    public MoveStatus getMoveStatus(CasePosition from, CasePosition to, GameBoardData gameBoardData) {
+    public MoveStatus getMoveStatus(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData) {
         if (ObjectUtils.anyNull(from, to, pattern)) {
             return MoveStatus.getInvalidMoveStatusBasedOnTarget(from);
         }
 
-        Map<CasePosition, Pieces> positionPiecesMap = gameBoardData.getPiecesLocation();
-        Pieces pieceTo = positionPiecesMap.get(to);
-        Pieces pieceFrom = positionPiecesMap.get(from);
+        Pieces pieceTo = gameBoardData.getPiece(to);
+        Pieces pieceFrom = gameBoardData.getPiece(from);
 
-        Direction directionFromPosition = MathUtils.getDirectionFromPosition(from, to);
+        int fromSquare = BitboardUtils.getSquare(from);
+        long toMask = BitboardUtils.getMask(to);
 
-        if (!directionList.contains(directionFromPosition)) {
+        if ((getAttacks(fromSquare, BitboardUtils.EMPTY) & toMask) == 0) { // Not in the directions of the piece
             return MoveStatus.getInvalidMoveStatusBasedOnTarget(pieceTo);
         }
 
-        return isMoveValid(from, to, pieceFrom, pieceTo, directionFromPosition, positionPiecesMap);
-    }
-
-    private MoveStatus isMoveValid(CasePosition from, CasePosition to, Pieces pieceFrom, Pieces pieceTo, Direction directionFromPosition, Map<CasePosition, Pieces> piecesMap) {
+        boolean isPiecesBetween = (getAttacks(fromSquare, gameBoardData.getOccupiedBitboard()) & toMask) == 0;
 
-        if (!MathUtils.isPositionInLine(from, MathUtils.getNearestPositionFromDirection(from, directionFromPosition), to)) {
-            return MoveStatus.getInvalidMoveStatusBasedOnTarget(pieceTo);
+        if (Pieces.isKing(pieceTo)) {
+            return handleKingTarget(isPiecesBetween, pieceFrom, pieceTo);
+        } else {
+            return handleOtherTarget(pieceFrom, pieceTo, isPiecesBetween);
         }
+    }
 
-        Set<DistancePiecePositionModel> piecesBetweenPosition = GameUtils.getPiecesBetweenPosition(from, to, piecesMap);
+    private long getAttacks(int square, long occupancy) {
+        long attacks = BitboardUtils.EMPTY;
 
-        Side sideFrom = pieceFrom.getSide();
+        if (isMovingInLine) {
+            attacks |= MagicBitboardUtils.getRookAttacks(square, occupancy);
+        }
 
-        if (Pieces.isKing(pieceTo)) {
-            return handleKingTarget(piecesBetweenPosition, pieceFrom, pieceTo);
-        } else {
-            return handleOtherTarget(sideFrom, pieceTo, piecesBetweenPosition);
+        if (isMovingInDiagonal) {
+            attacks |= MagicBitboardUtils.getBishopAttacks(square, occupancy);
         }
+
+        return attacks;
     }
 
     //[FROM] [ANY] [ANY] [KING]
-    private MoveStatus handleKingTarget(Set<DistancePiecePositionModel> piecesBetweenPosition, Pieces pieceFrom, Pieces pieceTo) {
+    private MoveStatus handleKingTarget(boolean isPiecesBetween, Pieces pieceFrom, Pieces pieceTo) {
         boolean isSameSide = Pieces.isSameSide(pieceTo, pieceFrom);
 
-        if (CollectionUtils.isEmpty(piecesBetweenPosition)) {
+        if (!isPiecesBetween) {
             if (isSameSide) {
                 return MoveStatus.CAN_PROTECT_FRIENDLY;
             } else {
@@ -102,15 +118,14 @@ public class DirectionalMoveConstraint implements MoveConstraint {
     }
 
     //[FROM] [ANY] [ANY] [ANY]
-    private MoveStatus handleOtherTarget(Side sideFrom, Pieces pieceTo, Set<DistancePiecePositionModel> piecesBetweenPosition) {
+    private MoveStatus handleOtherTarget(Pieces pieceFrom, Pieces pieceTo, boolean isPiecesBetween) {
 
         boolean isTarget = Objects.nonNull(pieceTo);
-        boolean isPiecesBetween = CollectionUtils.isNotEmpty(piecesBetweenPosition);
 
         if (isPiecesBetween) {
             return MoveStatus.INVALID_ATTACK;
         } else if (isTarget) {
-            if (Pieces.isSameSide(pieceTo, sideFrom)) {
+            if (Pieces.isSameSide(pieceTo, pieceFrom)) {
                 return MoveStatus.CAN_PROTECT_FRIENDLY;
             } else {
                 return MoveStatus.VALID_ATTACK;
@@ -21,18 +21,17 @@ import ca.watier.echechess.common.enums.MoveType;
 import ca.watier.echechess.common.enums.Pieces;
 import ca.watier.echechess.common.enums.Side;
 import ca.watier.echechess.common.utils.CastlingPositionHelper;
-import ca.watier.echechess.common.utils.MathUtils;
-import ca.watier.echechess.engine.abstracts.GameBoardData;
-import ca.watier.echechess.engine.interfaces.KingHandler;
 import ca.watier.echechess.engine.interfaces.MoveConstraint;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
 import ca.watier.echechess.engine.models.DistancePiecePositionModel;
 import ca.watier.echechess.engine.models.enums.MoveStatus;
+import ca.watier.echechess.engine.utils.AttackUtils;
+import ca.watier.echechess.engine.utils.BitboardUtils;
 import ca.watier.echechess.engine.utils.GameUtils;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.ObjectUtils;
 
 import java.io.Serial;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -45,18 +44,12 @@ public class KingMoveConstraint implements MoveConstraint {
     @Serial
     private static final long serialVersionUID = -7557608272658055902L;
 
-    private final KingHandler kingHandler;
-
-    public KingMoveConstraint(KingHandler kingHandler) {
-        this.kingHandler = kingHandler;
-    }
-
     @Override
-    public MoveStatus getMoveStatus(CasePosition from, CasePosition to, GameBoardData gameBoardData) {
+    public MoveStatus getMoveStatus(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData) {
         Pieces fromPiece = gameBoardData.getPiece(from);
         Pieces toPiece = gameBoardData.getPiece(to);
 
-        if (MathUtils.getDistanceBetweenPositionsWithCommonDirection(from, to) != 1) {
+        if (!AttackUtils.isKingAttacking(from, to)) {
             return MoveStatus.getInvalidMoveStatusBasedOnTarget(toPiece);
         }
 
@@ -88,7 +81,7 @@ public class KingMoveConstraint implements MoveConstraint {
            The king does not end up in check. (True of any legal move.)
     */
     @Override
-    public MoveType getMoveType(CasePosition from, CasePosition to, GameBoardData gameBoardData) {
+    public MoveType getMoveType(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData) {
         if (ObjectUtils.anyNull(from, to, gameBoardData)) {
             return MoveType.MOVE_NOT_ALLOWED;
         }
@@ -101,31 +94,27 @@ public class KingMoveConstraint implements MoveConstraint {
         if (pieceTo == null) {
             return MoveType.NORMAL_MOVE;
         } else if (isCastlingPieces(pieceFrom, pieceTo)) {
-            try {
-                return handleCastling(from, to, sideFrom, piecesLocation, gameBoardData, kingHandler);
-            } catch (CloneNotSupportedException e) {
-                return MoveType.MOVE_NOT_ALLOWED;
-            }
+            return handleCastling(from, to, sideFrom, piecesLocation, gameBoardData);
         } else {
             return MoveType.NORMAL_MOVE;
         }
     }
 
 
-    private MoveType handleCastling(CasePosition from, CasePosition to, Side sideFrom, Map<CasePosition, Pieces> piecesLocation, GameBoardData gameHandler, KingHandler kingHandler) throws CloneNotSupportedException {
+    private MoveType handleCastling(CasePosition from, CasePosition to, Side sideFrom, Map<CasePosition, Pieces> piecesLocation, ReadOnlyGameBoardData gameHandler) {
 
         CastlingPositionHelper castlingPositionHelper = new CastlingPositionHelper(from, to, sideFrom).invoke();
 
         if (isCastlingAvailable(gameHandler, castlingPositionHelper, sideFrom)) {
             return MoveType.MOVE_NOT_ALLOWED;
-        } else if (isCastlingValid(gameHandler, piecesLocation, castlingPositionHelper, kingHandler, from, sideFrom, to)) {
+        } else if (isCastlingValid(gameHandler, piecesLocation, castlingPositionHelper, from, sideFrom, to)) {
             return MoveType.CASTLING;
         } else {
             return MoveType.NORMAL_MOVE;
         }
     }
 
-    private boolean isCastlingAvailable(GameBoardData gameHandler, CastlingPositionHelper castlingPositionHelper, Side sideFrom) {
+    private boolean isCastlingAvailable(ReadOnlyGameBoardData gameHandler, CastlingPositionHelper castlingPositionHelper, Side sideFrom) {
         boolean queenSideCastling = castlingPositionHelper.isQueenSide();
         boolean kingSideCastling = !queenSideCastling;
 
@@ -146,13 +135,12 @@ public class KingMoveConstraint implements MoveConstraint {
         return (queenSideCastling && !isQueenSideAvail) || (kingSideCastling && !isKingSideAvail);
     }
 
-    private boolean isCastlingValid(GameBoardData gameBoardData,
+    private boolean isCastlingValid(ReadOnlyGameBoardData gameBoardData,
                                     Map<CasePosition, Pieces> piecesLocation,
                                     CastlingPositionHelper castlingPositionHelper,
-                                    KingHandler kingHandler,
                                     CasePosition from,
                                     Side sideFrom,
-                                    CasePosition to) throws CloneNotSupportedException {
+                                    CasePosition to) {
 
 
         Set<DistancePiecePositionModel> piecesBetweenKingAndRook = GameUtils.getPiecesBetweenPosition(from, to, piecesLocation);
@@ -163,32 +151,18 @@ public class KingMoveConstraint implements MoveConstraint {
 
         boolean isPieceAreNotMoved = !gameBoardData.isPieceMoved(from) && !gameBoardData.isPieceMoved(to);
         boolean isNoPieceBetweenKingAndRook = CollectionUtils.isEmpty(piecesBetweenKingAndRook);
-        boolean isNoPieceAttackingBetweenKingAndRook = CollectionUtils.isEmpty(kingHandler.getPositionsThatCanMoveOrAttackPosition(positionWhereKingPass, otherPlayerSide, gameBoardData.clone()));
+        boolean isNoPieceAttackingBetweenKingAndRook = !isAttacked(positionWhereKingPass, otherPlayerSide, gameBoardData);
 
 
         if (!isPieceAreNotMoved || !isNoPieceBetweenKingAndRook || !isNoPieceAttackingBetweenKingAndRook) {
             return false;
         }
 
+        return !isAttacked(from, otherPlayerSide, gameBoardData) && !isAttacked(kingPosition, otherPlayerSide, gameBoardData);
+    }
 
-        List<CasePosition> positionsThatCanHitCurrentLocation = kingHandler.getPositionsThatCanMoveOrAttackPosition(
-                from,
-                otherPlayerSide,
-                gameBoardData
-        );
-
-        if (CollectionUtils.isNotEmpty(positionsThatCanHitCurrentLocation)) {
-            return false;
-        }
-
-
-        List<CasePosition> positionsThatCanHitEndPosition = kingHandler.getPositionsThatCanMoveOrAttackPosition(
-                kingPosition,
-                otherPlayerSide,
-                gameBoardData
-        );
-
-        return !CollectionUtils.isNotEmpty(positionsThatCanHitEndPosition);
+    private boolean isAttacked(CasePosition position, Side attackerSide, ReadOnlyGameBoardData gameBoardData) {
+        return AttackUtils.isSquareAttacked(BitboardUtils.getSquare(position), attackerSide, gameBoardData);
     }
 
     private boolean isCastlingPieces(Pieces pieceFrom, Pieces pieceTo) {
@@ -17,17 +17,14 @@
 package ca.watier.echechess.engine.constraints;
 
 import ca.watier.echechess.common.enums.CasePosition;
-import ca.watier.echechess.common.enums.Direction;
 import ca.watier.echechess.common.enums.Pieces;
-import ca.watier.echechess.common.utils.MathUtils;
-import ca.watier.echechess.engine.abstracts.GameBoardData;
 import ca.watier.echechess.engine.interfaces.MoveConstraint;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
 import ca.watier.echechess.engine.models.enums.MoveStatus;
+import ca.watier.echechess.engine.utils.AttackUtils;
 import org.apache.commons.lang3.ObjectUtils;
 
 import java.io.Serial;
-import java.util.List;
-import java.util.Map;
 
 /**
  * Created by yannick on 4/23/2017.
@@ -35,21 +32,19 @@ import java.util.Map;
 public class KnightMoveConstraint implements MoveConstraint {
 
     public static final float KNIGHT_RADIUS_EQUATION = 2.23606797749979f;
-    private static final List<Direction> DEFAULT_RADIUS_FINDER_POSITION = List.of(Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST);
 
     @Serial
     private static final long serialVersionUID = 8532461631276349892L;
 
     @Override
-    public MoveStatus getMoveStatus(CasePosition from, CasePosition to, GameBoardData gameBoardData) {
+    public MoveStatus getMoveStatus(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData) {
 
         if (ObjectUtils.anyNull(from, to, gameBoardData) || !isTargetValidPosition(from, to)) {
             return MoveStatus.getInvalidMoveStatusBasedOnTarget(to);
         }
 
-        Map<CasePosition, Pieces> positionPiecesMap = gameBoardData.getPiecesLocation();
-        Pieces pieceTo = positionPiecesMap.get(to);
-        Pieces pieceFom = positionPiecesMap.get(from);
+        Pieces pieceTo = gameBoardData.getPiece(to);
+        Pieces pieceFom = gameBoardData.getPiece(from);
 
         if (Pieces.isSameSide(pieceTo, pieceFom)) {
             return MoveStatus.INVALID_ATTACK;
@@ -61,7 +56,6 @@ public class KnightMoveConstraint implements MoveConstraint {
     }
 
     private boolean isTargetValidPosition(CasePosition from, CasePosition to) {
-        return MathUtils.isPositionOnCirclePerimeter(from, to, from.getX() + KNIGHT_RADIUS_EQUATION, from.getY()) &&
-                !DEFAULT_RADIUS_FINDER_POSITION.contains(MathUtils.getDirectionFromPosition(from, to));
+        return AttackUtils.isKnightAttacking(from, to);
     }
 }
@@ -18,8 +18,8 @@ package ca.watier.echechess.engine.constraints;
 
 import ca.watier.echechess.common.enums.*;
 import ca.watier.echechess.common.utils.MathUtils;
-import ca.watier.echechess.engine.abstracts.GameBoardData;
 import ca.watier.echechess.engine.interfaces.MoveConstraint;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
 import ca.watier.echechess.engine.models.enums.MoveStatus;
 import ca.watier.echechess.engine.utils.GameUtils;
 import org.apache.commons.collections4.multimap.HashSetValuedHashMap;
@@ -50,7 +50,7 @@ public class PawnMoveConstraint implements MoveConstraint {
 
     }
 
-    public static boolean isEnPassant(CasePosition from, CasePosition to, GameBoardData gameBoardData, Side currentSide) {
+    public static boolean isEnPassant(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData, Side currentSide) {
 
         if (ObjectUtils.anyNull(from, to, gameBoardData, currentSide)) {
             return false;
@@ -81,7 +81,7 @@ public class PawnMoveConstraint implements MoveConstraint {
         return MathUtils.getNearestPositionFromDirection(enPassantMovePosition, otherSide.equals(Side.BLACK) ? Direction.SOUTH : Direction.NORTH);
     }
 
-    private static boolean isEnPassant(CasePosition from, CasePosition to, GameBoardData gameBoardData, Side currentSide, CasePosition enemyPawnPosition, Pieces enemyPawn) {
+    private static boolean isEnPassant(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData, Side currentSide, CasePosition enemyPawnPosition, Pieces enemyPawn) {
 
 
         if (ObjectUtils.anyNull(from, to, gameBoardData, currentSide, enemyPawnPosition, enemyPawn)) {
@@ -137,7 +137,7 @@ public class PawnMoveConstraint implements MoveConstraint {
     }
 
     @Override
-    public MoveStatus getMoveStatus(CasePosition from, CasePosition to, GameBoardData gameBoardData) {
+    public MoveStatus getMoveStatus(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData) {
         if (ObjectUtils.anyNull(from, to, gameBoardData)) {
             return MoveStatus.getInvalidMoveStatusBasedOnTarget(to);
         }
@@ -180,7 +180,7 @@ public class PawnMoveConstraint implements MoveConstraint {
         }
     }
 
-    private MoveStatus handleAttackMode(CasePosition from, Pieces pieceFrom, CasePosition to, Pieces pieceTo, GameBoardData gameBoardData, Side sideFrom) {
+    private MoveStatus handleAttackMode(CasePosition from, Pieces pieceFrom, CasePosition to, Pieces pieceTo, ReadOnlyGameBoardData gameBoardData, Side sideFrom) {
         if (Objects.isNull(pieceTo)) {
             if (isEnPassant(from, to, gameBoardData, sideFrom)) {
                 return MoveStatus.VALID_ATTACK;
@@ -207,7 +207,7 @@ public class PawnMoveConstraint implements MoveConstraint {
     }
 
     @Override
-    public MoveType getMoveType(CasePosition from, CasePosition to, GameBoardData gameBoardData) {
+    public MoveType getMoveType(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData) {
         if (ObjectUtils.anyNull(from, to, gameBoardData)) {
             return MoveType.MOVE_NOT_ALLOWED;
         }
@@ -241,12 +241,12 @@ public class PawnMoveConstraint implements MoveConstraint {
         return value;
     }
 
-    private boolean isSpecialMove(CasePosition from, CasePosition to, GameBoardData gameHandler, Pieces pieceFrom, int nbCaseBetweenPositions, boolean otherPiecesBetweenTarget) {
+    private boolean isSpecialMove(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameHandler, Pieces pieceFrom, int nbCaseBetweenPositions, boolean otherPiecesBetweenTarget) {
         return (isPawnMoveHop(from, pieceFrom, to, gameHandler, nbCaseBetweenPositions) && !otherPiecesBetweenTarget)
                 || MoveType.EN_PASSANT.equals(getMoveType(from, to, gameHandler));
     }
 
-    private boolean isPawnMoveHop(CasePosition from, Pieces pieceFrom, CasePosition to, GameBoardData gameHandler, int nbCaseBetweenPositions) {
+    private boolean isPawnMoveHop(CasePosition from, Pieces pieceFrom, CasePosition to, ReadOnlyGameBoardData gameHandler, int nbCaseBetweenPositions) {
         if (ObjectUtils.anyNull(from, pieceFrom, to, gameHandler)) {
             return false;
         }
@@ -259,6 +259,7 @@ public class PawnMoveConstraint implements MoveConstraint {
             return false;
         }
 
-        return GameUtils.isDefaultPosition(from, pieceFrom, gameHandler) && nbCaseBetweenPositions == 2;
+        // The default positions of a FEN game are the pieces of the FEN, only the pawns on the second rank can hop
+        return Ranks.TWO.equals(Ranks.getRank(from, side)) && GameUtils.isDefaultPosition(from, pieceFrom, gameHandler) && nbCaseBetweenPositions == 2;
     }
 }
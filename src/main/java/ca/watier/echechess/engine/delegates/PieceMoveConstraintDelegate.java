@@ -17,20 +17,29 @@
 package ca.watier.echechess.engine.delegates;
 
 import ca.watier.echechess.common.enums.*;
-import ca.watier.echechess.engine.abstracts.GameBoardData;
 import ca.watier.echechess.engine.constraints.*;
 import ca.watier.echechess.engine.exceptions.NoMoveTypeDefinedException;
+import ca.watier.echechess.engine.handlers.LegalMoveCountKingHandlerImpl;
 import ca.watier.echechess.engine.handlers.StandardKingHandlerImpl;
 import ca.watier.echechess.engine.interfaces.KingHandler;
 import ca.watier.echechess.engine.interfaces.MoveConstraint;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+import ca.watier.echechess.engine.models.LegalityMasksModel;
+import ca.watier.echechess.engine.models.MoveList;
 import ca.watier.echechess.engine.models.enums.MoveStatus;
-import org.apache.commons.lang3.ArrayUtils;
+import ca.watier.echechess.engine.utils.BitboardUtils;
+import ca.watier.echechess.engine.utils.LegalityUtils;
+import ca.watier.echechess.engine.utils.MoveGenerator;
+import ca.watier.echechess.engine.utils.MoveListPool;
+import ca.watier.echechess.engine.utils.MoveUtils;
 import org.apache.commons.lang3.ObjectUtils;
 
 import java.io.Serial;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * Created by yannick on 4/26/2017.
@@ -50,17 +59,24 @@ public class PieceMoveConstraintDelegate implements MoveConstraint {
     private final KingHandler kingHandler;
 
     public PieceMoveConstraintDelegate() {
-        kingHandler = new StandardKingHandlerImpl(this);
+        this(StandardKingHandlerImpl::new);
+    }
+
+    /**
+     * @param kingHandlerFactory - creates the {@link KingHandler} used by the delegate (the delegate is given to the handler)
+     */
+    public PieceMoveConstraintDelegate(Function<PieceMoveConstraintDelegate, KingHandler> kingHandlerFactory) {
+        kingHandler = kingHandlerFactory.apply(this);
         pawn = new PawnMoveConstraint();
         knight = new KnightMoveConstraint();
         bishop = new BishopMoveConstraint();
         rook = new RookMoveConstraint();
         queen = new QueenMoveConstraint();
-        king = new KingMoveConstraint(kingHandler);
+        king = new KingMoveConstraint();
     }
 
     @Override
-    public MoveStatus getMoveStatus(CasePosition from, CasePosition to, GameBoardData gameBoardData) {
+    public MoveStatus getMoveStatus(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData) {
         if (!ObjectUtils.allNotNull(from, to, gameBoardData)) {
             return MoveStatus.INVALID_MOVE;
         }
@@ -83,7 +99,7 @@ public class PieceMoveConstraintDelegate implements MoveConstraint {
     }
 
     @Override
-    public MoveType getMoveType(CasePosition from, CasePosition to, GameBoardData gameBoardData) {
+    public MoveType getMoveType(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData) {
 
         if (!ObjectUtils.allNotNull(from, to, gameBoardData)) {
             return MoveType.MOVE_NOT_ALLOWED;
@@ -99,16 +115,16 @@ public class PieceMoveConstraintDelegate implements MoveConstraint {
         return ObjectUtils.defaultIfNull(moveType, MoveType.NORMAL_MOVE);
     }
 
-    public KingStatus getKingStatus(Side playerSide, GameBoardData gameBoardData) {
+    public KingStatus getKingStatus(Side playerSide, ReadOnlyGameBoardData gameBoardData) {
         return kingHandler.getKingStatus(playerSide, gameBoardData);
     }
 
-    private MoveConstraint getMoveConstraintFromPiece(CasePosition from, GameBoardData gameBoardData) {
+    private MoveConstraint getMoveConstraintFromPiece(CasePosition from, ReadOnlyGameBoardData gameBoardData) {
         Pieces fromPiece = gameBoardData.getPiece(from);
         return getMoveConstraint(fromPiece);
     }
 
-    private MoveType getMoveType(CasePosition from, CasePosition to, GameBoardData gameBoardData, MoveConstraint moveConstraint) {
+    private MoveType getMoveType(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData, MoveConstraint moveConstraint) {
         try {
             return moveConstraint.getMoveType(from, to, gameBoardData);
         } catch (NoMoveTypeDefinedException ignored) {
@@ -116,7 +132,7 @@ public class PieceMoveConstraintDelegate implements MoveConstraint {
         }
     }
 
-    private MoveStatus handleMove(CasePosition from, CasePosition to, GameBoardData gameBoardData, MoveStatus moveStatus) {
+    private MoveStatus handleMove(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData, MoveStatus moveStatus) {
         if (MoveStatus.isMoveValid(moveStatus) && isKingNotCheck(from, to, gameBoardData)) {
             return MoveStatus.VALID_MOVE;
         } else {
@@ -124,7 +140,7 @@ public class PieceMoveConstraintDelegate implements MoveConstraint {
         }
     }
 
-    private MoveStatus handleAttack(CasePosition from, CasePosition to, GameBoardData gameBoardData, MoveStatus moveStatus) {
+    private MoveStatus handleAttack(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData, MoveStatus moveStatus) {
         if (MoveStatus.VALID_ATTACK.equals(moveStatus) && isKingNotCheck(from, to, gameBoardData)) {
             return MoveStatus.VALID_ATTACK;
         } else {
@@ -132,8 +148,11 @@ public class PieceMoveConstraintDelegate implements MoveConstraint {
         }
     }
 
-    private boolean isKingNotCheck(CasePosition from, CasePosition to, GameBoardData gameBoardData) {
-        return !kingHandler.isKingCheckAfterMove(from, to, gameBoardData);
+    private boolean isKingNotCheck(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData) {
+        Side side = gameBoardData.getPiece(from).getSide();
+        LegalityMasksModel masks = LegalityUtils.getMasks(side, gameBoardData);
+
+        return LegalityUtils.isLegal(masks, BitboardUtils.getSquare(from), BitboardUtils.getSquare(to), gameBoardData);
     }
 
     private MoveConstraint getMoveConstraint(Pieces fromPiece) {
@@ -152,29 +171,100 @@ public class PieceMoveConstraintDelegate implements MoveConstraint {
         };
     }
 
-    public List<CasePosition> getAllAvailableMoves(CasePosition from, Side playerSide, GameBoardData cloneOfCurrentDataState) {
+    /**
+     * Gets the positions where the piece can move or attack (the castling is not included, the king of the other side is)
+     *
+     * @param from
+     * @param playerSide
+     * @param gameBoardData
+     * @return
+     */
+    public List<CasePosition> getAllAvailableMoves(CasePosition from, Side playerSide, ReadOnlyGameBoardData gameBoardData) {
         List<CasePosition> positions = new ArrayList<>();
 
-        if (ObjectUtils.anyNull(from, playerSide)) {
+        if (ObjectUtils.anyNull(from, playerSide, gameBoardData)) {
             return positions;
         }
 
-        Pieces pieces = cloneOfCurrentDataState.getPiece(from);
+        Pieces pieces = gameBoardData.getPiece(from);
 
         if (pieces == null || !Pieces.isSameSide(pieces, playerSide)) {
             return positions;
         }
 
-        CasePosition[] casePositionWithoutCurrent = ArrayUtils.removeElement(CasePosition.values(), from);
+        int fromSquare = BitboardUtils.getSquare(from);
+        MoveList moves = MoveListPool.acquire();
+
+        try {
+            generateLegalMoves(playerSide, gameBoardData, moves);
+
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
 
-        for (CasePosition to : casePositionWithoutCurrent) {
+                if (MoveUtils.getFrom(move) != fromSquare || MoveUtils.getFlag(move) == MoveUtils.FLAG_CASTLING) {
+                    continue;
+                }
 
-            MoveStatus moveStatus = getMoveStatus(from, to, cloneOfCurrentDataState);
-            if (MoveStatus.isMoveValid(moveStatus)) {
-                positions.add(to);
+                CasePosition to = MoveUtils.getToPosition(move);
+
+                if (!positions.contains(to)) { // The promotions have the same position
+                    positions.add(to);
+                }
             }
+        } finally {
+            MoveListPool.release(moves);
         }
 
         return positions;
     }
+
+    /**
+     * Generates all the legal moves of the side in one pass, see {@link MoveGenerator}
+     *
+     * @param playerSide
+     * @param gameBoardData
+     * @param moves - the buffer, cleared before the generation
+     * @return the number of moves
+     */
+    public int generateLegalMoves(Side playerSide, ReadOnlyGameBoardData gameBoardData, MoveList moves) {
+        return MoveGenerator.generateLegalMoves(playerSide, gameBoardData, moves);
+    }
+
+    /**
+     * The delegate has no state, it's written as the type of its {@link KingHandler} and read as a shared instance;
+     * the subclasses use the default serialization
+     */
+    @Serial
+    private Object writeReplace() {
+        Class<? extends KingHandler> kingHandlerClass = kingHandler.getClass();
+
+        if (StandardKingHandlerImpl.class.equals(kingHandlerClass)) {
+            return new SerializedForm(false);
+        } else if (LegalMoveCountKingHandlerImpl.class.equals(kingHandlerClass)) {
+            return new SerializedForm(true);
+        }
+
+        return this;
+    }
+
+    private static final class SharedDelegates {
+        private static final PieceMoveConstraintDelegate STANDARD = new PieceMoveConstraintDelegate();
+        private static final PieceMoveConstraintDelegate LEGAL_MOVE_COUNT = new PieceMoveConstraintDelegate(LegalMoveCountKingHandlerImpl::new);
+    }
+
+    private static final class SerializedForm implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 3528417054930185171L;
+
+        private final boolean isLegalMoveCountKingHandler;
+
+        private SerializedForm(boolean isLegalMoveCountKingHandler) {
+            this.isLegalMoveCountKingHandler = isLegalMoveCountKingHandler;
+        }
+
+        @Serial
+        private Object readResolve() {
+            return isLegalMoveCountKingHandler ? SharedDelegates.LEGAL_MOVE_COUNT : SharedDelegates.STANDARD;
+        }
+    }
 }
@@ -0,0 +1,487 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.engines;
+
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.abstracts.GameBoardData;
+import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
+import ca.watier.echechess.engine.models.MoveList;
+import ca.watier.echechess.engine.models.MoveUndoModel;
+import ca.watier.echechess.engine.models.SearchResultModel;
+import ca.watier.echechess.engine.models.TranspositionTableModel;
+import ca.watier.echechess.engine.utils.AttackUtils;
+import ca.watier.echechess.engine.utils.EvaluationUtils;
+import ca.watier.echechess.engine.utils.MoveUtils;
+import ca.watier.echechess.engine.utils.StaticExchangeUtils;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Finds the best move of a position, with a negamax alpha-beta search.
+ * <ul>
+ *     <li>The search is deepened one ply at a time, the principal variation of the previous depth is searched first</li>
+ *     <li>The other moves are ordered by captures (most valuable victim / least valuable attacker) and promotions</li>
+ *     <li>The leaves are extended with the captures and the promotions (quiescence search), to avoid stopping in the middle of an exchange;
+ *     the captures losing material (see {@link StaticExchangeUtils}) are skipped, and all the evasions are searched when in check</li>
+ *     <li>When a {@link TranspositionTableModel} is given, the results of the positions already searched are reused, and their best move is searched first</li>
+ * </ul>
+ * The moves are generated by the {@link PieceMoveConstraintDelegate} and played with {@link GameBoardData#makeMove(int)},
+ * the board is left untouched. The draws by repetition and by the fifty moves rule are not detected (the board doesn't track them).
+ * <p>
+ * The search can be stopped (deadline, cancellation) with a stop condition, the result of the last completed depth is then returned.
+ * <p>
+ * An instance keeps the buffers of the search, it cannot be used by more than one thread at a time (see {@link LazySmpSearchEngine}).
+ */
+public class AlphaBetaSearchEngine {
+
+    public static final int MATE_SCORE = 100_000;
+    public static final int MAX_PLY = 64;
+    // The scores over this value are mates, the distance to the mate is MATE_SCORE - |score| plies
+    public static final int MIN_MATE_SCORE = MATE_SCORE - MAX_PLY;
+
+    public static final int STOP_CHECK_INTERVAL = 1024;
+
+    private static final int INFINITE_SCORE = MATE_SCORE + 1;
+    private static final BooleanSupplier NEVER_STOP = () -> false;
+    private static final int PRINCIPAL_VARIATION_ORDER = Integer.MAX_VALUE;
+    private static final int TABLE_MOVE_ORDER = PRINCIPAL_VARIATION_ORDER - 1;
+    private static final int CAPTURE_ORDER = 1 << 20;
+    private static final int PROMOTION_ORDER = 1 << 19;
+
+    private final PieceMoveConstraintDelegate pieceDelegate;
+    private final TranspositionTableModel transpositionTable;
+    // One buffer per ply, reused between the siblings
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] moveOrders = new int[MAX_PLY][MoveList.DEFAULT_CAPACITY];
+    // Triangular table, the line of each ply is the best move followed by the line of the next ply
+    private final int[][] principalVariations = new int[MAX_PLY][MAX_PLY];
+    private final int[] principalVariationLengths = new int[MAX_PLY];
+    private int[] previousPrincipalVariation = new int[0];
+    private long nodes;
+    private BooleanSupplier stopCondition = NEVER_STOP;
+    // The search can be stopped once a depth is completed
+    private boolean isStoppable;
+    private boolean isStopped;
+
+    public AlphaBetaSearchEngine(PieceMoveConstraintDelegate pieceDelegate) {
+        this(pieceDelegate, null);
+    }
+
+    /**
+     * @param pieceDelegate
+     * @param transpositionTable - the table of the results, can be shared with other engines; null to search without
+     */
+    public AlphaBetaSearchEngine(PieceMoveConstraintDelegate pieceDelegate, TranspositionTableModel transpositionTable) {
+        this.pieceDelegate = pieceDelegate;
+        this.transpositionTable = transpositionTable;
+
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Search the best move of the side that can play, on a copy of the board of the game
+     *
+     * @param gameHandler
+     * @param depth - the number of plies, from 1 to {@link #MAX_PLY} / 2
+     * @return
+     */
+    public SearchResultModel search(GenericGameHandler gameHandler, int depth) {
+        return search(gameHandler.getCloneOfCurrentDataState(), depth);
+    }
+
+    /**
+     * Search the best move of the side that can play
+     *
+     * @param gameBoardData - the board, left untouched
+     * @param depth - the number of plies, from 1 to {@link #MAX_PLY} / 2
+     * @return
+     */
+    public SearchResultModel search(GameBoardData gameBoardData, int depth) {
+        return search(gameBoardData, depth, NEVER_STOP);
+    }
+
+    /**
+     * Search the best move of the side that can play, until the depth or the stop condition is reached; when stopped,
+     * the result of the last completed depth is returned (the first depth is always completed)
+     *
+     * @param gameBoardData - the board, left untouched
+     * @param depth - the maximum number of plies, from 1 to {@link #MAX_PLY} / 2
+     * @param stopCondition - checked every {@link #STOP_CHECK_INTERVAL} nodes
+     * @return
+     */
+    public SearchResultModel search(GameBoardData gameBoardData, int depth, BooleanSupplier stopCondition) {
+        if (transpositionTable != null) {
+            transpositionTable.newSearch();
+        }
+
+        return search(gameBoardData, 1, depth, stopCondition, false);
+    }
+
+    /**
+     * Same as {@link #search(GameBoardData, int, BooleanSupplier)}, from a given depth and without starting a new
+     * search in the table (used by {@link LazySmpSearchEngine})
+     *
+     * @param isFirstDepthStoppable - when true, the first depth can also be stopped (used by the helpers, their result is optional)
+     * @return the result of the last completed depth, null if none was completed
+     */
+    SearchResultModel search(GameBoardData gameBoardData, int fromDepth, int toDepth, BooleanSupplier stopCondition, boolean isFirstDepthStoppable) {
+        if (fromDepth < 1 || toDepth > MAX_PLY / 2 || fromDepth > toDepth) {
+            throw new IllegalArgumentException("The depth must be between 1 and " + MAX_PLY / 2);
+        }
+
+        nodes = 0;
+        previousPrincipalVariation = new int[0];
+        this.stopCondition = stopCondition;
+        isStoppable = isFirstDepthStoppable;
+        isStopped = false;
+        SearchResultModel result = null;
+
+        for (int currentDepth = fromDepth; currentDepth <= toDepth; currentDepth++) {
+            int score = negamax(gameBoardData, currentDepth, -INFINITE_SCORE, INFINITE_SCORE, 0);
+
+            if (isStopped) {
+                break; // The depth is not completed, the result cannot be trusted
+            }
+
+            int[] principalVariation = Arrays.copyOf(principalVariations[0], principalVariationLengths[0]);
+            int bestMove = principalVariation.length == 0 ? MoveUtils.NO_MOVE : principalVariation[0];
+
+            previousPrincipalVariation = principalVariation;
+            result = new SearchResultModel(bestMove, score, currentDepth, principalVariation, nodes);
+            isStoppable = true;
+
+            if (bestMove == MoveUtils.NO_MOVE || Math.abs(score) >= MIN_MATE_SCORE) {
+                break; // Nothing better to find deeper
+            } else if (stopCondition.getAsBoolean()) {
+                break;
+            }
+        }
+
+        this.stopCondition = NEVER_STOP;
+        return result;
+    }
+
+    /**
+     * @return the number of nodes searched since the start of the last search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    private boolean shouldStop() {
+        if (isStoppable && !isStopped && (nodes & (STOP_CHECK_INTERVAL - 1)) == 0 && stopCondition.getAsBoolean()) {
+            isStopped = true;
+        }
+
+        return isStopped;
+    }
+
+    private int negamax(GameBoardData gameBoardData, int depth, int alpha, int beta, int ply) {
+        principalVariationLengths[ply] = 0;
+
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiescence(gameBoardData, alpha, beta, ply);
+        }
+
+        nodes++;
+
+        if (shouldStop()) {
+            return 0;
+        }
+
+        long key = gameBoardData.getZobristKey();
+        int tableMove = MoveUtils.NO_MOVE;
+
+        if (transpositionTable != null) {
+            long entry = transpositionTable.probe(key);
+
+            if (entry != TranspositionTableModel.NO_ENTRY) {
+                tableMove = TranspositionTableModel.getMove(entry);
+
+                // The root is always searched, to get the principal variation
+                if (ply > 0 && TranspositionTableModel.getDepth(entry) >= depth) {
+                    int score = fromTableScore(TranspositionTableModel.getScore(entry), ply);
+                    int bound = TranspositionTableModel.getBound(entry);
+
+                    if (bound == TranspositionTableModel.BOUND_EXACT ||
+                            (bound == TranspositionTableModel.BOUND_LOWER && score >= beta) ||
+                            (bound == TranspositionTableModel.BOUND_UPPER && score <= alpha)) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        Side side = gameBoardData.getCurrentAllowedMoveSide();
+        MoveList moves = moveLists[ply];
+        int nbOfMoves = pieceDelegate.generateLegalMoves(side, gameBoardData, moves);
+
+        if (nbOfMoves == 0) {
+            return isInCheck(side, gameBoardData) ? -MATE_SCORE + ply : 0;
+        }
+
+        int[] orders = scoreMoves(moves, ply, tableMove);
+        int originalAlpha = alpha;
+        int bestScore = -INFINITE_SCORE;
+        int bestMove = MoveUtils.NO_MOVE;
+
+        for (int i = 0; i < nbOfMoves; i++) {
+            int move = pickNextMove(moves, orders, i);
+
+            MoveUndoModel undo = gameBoardData.makeMove(move);
+            int score;
+            try {
+                score = -negamax(gameBoardData, depth - 1, -beta, -alpha, ply + 1);
+            } finally {
+                gameBoardData.unmakeMove(undo);
+            }
+
+            if (isStopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+
+            if (score > alpha) {
+                alpha = score;
+                updatePrincipalVariation(move, ply);
+
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+
+        if (transpositionTable != null) {
+            int bound;
+
+            if (bestScore >= beta) {
+                bound = TranspositionTableModel.BOUND_LOWER;
+            } else if (bestScore > originalAlpha) {
+                bound = TranspositionTableModel.BOUND_EXACT;
+            } else {
+                bound = TranspositionTableModel.BOUND_UPPER;
+                bestMove = MoveUtils.NO_MOVE; // All the moves failed low, none is better than the others
+            }
+
+            transpositionTable.store(key, bestMove, toTableScore(bestScore, ply), depth, bound);
+        }
+
+        return bestScore;
+    }
+
+    /**
+     * The mate scores are kept as the distance from the position, not from the root
+     */
+    private static int toTableScore(int score, int ply) {
+        if (score >= MIN_MATE_SCORE) {
+            return score + ply;
+        } else if (score <= -MIN_MATE_SCORE) {
+            return score - ply;
+        }
+
+        return score;
+    }
+
+    private static int fromTableScore(int score, int ply) {
+        if (score >= MIN_MATE_SCORE) {
+            return score - ply;
+        } else if (score <= -MIN_MATE_SCORE) {
+            return score + ply;
+        }
+
+        return score;
+    }
+
+    private static boolean isLosingCapture(GameBoardData gameBoardData, int move) {
+        int flag = MoveUtils.getFlag(move);
+
+        return flag == MoveUtils.FLAG_NORMAL && MoveUtils.isCapture(move) &&
+                StaticExchangeUtils.evaluateCapture(gameBoardData, MoveUtils.getFrom(move), MoveUtils.getTo(move)) < 0;
+    }
+
+    /**
+     * Only the captures and the promotions are searched, the side can also keep the current score (stand pat); when the
+     * side is in check, all the evasions are searched instead, without stand pat, and no evasion is a mate
+     */
+    private int quiescence(GameBoardData gameBoardData, int alpha, int beta, int ply) {
+        nodes++;
+
+        if (shouldStop()) {
+            return 0;
+        }
+
+        Side side = gameBoardData.getCurrentAllowedMoveSide();
+        boolean isInCheck = isInCheck(side, gameBoardData);
+
+        if (ply >= MAX_PLY - 1) {
+            return EvaluationUtils.evaluate(gameBoardData);
+        }
+
+        int bestScore;
+
+        if (isInCheck) {
+            bestScore = -MATE_SCORE + ply;
+        } else {
+            bestScore = EvaluationUtils.evaluate(gameBoardData);
+
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+
+            alpha = Math.max(alpha, bestScore);
+        }
+
+        MoveList moves = moveLists[ply];
+        int nbOfMoves = pieceDelegate.generateLegalMoves(side, gameBoardData, moves);
+
+        if (!isInCheck) {
+            nbOfMoves = keepCapturesAndPromotions(moves);
+        }
+
+        int[] orders = scoreMoves(moves, ply, MoveUtils.NO_MOVE);
+
+        for (int i = 0; i < nbOfMoves; i++) {
+            int move = pickNextMove(moves, orders, i);
+
+            if (!isInCheck && isLosingCapture(gameBoardData, move)) {
+                continue;
+            }
+
+            MoveUndoModel undo = gameBoardData.makeMove(move);
+            int score;
+            try {
+                score = -quiescence(gameBoardData, -beta, -alpha, ply + 1);
+            } finally {
+                gameBoardData.unmakeMove(undo);
+            }
+
+            if (isStopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+            }
+
+            if (score > alpha) {
+                alpha = score;
+
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+
+        return bestScore;
+    }
+
+    private int keepCapturesAndPromotions(MoveList moves) {
+        int size = 0;
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+
+            if (MoveUtils.isCapture(move) || MoveUtils.getFlag(move) == MoveUtils.FLAG_PROMOTION) {
+                moves.set(size++, move);
+            }
+        }
+
+        moves.truncate(size);
+        return size;
+    }
+
+    private int[] scoreMoves(MoveList moves, int ply, int tableMove) {
+        int nbOfMoves = moves.size();
+
+        if (moveOrders[ply].length < nbOfMoves) {
+            moveOrders[ply] = new int[nbOfMoves];
+        }
+
+        int[] orders = moveOrders[ply];
+        int principalVariationMove = ply < previousPrincipalVariation.length ? previousPrincipalVariation[ply] : MoveUtils.NO_MOVE;
+
+        for (int i = 0; i < nbOfMoves; i++) {
+            int move = moves.get(i);
+            int order = 0;
+
+            if (move == principalVariationMove) {
+                order = PRINCIPAL_VARIATION_ORDER;
+            } else if (move == tableMove) {
+                order = TABLE_MOVE_ORDER;
+            } else if (MoveUtils.isCapture(move)) {
+                // Most valuable victim first, then the least valuable attacker
+                order = CAPTURE_ORDER + (EvaluationUtils.getPieceValue(MoveUtils.getCapturedPieceIndex(move)) << 4) -
+                        (EvaluationUtils.getPieceValue(MoveUtils.getMovedPieceIndex(move)) >> 6);
+            }
+
+            if (MoveUtils.getFlag(move) == MoveUtils.FLAG_PROMOTION && order < TABLE_MOVE_ORDER) {
+                order += PROMOTION_ORDER + EvaluationUtils.getPieceValue(MoveUtils.getPromotionPieceIndex(move));
+            }
+
+            orders[i] = order;
+        }
+
+        return orders;
+    }
+
+    /**
+     * Moves the best remaining move to the index (selection sort, done lazily since most of the nodes are cut early)
+     */
+    private int pickNextMove(MoveList moves, int[] orders, int index) {
+        int bestIndex = index;
+
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (orders[i] > orders[bestIndex]) {
+                bestIndex = i;
+            }
+        }
+
+        int move = moves.get(bestIndex);
+
+        if (bestIndex != index) {
+            moves.set(bestIndex, moves.get(index));
+            moves.set(index, move);
+
+            int order = orders[bestIndex];
+            orders[bestIndex] = orders[index];
+            orders[index] = order;
+        }
+
+        return move;
+    }
+
+    private void updatePrincipalVariation(int move, int ply) {
+        int[] line = principalVariations[ply];
+        int childLength = principalVariationLengths[ply + 1];
+
+        line[0] = move;
+        System.arraycopy(principalVariations[ply + 1], 0, line, 1, childLength);
+        principalVariationLengths[ply] = childLength + 1;
+    }
+
+    private boolean isInCheck(Side side, GameBoardData gameBoardData) {
+        int kingSquare = gameBoardData.getKingSquare(side);
+        return kingSquare >= 0 && AttackUtils.isSquareAttacked(kingSquare, Side.getOtherPlayerSide(side), gameBoardData);
+    }
+}
@@ -23,7 +23,6 @@ import ca.watier.echechess.common.sessions.Player;
 import ca.watier.echechess.common.utils.CastlingPositionHelper;
 import ca.watier.echechess.common.utils.MathUtils;
 import ca.watier.echechess.engine.abstracts.GameBoard;
-import ca.watier.echechess.engine.abstracts.GameBoardData;
 import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
 import ca.watier.echechess.engine.exceptions.MoveNotAllowedException;
 import ca.watier.echechess.engine.handlers.GameEventEvaluatorHandlerImpl;
@@ -31,6 +30,9 @@ import ca.watier.echechess.engine.handlers.PlayerHandlerImpl;
 import ca.watier.echechess.engine.interfaces.GameEventEvaluatorHandler;
 import ca.watier.echechess.engine.interfaces.GameHandler;
 import ca.watier.echechess.engine.interfaces.PlayerHandler;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+import ca.watier.echechess.engine.models.SearchResultModel;
+import ca.watier.echechess.engine.models.TimeControlModel;
 import ca.watier.echechess.engine.models.enums.MoveStatus;
 import org.apache.commons.lang3.ObjectUtils;
 
@@ -39,6 +41,7 @@ import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BooleanSupplier;
 
 import static ca.watier.echechess.common.enums.KingStatus.OK;
 import static ca.watier.echechess.common.enums.Side.*;
@@ -59,6 +62,8 @@ public class GenericGameHandler extends GameBoard implements GameHandler {
     private final GameEventEvaluatorHandler gameEventEvaluatorHandler;
     private final PieceMoveConstraintDelegate pieceDelegate;
     private final PlayerHandler playerHandler;
+    //Replaced (never changed) when a status is computed, the pollers can read it concurrently
+    private transient volatile KingStatusCache kingStatusCache;
     private String uuid;
 
     public GenericGameHandler(PieceMoveConstraintDelegate pieceDelegate, PlayerHandler playerHandler, GameEventEvaluatorHandler gameEventEvaluatorHandler) {
@@ -121,7 +126,7 @@ public class GenericGameHandler extends GameBoard implements GameHandler {
 
         Pieces piecesFrom = getPiece(from);
 
-        if (piecesFrom == null || !gameEventEvaluatorHandler.isPlayerTurn(playerSide, getCloneOfCurrentDataState()) || !Pieces.isSameSide(piecesFrom, playerSide)) {
+        if (piecesFrom == null || !gameEventEvaluatorHandler.isPlayerTurn(playerSide, getCurrentDataState()) || !Pieces.isSameSide(piecesFrom, playerSide)) {
             throw new MoveNotAllowedException();
         }
 
@@ -136,13 +141,13 @@ public class GenericGameHandler extends GameBoard implements GameHandler {
             return MoveType.PAWN_PROMOTION;
         }
 
-        MoveType moveType = pieceDelegate.getMoveType(from, to, getCloneOfCurrentDataState());
+        MoveType moveType = pieceDelegate.getMoveType(from, to, getCurrentDataState());
 
         KingStatus evaluatedCurrentKingStatus = OK;
         boolean isEatingPiece = piecesTo != null;
 
         if (MoveType.NORMAL_MOVE.equals(moveType) || MoveType.PAWN_HOP.equals(moveType)) {
-            MoveStatus moveStatus = getMoveStatus(from, to, getCloneOfCurrentDataState());
+            MoveStatus moveStatus = getMoveStatus(from, to, getCurrentDataState());
 
             switch (moveStatus) {
                 case INVALID_MOVE:
@@ -154,7 +159,7 @@ public class GenericGameHandler extends GameBoard implements GameHandler {
             }
 
             movePieceTo(from, to, piecesFrom);
-            evaluatedCurrentKingStatus = pieceDelegate.getKingStatus(playerSide, getCloneOfCurrentDataState());
+            evaluatedCurrentKingStatus = getKingStatus(playerSide);
 
             if (KingStatus.isCheckOrCheckMate(evaluatedCurrentKingStatus)) { //Cannot move, revert
                 throw new MoveNotAllowedException();
@@ -172,7 +177,7 @@ public class GenericGameHandler extends GameBoard implements GameHandler {
             evaluatedCurrentKingStatus = handleEnPassantWhenMove(from, to, playerSide, otherPlayerSide, piecesFrom);
         }
 
-        KingStatus evaluatedOtherKingStatusAfterMove = pieceDelegate.getKingStatus(otherPlayerSide, getCloneOfCurrentDataState());
+        KingStatus evaluatedOtherKingStatusAfterMove = getKingStatus(otherPlayerSide);
 
         moveHistory.setCurrentKingStatus(evaluatedCurrentKingStatus);
         moveHistory.setOtherKingStatus(evaluatedOtherKingStatusAfterMove);
@@ -187,7 +192,7 @@ public class GenericGameHandler extends GameBoard implements GameHandler {
         Pieces enemyPawnToEat = getPiece(enemyPawnPosition);
         removePieceFromBoard(enemyPawnPosition);
 
-        KingStatus kingStatus = pieceDelegate.getKingStatus(playerSide, getCloneOfCurrentDataState());
+        KingStatus kingStatus = getKingStatus(playerSide);
         if (KingStatus.isCheckOrCheckMate(kingStatus)) {
             throw new MoveNotAllowedException();
         }
@@ -284,12 +289,12 @@ public class GenericGameHandler extends GameBoard implements GameHandler {
 
     @Override
     public List<CasePosition> getAllAvailableMoves(CasePosition from, Side playerSide) {
-        return pieceDelegate.getAllAvailableMoves(from, playerSide, getCloneOfCurrentDataState());
+        return pieceDelegate.getAllAvailableMoves(from, playerSide, getCurrentDataState());
     }
 
     @Override
-    public MoveStatus getMoveStatus(CasePosition from, CasePosition to, GameBoardData cloneOfCurrentDataState) {
-        return pieceDelegate.getMoveStatus(from, to, cloneOfCurrentDataState);
+    public MoveStatus getMoveStatus(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData) {
+        return pieceDelegate.getMoveStatus(from, to, gameBoardData);
     }
 
     @Override
@@ -298,17 +303,66 @@ public class GenericGameHandler extends GameBoard implements GameHandler {
             return false;
         }
 
-        return kingStatus.equals(pieceDelegate.getKingStatus(side, getCloneOfCurrentDataState()));
+        return kingStatus.equals(getKingStatus(side));
     }
 
     @Override
     public boolean isCheckMate(Side side) {
-        return CHECKMATE.equals(pieceDelegate.getKingStatus(side, getCloneOfCurrentDataState()));
+        return CHECKMATE.equals(getKingStatus(side));
     }
 
     @Override
     public boolean isCheck(Side side) {
-        return CHECK.equals(pieceDelegate.getKingStatus(side, getCloneOfCurrentDataState()));
+        return CHECK.equals(getKingStatus(side));
+    }
+
+    /**
+     * Gets the status of the king of the side; the status is kept until the board changes (see {@link #getVersion()}).
+     * A status computed while the board was changed is dropped and computed again once the change is done.
+     *
+     * @param side
+     * @return
+     */
+    private KingStatus getKingStatus(Side side) {
+        if (!Side.WHITE.equals(side) && !Side.BLACK.equals(side)) {
+            return pieceDelegate.getKingStatus(side, getCurrentDataState());
+        }
+
+        while (true) {
+            long version = getVersion();
+
+            if (isChanging(version)) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            KingStatusCache cache = kingStatusCache;
+
+            if (cache == null || cache.version != version) {
+                cache = new KingStatusCache(version, null, null);
+            }
+
+            KingStatus kingStatus = cache.get(side);
+
+            if (kingStatus != null) {
+                return kingStatus;
+            }
+
+            try {
+                kingStatus = pieceDelegate.getKingStatus(side, getCurrentDataState());
+            } catch (RuntimeException e) {
+                if (getVersion() == version) {
+                    throw e;
+                }
+
+                continue; // The board was changed during the evaluation
+            }
+
+            if (getVersion() == version) {
+                kingStatusCache = cache.with(side, kingStatus);
+                return kingStatus;
+            }
+        }
     }
 
     @Override
@@ -347,10 +401,8 @@ public class GenericGameHandler extends GameBoard implements GameHandler {
 
     @Override
     public boolean isGameEnded() {
-        GameBoardData cloneOfCurrentDataState = getCloneOfCurrentDataState();
-
-        return CHECKMATE.equals(pieceDelegate.getKingStatus(BLACK, cloneOfCurrentDataState)) ||
-                CHECKMATE.equals(pieceDelegate.getKingStatus(WHITE, cloneOfCurrentDataState)) ||
+        return CHECKMATE.equals(getKingStatus(BLACK)) ||
+                CHECKMATE.equals(getKingStatus(WHITE)) ||
                 isGameDraw();
     }
 
@@ -368,4 +420,45 @@ public class GenericGameHandler extends GameBoard implements GameHandler {
     public PieceMoveConstraintDelegate getMoveConstraintDelegate() {
         return pieceDelegate;
     }
-}
\ No newline at end of file
+
+    @Override
+    public SearchResultModel suggestMove(TimeControlModel timeControl) {
+        return suggestMove(timeControl, () -> false);
+    }
+
+    @Override
+    public SearchResultModel suggestMove(TimeControlModel timeControl, BooleanSupplier isCancelled) {
+        if (ObjectUtils.anyNull(timeControl, isCancelled)) {
+            throw new IllegalArgumentException("The time control and the cancellation cannot be null!");
+        }
+
+        long deadline = System.nanoTime() + timeControl.getBudget().toNanos();
+        AlphaBetaSearchEngine searchEngine = new AlphaBetaSearchEngine(pieceDelegate);
+
+        return searchEngine.search(getCloneOfCurrentDataState(), AlphaBetaSearchEngine.MAX_PLY / 2,
+                () -> System.nanoTime() - deadline >= 0 || isCancelled.getAsBoolean());
+    }
+
+    /**
+     * The king statuses of a version of the board, null when not computed yet
+     */
+    private static final class KingStatusCache {
+        private final long version;
+        private final KingStatus white;
+        private final KingStatus black;
+
+        private KingStatusCache(long version, KingStatus white, KingStatus black) {
+            this.version = version;
+            this.white = white;
+            this.black = black;
+        }
+
+        private KingStatus get(Side side) {
+            return Side.WHITE.equals(side) ? white : black;
+        }
+
+        private KingStatusCache with(Side side, KingStatus kingStatus) {
+            return Side.WHITE.equals(side) ? new KingStatusCache(version, kingStatus, black) : new KingStatusCache(version, white, kingStatus);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.engines;
+
+import ca.watier.echechess.engine.abstracts.GameBoardData;
+import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
+import ca.watier.echechess.engine.models.SearchResultModel;
+import ca.watier.echechess.engine.models.TranspositionTableModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Search the best move with many threads (Lazy SMP): each thread searches the same root, on its own copy of the board,
+ * and the threads share their results through the {@link TranspositionTableModel}.
+ * <p>
+ * The calling thread runs the main search, the helpers run on the executor; all the threads search up to the same
+ * depth, half of the helpers start one ply deeper, so the threads don't all search the same depth at the same time.
+ * The helpers are stopped (also in their first depth) when the main search is done, the deepest completed result is returned.
+ */
+public class LazySmpSearchEngine {
+
+    private final PieceMoveConstraintDelegate pieceDelegate;
+    private final TranspositionTableModel transpositionTable;
+    private final ExecutorService executorService;
+
+    /**
+     * @param pieceDelegate
+     * @param transpositionTable - shared by the threads
+     * @param executorService - runs the helpers, should have a thread for each helper
+     */
+    public LazySmpSearchEngine(PieceMoveConstraintDelegate pieceDelegate, TranspositionTableModel transpositionTable, ExecutorService executorService) {
+        this.pieceDelegate = pieceDelegate;
+        this.transpositionTable = transpositionTable;
+        this.executorService = executorService;
+    }
+
+    /**
+     * Search the best move of the side that can play, on a copy of the board of the game
+     *
+     * @param gameHandler
+     * @param depth - the number of plies of the main search, from 1 to {@link AlphaBetaSearchEngine#MAX_PLY} / 2
+     * @param nbOfThreads - the number of threads, including the calling one
+     * @return
+     */
+    public SearchResultModel search(GenericGameHandler gameHandler, int depth, int nbOfThreads) {
+        return search(gameHandler.getCloneOfCurrentDataState(), depth, nbOfThreads);
+    }
+
+    public SearchResultModel search(GameBoardData gameBoardData, int depth, int nbOfThreads) {
+        return search(gameBoardData, depth, nbOfThreads, () -> false);
+    }
+
+    /**
+     * Search the best move of the side that can play, see {@link AlphaBetaSearchEngine#search(GameBoardData, int, BooleanSupplier)}
+     *
+     * @param gameBoardData - the board, left untouched
+     * @param depth - the number of plies of the main search, from 1 to {@link AlphaBetaSearchEngine#MAX_PLY} / 2
+     * @param nbOfThreads - the number of threads, including the calling one
+     * @param stopCondition - stops all the threads
+     * @return the deepest result, the number of nodes is the one of all the threads
+     */
+    public SearchResultModel search(GameBoardData gameBoardData, int depth, int nbOfThreads, BooleanSupplier stopCondition) {
+        if (nbOfThreads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed!");
+        } else if (depth < 1 || depth > AlphaBetaSearchEngine.MAX_PLY / 2) {
+            throw new IllegalArgumentException("The depth must be between 1 and " + AlphaBetaSearchEngine.MAX_PLY / 2);
+        }
+
+        transpositionTable.newSearch();
+
+        AtomicBoolean isMainSearchDone = new AtomicBoolean();
+        BooleanSupplier helperStopCondition = () -> isMainSearchDone.get() || stopCondition.getAsBoolean();
+        List<AlphaBetaSearchEngine> helpers = new ArrayList<>(nbOfThreads - 1);
+        List<Future<SearchResultModel>> helperResults = new ArrayList<>(nbOfThreads - 1);
+
+        for (int i = 1; i < nbOfThreads; i++) {
+            GameBoardData copy = copyOf(gameBoardData);
+            int fromDepth = Math.min(1 + (i & 1), depth);
+            AlphaBetaSearchEngine helper = new AlphaBetaSearchEngine(pieceDelegate, transpositionTable);
+
+            helpers.add(helper);
+            helperResults.add(executorService.submit(() ->
+                    helperStopCondition.getAsBoolean() ? null : helper.search(copy, fromDepth, depth, helperStopCondition, true)));
+        }
+
+        AlphaBetaSearchEngine mainSearch = new AlphaBetaSearchEngine(pieceDelegate, transpositionTable);
+        SearchResultModel bestResult;
+
+        try {
+            bestResult = mainSearch.search(gameBoardData, 1, depth, stopCondition, false);
+        } finally {
+            isMainSearchDone.set(true);
+        }
+
+        long nodes = mainSearch.getNodes();
+
+        for (int i = 0; i < helperResults.size(); i++) {
+            SearchResultModel result = getHelperResult(helperResults.get(i));
+            nodes += helpers.get(i).getNodes();
+
+            if (result != null && result.hasBestMove() && result.getDepth() > bestResult.getDepth()) {
+                bestResult = result;
+            }
+        }
+
+        return new SearchResultModel(bestResult.getBestMove(), bestResult.getScore(), bestResult.getDepth(), bestResult.getPrincipalVariation(), nodes);
+    }
+
+    private SearchResultModel getHelperResult(Future<SearchResultModel> helperResult) {
+        try {
+            return helperResult.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            helperResult.cancel(true);
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static GameBoardData copyOf(GameBoardData gameBoardData) {
+        try {
+            return gameBoardData.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
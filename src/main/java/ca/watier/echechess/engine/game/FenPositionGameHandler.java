@@ -1,9 +1,11 @@
 package ca.watier.echechess.engine.game;
 
 import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Direction;
 import ca.watier.echechess.common.enums.PgnPieceFound;
 import ca.watier.echechess.common.enums.Pieces;
 import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.common.utils.MathUtils;
 import ca.watier.echechess.common.utils.PositionUtils;
 import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
 import ca.watier.echechess.engine.engines.GenericGameHandler;
@@ -60,6 +62,36 @@ public class FenPositionGameHandler extends GenericGameHandler {
         setPositionPiecesMap(calculatePositionFromRows(rows));
     }
 
+    public void setPieces(Map<CasePosition, Pieces> positions) {
+        setPositionPiecesMap(positions);
+    }
+
+    @Override
+    public void setMoveCounters(int totalMove, int whiteTurnNumber, int blackTurnNumber) {
+        super.setMoveCounters(totalMove, whiteTurnNumber, blackTurnNumber);
+    }
+
+    /**
+     * Allow the en passant on the target, by flagging the pawn behind it as the one that made the hop on the last move
+     *
+     * @param target - the square behind the pawn (the en passant field of the FEN)
+     * @throws FenParserException when there's no pawn to take
+     */
+    public void setEnPassantTarget(CasePosition target) throws FenParserException {
+        if (target == null) {
+            return;
+        }
+
+        boolean isWhitePawn = target.getRow() == 3;
+        CasePosition pawnPosition = MathUtils.getNearestPositionFromDirection(target, isWhitePawn ? Direction.NORTH : Direction.SOUTH);
+
+        if (pawnPosition == null || !(isWhitePawn ? Pieces.W_PAWN : Pieces.B_PAWN).equals(getPiece(pawnPosition))) {
+            throw new FenParserException();
+        }
+
+        setPawnHopOnLastMove(pawnPosition);
+    }
+
     private Map<CasePosition, Pieces> calculatePositionFromRows(String[] rows) throws FenParserException {
         Map<CasePosition, Pieces> positionPiecesMap = new HashMap<>();
 
@@ -1,8 +1,8 @@
 package ca.watier.echechess.engine.handlers;
 
 import ca.watier.echechess.common.enums.Side;
-import ca.watier.echechess.engine.abstracts.GameBoardData;
 import ca.watier.echechess.engine.interfaces.GameEventEvaluatorHandler;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
 
 import java.io.Serial;
 
@@ -10,13 +10,22 @@ public class GameEventEvaluatorHandlerImpl implements GameEventEvaluatorHandler
 
     @Serial
     private static final long serialVersionUID = -7662914404339428735L;
+    private static final GameEventEvaluatorHandlerImpl SHARED = new GameEventEvaluatorHandlerImpl();
 
     @Override
-    public boolean isPlayerTurn(Side playerSide, GameBoardData gameBoardData) {
+    public boolean isPlayerTurn(Side playerSide, ReadOnlyGameBoardData gameBoardData) {
         if (playerSide == null) {
             return false;
         }
 
         return playerSide.equals(gameBoardData.getCurrentAllowedMoveSide());
     }
+
+    /**
+     * The evaluator has no state, it's read as a shared instance
+     */
+    @Serial
+    private Object readResolve() {
+        return SHARED;
+    }
 }
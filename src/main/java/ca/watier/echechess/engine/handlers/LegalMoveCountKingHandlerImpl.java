@@ -0,0 +1,59 @@
+package ca.watier.echechess.engine.handlers;
+
+import ca.watier.echechess.common.enums.KingStatus;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+import ca.watier.echechess.engine.utils.AttackUtils;
+import ca.watier.echechess.engine.utils.MoveGenerator;
+
+import java.io.Serial;
+
+import static ca.watier.echechess.common.enums.Side.getOtherPlayerSide;
+
+/**
+ * Gets the status of the king from two questions: is the king attacked, and does the side have a legal move.
+ * <ul>
+ *     <li>Attacked, with a legal move: {@link KingStatus#CHECK}</li>
+ *     <li>Attacked, without a legal move: {@link KingStatus#CHECKMATE}</li>
+ *     <li>Not attacked, without a legal move: {@link KingStatus#STALEMATE}</li>
+ *     <li>Otherwise: {@link KingStatus#OK}</li>
+ * </ul>
+ * The search of the legal moves stops on the first one found. The other methods are the same as the {@link StandardKingHandlerImpl}.
+ * <pre>
+ * new PieceMoveConstraintDelegate(LegalMoveCountKingHandlerImpl::new);
+ * </pre>
+ */
+public class LegalMoveCountKingHandlerImpl extends StandardKingHandlerImpl {
+
+    @Serial
+    private static final long serialVersionUID = -2918035471628301967L;
+
+    private static final int NO_KING = -1;
+
+    public LegalMoveCountKingHandlerImpl(PieceMoveConstraintDelegate moveConstraintDelegate) {
+        super(moveConstraintDelegate);
+    }
+
+    @Override
+    public KingStatus getKingStatus(Side playerSide, ReadOnlyGameBoardData gameBoardData) {
+        if (playerSide == null || gameBoardData == null) {
+            return null;
+        }
+
+        int kingSquare = gameBoardData.getKingSquare(playerSide);
+
+        if (kingSquare == NO_KING) {
+            return KingStatus.OK;
+        }
+
+        boolean isCheck = AttackUtils.isSquareAttacked(kingSquare, getOtherPlayerSide(playerSide), gameBoardData);
+        boolean hasLegalMove = MoveGenerator.hasLegalMove(playerSide, gameBoardData);
+
+        if (isCheck) {
+            return hasLegalMove ? KingStatus.CHECK : KingStatus.CHECKMATE;
+        } else {
+            return hasLegalMove ? KingStatus.OK : KingStatus.STALEMATE;
+        }
+    }
+}
@@ -5,16 +5,25 @@ import ca.watier.echechess.common.sessions.Player;
 import ca.watier.echechess.engine.interfaces.PlayerHandler;
 import org.apache.commons.lang3.ObjectUtils;
 
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.io.Serial;
 import java.util.ArrayList;
 import java.util.List;
 
 import static ca.watier.echechess.common.enums.Side.*;
 
-public class PlayerHandlerImpl implements PlayerHandler {
+public class PlayerHandlerImpl implements PlayerHandler, Externalizable {
 
     @Serial
     private static final long serialVersionUID = -1267409003065720156L;
+    private static final byte EXTERNAL_FORMAT_VERSION = 1;
+    private static final byte NO_PLAYER = 0;
+    private static final byte PLAYER_WITHOUT_ID = 1;
+    private static final byte PLAYER_WITH_ID = 2;
 
     private final List<Player> observerList = new ArrayList<>();
     private Player playerWhite;
@@ -124,4 +133,58 @@ public class PlayerHandlerImpl implements PlayerHandler {
     public List<Player> getObserverList() {
         return observerList;
     }
+
+    /**
+     * Writes the players as their ids only
+     */
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(EXTERNAL_FORMAT_VERSION);
+        writePlayer(out, playerWhite);
+        writePlayer(out, playerBlack);
+
+        out.writeInt(observerList.size());
+        for (Player observer : observerList) {
+            writePlayer(out, observer);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        byte formatVersion = in.readByte();
+
+        if (formatVersion != EXTERNAL_FORMAT_VERSION) {
+            throw new InvalidObjectException("Unknown format version " + formatVersion);
+        }
+
+        playerWhite = readPlayer(in);
+        playerBlack = readPlayer(in);
+
+        observerList.clear();
+        for (int i = in.readInt(); i > 0; i--) {
+            observerList.add(readPlayer(in));
+        }
+    }
+
+    private static void writePlayer(ObjectOutput out, Player player) throws IOException {
+        if (player == null) {
+            out.writeByte(NO_PLAYER);
+        } else if (player.getId() == null) {
+            out.writeByte(PLAYER_WITHOUT_ID);
+        } else {
+            out.writeByte(PLAYER_WITH_ID);
+            out.writeUTF(player.getId());
+        }
+    }
+
+    private static Player readPlayer(ObjectInput in) throws IOException {
+        byte type = in.readByte();
+
+        return switch (type) {
+            case NO_PLAYER -> null;
+            case PLAYER_WITHOUT_ID -> new Player(null);
+            case PLAYER_WITH_ID -> new Player(in.readUTF());
+            default -> throw new InvalidObjectException("Unknown player type " + type);
+        };
+    }
 }
@@ -2,16 +2,20 @@ package ca.watier.echechess.engine.handlers;
 
 import ca.watier.echechess.common.enums.*;
 import ca.watier.echechess.common.utils.MathUtils;
-import ca.watier.echechess.engine.abstracts.GameBoardData;
 import ca.watier.echechess.engine.constraints.PawnMoveConstraint;
 import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
 import ca.watier.echechess.engine.interfaces.KingHandler;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+import ca.watier.echechess.engine.models.LegalityMasksModel;
+import ca.watier.echechess.engine.models.MoveList;
 import ca.watier.echechess.engine.models.enums.MoveStatus;
+import ca.watier.echechess.engine.utils.BitboardUtils;
 import ca.watier.echechess.engine.utils.GameUtils;
+import ca.watier.echechess.engine.utils.LegalityUtils;
+import ca.watier.echechess.engine.utils.MoveListPool;
+import ca.watier.echechess.engine.utils.MoveUtils;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.ObjectUtils;
-import org.slf4j.LoggerFactory;
 
 import java.io.Serial;
 import java.util.*;
@@ -25,11 +29,11 @@ import static ca.watier.echechess.common.enums.Side.getOtherPlayerSide;
 
 public class StandardKingHandlerImpl implements KingHandler {
 
-    private static final org.slf4j.Logger LOGGER = LoggerFactory.getLogger(StandardKingHandlerImpl.class);
-
     @Serial
     private static final long serialVersionUID = 8732189942954054774L;
 
+    private static final int NO_KING = -1;
+
     private final PieceMoveConstraintDelegate moveConstraintDelegate;
 
     public StandardKingHandlerImpl(PieceMoveConstraintDelegate moveConstraintDelegate) {
@@ -47,14 +51,15 @@ public class StandardKingHandlerImpl implements KingHandler {
      * @return
      */
     @Override
-    public KingStatus getKingStatus(Side playerSide, GameBoardData gameBoardData) {
+    public KingStatus getKingStatus(Side playerSide, ReadOnlyGameBoardData gameBoardData) {
         if (playerSide == null) {
             return null;
         }
 
-        Pieces kingPiece = Pieces.getKingBySide(playerSide);
-        CasePosition kingPosition = GameUtils.getSinglePiecePosition(kingPiece, gameBoardData.getPiecesLocation());
-        List<CasePosition> piecesThatCanHitOriginalPosition = getPositionsThatCanMoveOrAttackPosition(kingPosition, getOtherPlayerSide(playerSide), gameBoardData);
+        CasePosition kingPosition = gameBoardData.getKingPosition(playerSide);
+        List<CasePosition> piecesThatCanHitOriginalPosition = isKingAttacked(playerSide, gameBoardData) ?
+                getPositionsThatCanMoveOrAttackPosition(kingPosition, getOtherPlayerSide(playerSide), gameBoardData) :
+                Collections.emptyList();
 
 
         if (CollectionUtils.isNotEmpty(piecesThatCanHitOriginalPosition)) { //One or more piece can hit the king
@@ -71,12 +76,20 @@ public class StandardKingHandlerImpl implements KingHandler {
     }
 
 
-    private List<CasePosition> getPositionKingCanMove(Side playerSide, GameBoardData gameBoardData) {
+    /**
+     * The pieces that can hit the king are a part of the attackers of the king; when nothing attacks the king, there's no need to look for them
+     */
+    private boolean isKingAttacked(Side playerSide, ReadOnlyGameBoardData gameBoardData) {
+        int kingSquare = gameBoardData.getKingSquare(playerSide);
+        return kingSquare == NO_KING || gameBoardData.getAttackers(kingSquare, getOtherPlayerSide(playerSide)) != BitboardUtils.EMPTY;
+    }
+
+    private List<CasePosition> getPositionKingCanMove(Side playerSide, ReadOnlyGameBoardData gameBoardData) {
         if (playerSide == null) {
             return new ArrayList<>();
         }
 
-        CasePosition kingPosition = GameUtils.getSinglePiecePosition(Pieces.getKingBySide(playerSide), gameBoardData.getPiecesLocation());
+        CasePosition kingPosition = gameBoardData.getKingPosition(playerSide);
         List<CasePosition> values = new ArrayList<>();
         List<CasePosition> caseAround = MathUtils.getAllPositionsAroundPosition(kingPosition);
 
@@ -100,73 +113,29 @@ public class StandardKingHandlerImpl implements KingHandler {
         return values;
     }
 
-    private boolean targetIsNotKing(CasePosition to, GameBoardData gameBoardData) {
+    private boolean targetIsNotKing(CasePosition to, ReadOnlyGameBoardData gameBoardData) {
         return !Pieces.isKing(gameBoardData.getPiece(to));
     }
 
     @Override
-    public boolean isKingCheckAfterMove(CasePosition from, CasePosition to, GameBoardData gameBoardData) {
+    public boolean isKingCheckAfterMove(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData) {
         if (ObjectUtils.anyNull(from, to)) {
             return false;
         }
 
-        MoveType moveType = moveConstraintDelegate.getMoveType(from, to, gameBoardData);
+        Pieces currentPiece = gameBoardData.getPiece(from);
 
-        if (MoveType.EN_PASSANT.equals(moveType)) {
-            return isKingCheckWithEnPassantMove(from, to, gameBoardData);
-        } else {
-            return isKingCheckWithOtherMove(from, to, moveType, gameBoardData);
+        if (currentPiece == null) {
+            return false;
         }
-    }
-
-    private boolean isKingCheckWithEnPassantMove(CasePosition from, CasePosition to, GameBoardData gameBoardData) {
-        try {
-            GameBoardData clonedData = gameBoardData.clone();
-
-            Pieces currentPiece = clonedData.getPiece(from);
-            Side side = currentPiece.getSide();
-            Side otherPlayerSide = getOtherPlayerSide(side);
-
-            CasePosition enPassantEnemyPawnPosition = PawnMoveConstraint.getEnemyPawnPositionFromEnPassant(to, otherPlayerSide);
-
-            //Copy the values
-            Boolean isPawnUsedSpecialMove = clonedData.isPawnUsedSpecialMove(from);
-            Integer pieceTurn = clonedData.getPieceTurn(from);
-
-            clonedData.removePieceFromBoard(enPassantEnemyPawnPosition); //Remove the enemy pawn
-            clonedData.removePieceFromBoard(from); //Remove the from pawn
-            clonedData.setPiecePositionWithoutMoveState(currentPiece, to);
 
-            //To check if the pawn used the +2 move
-            Map<CasePosition, Boolean> isPawnUsedSpecialMoveMap = createNewMapFrom(clonedData.getIsPawnUsedSpecialMoveMap());
-            isPawnUsedSpecialMoveMap.put(to, isPawnUsedSpecialMove);
+        LegalityMasksModel masks = LegalityUtils.getMasks(currentPiece.getSide(), gameBoardData);
 
-            //To check if the piece moved in the current game
-            Map<CasePosition, Boolean> isPiecesMovedMap = createNewMapFrom(clonedData.getIsPiecesMovedMap());
-            isPiecesMovedMap.put(to, true);
-
-            //To get the number of turns since last move
-            Map<CasePosition, Integer> turnNumberPieceMap = new EnumMap<>(clonedData.getTurnNumberPieceMap());
-            turnNumberPieceMap.put(to, pieceTurn + 1);
-
-            //Set the new maps
-            clonedData.setPiecesGameState(isPawnUsedSpecialMoveMap, turnNumberPieceMap, isPiecesMovedMap);
-
-            Map<CasePosition, Pieces> piecesLocation = clonedData.getPiecesLocation();
-            CasePosition singlePiecePosition = GameUtils.getSinglePiecePosition(Pieces.getKingBySide(side), piecesLocation);
-
-            List<CasePosition> positionsThatCanExecuteActionToPosition =
-                    getPositionsThatCanMoveOrAttackPosition(singlePiecePosition, otherPlayerSide, clonedData);
-
-            return CollectionUtils.isNotEmpty(positionsThatCanExecuteActionToPosition);
-        } catch (CloneNotSupportedException e) {
-            LOGGER.error("Unable to clone the data!", e);
-            return false;
-        }
+        return !LegalityUtils.isLegal(masks, BitboardUtils.getSquare(from), BitboardUtils.getSquare(to), gameBoardData);
     }
 
 
-    public List<CasePosition> getPositionsThatCanMoveOrAttackPosition(CasePosition to, Side otherPlayerSide, GameBoardData gameBoardData) {
+    public List<CasePosition> getPositionsThatCanMoveOrAttackPosition(CasePosition to, Side otherPlayerSide, ReadOnlyGameBoardData gameBoardData) {
         List<CasePosition> positions = new ArrayList<>();
         Map<CasePosition, Pieces> piecesLocation = gameBoardData.getPiecesLocation(otherPlayerSide);
 
@@ -181,7 +150,7 @@ public class StandardKingHandlerImpl implements KingHandler {
         return positions;
     }
 
-    private boolean canMove(CasePosition from, CasePosition to, GameBoardData gameBoardData) {
+    private boolean canMove(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData) {
         MoveStatus moveStatus = moveConstraintDelegate.getMoveStatus(from, to, gameBoardData);
 
         if (MoveStatus.KING_ATTACK_KING.equals(moveStatus) || MoveStatus.CAN_PROTECT_FRIENDLY.equals(moveStatus)) {
@@ -191,70 +160,7 @@ public class StandardKingHandlerImpl implements KingHandler {
         }
     }
 
-
-    private boolean isKingCheckWithOtherMove(CasePosition from, CasePosition to, MoveType moveType, GameBoardData gameBoardData) {
-
-        try {
-            GameBoardData clonedData = gameBoardData.clone();
-
-            Pieces currentPiece = clonedData.getPiece(from);
-            Side playerSide = currentPiece.getSide();
-
-            clonedData.removePieceFromBoard(from);
-            clonedData.setPiecePositionWithoutMoveState(currentPiece, to);
-
-            //To check if the pawn used the +2 move
-            Map<CasePosition, Boolean> isPawnUsedSpecialMoveMap = createNewMapFrom(clonedData.getIsPawnUsedSpecialMoveMap());
-
-            //To check if the piece moved in the current game
-            Map<CasePosition, Boolean> isPiecesMovedMap = createNewMapFrom(clonedData.getIsPiecesMovedMap());
-
-            //To get the number of turns since last move
-            Map<CasePosition, Integer> turnNumberPieceMap = createNewMapFrom(clonedData.getTurnNumberPieceMap());
-
-            //Set the new values in the maps
-            if (MoveType.PAWN_HOP.equals(moveType)) {
-                isPawnUsedSpecialMoveMap.remove(from);
-                isPawnUsedSpecialMoveMap.put(to, true); //the pawn is now moved
-            }
-
-            isPiecesMovedMap.remove(from);
-            isPiecesMovedMap.put(to, true);
-
-            turnNumberPieceMap.remove(from);
-            turnNumberPieceMap.put(to, clonedData.getNbTotalMove());
-
-            //Set the new maps
-            clonedData.setPiecesGameState(isPawnUsedSpecialMoveMap, turnNumberPieceMap, isPiecesMovedMap);
-
-            Map<CasePosition, Pieces> piecesLocation = clonedData.getPiecesLocation();
-            CasePosition singlePiecePosition = GameUtils.getSinglePiecePosition(Pieces.getKingBySide(playerSide), piecesLocation);
-
-
-            Side otherPlayerSide = getOtherPlayerSide(playerSide);
-
-            List<CasePosition> positionsThatCanExecuteActionToPosition = getPositionsThatCanMoveOrAttackPosition(
-                    singlePiecePosition,
-                    otherPlayerSide,
-                    clonedData
-            );
-
-            return CollectionUtils.isNotEmpty(positionsThatCanExecuteActionToPosition);
-        } catch (CloneNotSupportedException e) {
-            LOGGER.error("Unable to clone the data!", e);
-            return false;
-        }
-    }
-
-    private <T> EnumMap<CasePosition, T> createNewMapFrom(Map<CasePosition, T> mapToCreateFrom) {
-        if (MapUtils.isEmpty(mapToCreateFrom)) {
-            return new EnumMap<>(CasePosition.class);
-        }
-
-        return new EnumMap<>(mapToCreateFrom);
-    }
-
-    private boolean oneOrMorePieceCanBlock(List<CasePosition> piecesThatCanHitOriginalPosition, CasePosition kingPosition, Side playerSide, GameBoardData gameBoardData) {
+    private boolean oneOrMorePieceCanBlock(List<CasePosition> piecesThatCanHitOriginalPosition, CasePosition kingPosition, Side playerSide, ReadOnlyGameBoardData gameBoardData) {
         if (CollectionUtils.size(piecesThatCanHitOriginalPosition) == 1) { //We can only block one piece, if more, checkmate
 
             CasePosition enemyPosition = piecesThatCanHitOriginalPosition.get(0);
@@ -283,7 +189,7 @@ public class StandardKingHandlerImpl implements KingHandler {
         return false;
     }
 
-    private boolean isStillCheckAfterKillingTheEnemy(Side playerSide, CasePosition to, GameBoardData gameBoardData) {
+    private boolean isStillCheckAfterKillingTheEnemy(Side playerSide, CasePosition to, ReadOnlyGameBoardData gameBoardData) {
 
         boolean isCheck = true;
         int toRow = to.getRow();
@@ -324,7 +230,7 @@ public class StandardKingHandlerImpl implements KingHandler {
         return isCheck;
     }
 
-    private boolean isValidMove(CasePosition to, GameBoardData gameBoardData, CasePosition from) {
+    private boolean isValidMove(CasePosition to, ReadOnlyGameBoardData gameBoardData, CasePosition from) {
         return MoveStatus.isMoveValid(moveConstraintDelegate.getMoveStatus(from, to, gameBoardData)) && !isKingCheckAfterMove(from, to, gameBoardData);
     }
 
@@ -358,38 +264,33 @@ public class StandardKingHandlerImpl implements KingHandler {
         return casePosition -> rank.equals(Ranks.getRank(casePosition, side)) && casePosition.isOnSameColumn(column);
     }
 
-    private boolean isStalemate(Side playerSide, GameBoardData gameBoardData) {
-        Map<CasePosition, Pieces> piecesLocation = gameBoardData.getPiecesLocation(playerSide);
-
+    private boolean isStalemate(Side playerSide, ReadOnlyGameBoardData gameBoardData) {
         boolean kingCantMove = CollectionUtils.isEmpty(getPositionKingCanMove(playerSide, gameBoardData));
 
-        return kingCantMove && !isAnyOtherExceptKingCanMove(playerSide, gameBoardData, piecesLocation);
+        return kingCantMove && !isAnyOtherExceptKingCanMove(playerSide, gameBoardData);
     }
 
-    private boolean isAnyOtherExceptKingCanMove(Side playerSide, GameBoardData gameBoardData, Map<CasePosition, Pieces> piecesLocation) {
-        if (piecesLocation.size() == 1) { // king is alone
-            return false;
-        } else {
-            for (Map.Entry<CasePosition, Pieces> entry : piecesLocation.entrySet()) {
-                CasePosition from = entry.getKey();
-                Pieces value = entry.getValue();
+    private boolean isAnyOtherExceptKingCanMove(Side playerSide, ReadOnlyGameBoardData gameBoardData) {
+        MoveList moves = MoveListPool.acquire();
 
-                if (Pieces.isKing(value)) {
-                    continue;
-                }
+        try {
+            moveConstraintDelegate.generateLegalMoves(playerSide, gameBoardData, moves);
 
-                List<CasePosition> allAvailableMoves = moveConstraintDelegate.getAllAvailableMoves(from, playerSide, gameBoardData);
+            long kings = gameBoardData.getPieceBitboard(Pieces.getKingBySide(playerSide));
 
-                if (CollectionUtils.isNotEmpty(allAvailableMoves)) {
+            for (int i = 0; i < moves.size(); i++) {
+                if ((kings & (1L << MoveUtils.getFrom(moves.get(i)))) == 0) {
                     return true;
                 }
             }
-        }
 
-        return false;
+            return false;
+        } finally {
+            MoveListPool.release(moves);
+        }
     }
 
-    private KingStatus getKingStatusWhenPiecesCanHitKing(Side playerSide, CasePosition kingPosition, List<CasePosition> piecesThatCanHitOriginalPosition, GameBoardData gameBoardData) {
+    private KingStatus getKingStatusWhenPiecesCanHitKing(Side playerSide, CasePosition kingPosition, List<CasePosition> piecesThatCanHitOriginalPosition, ReadOnlyGameBoardData gameBoardData) {
 
         //Try to move the king
         if (CollectionUtils.isNotEmpty(getPositionKingCanMove(playerSide, gameBoardData))) {
@@ -3,12 +3,14 @@ package ca.watier.echechess.engine.interfaces;
 import ca.watier.echechess.common.enums.*;
 import ca.watier.echechess.common.responses.GameScoreResponse;
 import ca.watier.echechess.common.sessions.Player;
-import ca.watier.echechess.engine.abstracts.GameBoardData;
 import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
+import ca.watier.echechess.engine.models.SearchResultModel;
+import ca.watier.echechess.engine.models.TimeControlModel;
 import ca.watier.echechess.engine.models.enums.MoveStatus;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 
 public interface GameHandler {
     MoveType movePiece(CasePosition from, CasePosition to, Side playerSide);
@@ -19,7 +21,7 @@ public interface GameHandler {
 
     List<CasePosition> getAllAvailableMoves(CasePosition from, Side playerSide);
 
-    MoveStatus getMoveStatus(CasePosition from, CasePosition to, GameBoardData gameBoardData);
+    MoveStatus getMoveStatus(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData);
 
     boolean isKing(KingStatus kingStatus, Side side);
 
@@ -49,4 +51,26 @@ public interface GameHandler {
 
     PieceMoveConstraintDelegate getMoveConstraintDelegate();
 
+    long getZobristKey();
+
+    /**
+     * Gets the static evaluation of the current position (material and placement of the pieces), in centipawns from
+     * the white side; kept up to date on each move, the board is not scanned
+     *
+     * @return
+     */
+    int getEvaluation();
+
+    SearchResultModel suggestMove(TimeControlModel timeControl);
+
+    /**
+     * Search the best move of the side that can play, deeper and deeper until the time is up or the search is
+     * cancelled; the best move of the last completed depth is returned
+     *
+     * @param timeControl
+     * @param isCancelled - checked during the search
+     * @return
+     */
+    SearchResultModel suggestMove(TimeControlModel timeControl, BooleanSupplier isCancelled);
+
 }
@@ -18,7 +18,6 @@ package ca.watier.echechess.engine.interfaces;
 
 import ca.watier.echechess.common.enums.CasePosition;
 import ca.watier.echechess.common.enums.MoveType;
-import ca.watier.echechess.engine.abstracts.GameBoardData;
 import ca.watier.echechess.engine.exceptions.NoMoveTypeDefinedException;
 import ca.watier.echechess.engine.models.enums.MoveStatus;
 
@@ -29,9 +28,9 @@ import java.io.Serializable;
  */
 public interface MoveConstraint extends Serializable {
 
-    MoveStatus getMoveStatus(CasePosition from, CasePosition to, GameBoardData gameBoardData);
+    MoveStatus getMoveStatus(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData);
 
-    default MoveType getMoveType(CasePosition from, CasePosition to, GameBoardData gameBoardData) throws NoMoveTypeDefinedException {
+    default MoveType getMoveType(CasePosition from, CasePosition to, ReadOnlyGameBoardData gameBoardData) throws NoMoveTypeDefinedException {
         throw new NoMoveTypeDefinedException();
     }
 }
@@ -0,0 +1,128 @@
+package ca.watier.echechess.engine.interfaces;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Pieces;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.common.pojos.MoveHistory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only view of the {@link ca.watier.echechess.engine.abstracts.GameBoardData}, given to the constraints, the
+ * handlers and the evaluators; they can read the current state without a copy of the board.
+ */
+public interface ReadOnlyGameBoardData {
+
+    Pieces getPiece(CasePosition position);
+
+    /**
+     * Gets the piece on a square index (0 to 63), null if the square is empty
+     *
+     * @param square
+     * @return
+     */
+    Pieces getPieceAt(int square);
+
+    Map<CasePosition, Pieces> getPiecesLocation();
+
+    Map<CasePosition, Pieces> getPiecesLocation(Side side);
+
+    long getPieceBitboard(Pieces piece);
+
+    long getPieceBitboard(int pieceIndex);
+
+    long getSideBitboard(Side side);
+
+    long getOccupiedBitboard();
+
+    /**
+     * Gets the pieces of the side that attack the square (a bitboard)
+     *
+     * @param square
+     * @param attackerSide
+     * @return
+     */
+    long getAttackers(int square, Side attackerSide);
+
+    boolean isAttackMapsEnabled();
+
+    /**
+     * Gets the square (0 to 63) of the king of the side, -1 if the king is not on the board
+     *
+     * @param side
+     * @return
+     */
+    int getKingSquare(Side side);
+
+    CasePosition getKingPosition(Side side);
+
+    long getZobristKey();
+
+    /**
+     * Gets the sum of the middlegame values of the pieces, from the white side (see {@link ca.watier.echechess.engine.utils.EvaluationUtils#getMiddlegameValue})
+     *
+     * @return
+     */
+    int getMiddlegameScore();
+
+    /**
+     * Gets the sum of the endgame values of the pieces, from the white side (see {@link ca.watier.echechess.engine.utils.EvaluationUtils#getEndgameValue})
+     *
+     * @return
+     */
+    int getEndgameScore();
+
+    /**
+     * Gets the sum of the phase weights of the pieces (see {@link ca.watier.echechess.engine.utils.EvaluationUtils#getPhaseWeight})
+     *
+     * @return
+     */
+    int getGamePhase();
+
+    Map<CasePosition, Pieces> getDefaultPositions();
+
+    boolean isDefaultPosition(CasePosition position, Pieces piece);
+
+    int getBlackTurnNumber();
+
+    int getWhiteTurnNumber();
+
+    int getNbTotalMove();
+
+    Map<CasePosition, Boolean> getIsPiecesMovedMap();
+
+    Map<CasePosition, Boolean> getIsPawnUsedSpecialMoveMap();
+
+    Map<CasePosition, Integer> getTurnNumberPieceMap();
+
+    Integer getPieceTurn(CasePosition position);
+
+    boolean isPieceMoved(CasePosition position);
+
+    boolean isPawnUsedSpecialMove(CasePosition position);
+
+    List<MoveHistory> getMoveHistory();
+
+    boolean isGamePaused();
+
+    boolean isGameDraw();
+
+    Side getCurrentAllowedMoveSide();
+
+    short getBlackPlayerPoint();
+
+    short getWhitePlayerPoint();
+
+    boolean isWhiteQueenCastlingAvailable();
+
+    boolean isWhiteKingCastlingAvailable();
+
+    boolean isBlackQueenCastlingAvailable();
+
+    boolean isBlackKingCastlingAvailable();
+
+    boolean isAllowOtherToJoin();
+
+    boolean isAllowObservers();
+}
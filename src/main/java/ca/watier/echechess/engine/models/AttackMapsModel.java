@@ -0,0 +1,110 @@
+package ca.watier.echechess.engine.models;
+
+import ca.watier.echechess.common.enums.Pieces;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+import ca.watier.echechess.engine.utils.AttackUtils;
+import ca.watier.echechess.engine.utils.BitboardUtils;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * The attackers of each square, for both sides, updated each time a square of the board changes.
+ * <p>
+ * When a square changes, only the piece on the square and the sliding pieces that attacked the square (their ray
+ * is now longer / shorter) are recomputed.
+ */
+public class AttackMapsModel implements Serializable, Cloneable {
+
+    @Serial
+    private static final long serialVersionUID = 4405187256473385121L;
+
+    private long[] attacksBySquare = new long[BitboardUtils.NB_OF_SQUARES];
+    private long[] whiteAttackers = new long[BitboardUtils.NB_OF_SQUARES];
+    private long[] blackAttackers = new long[BitboardUtils.NB_OF_SQUARES];
+
+    public AttackMapsModel(ReadOnlyGameBoardData gameBoardData) {
+        long occupied = gameBoardData.getOccupiedBitboard();
+
+        while (occupied != BitboardUtils.EMPTY) {
+            updateSquare(Long.numberOfTrailingZeros(occupied), gameBoardData);
+            occupied &= occupied - 1;
+        }
+    }
+
+    /**
+     * Gets the pieces of the side that attack the square
+     *
+     * @param square
+     * @param attackerSide
+     * @return
+     */
+    public long getAttackers(int square, Side attackerSide) {
+        return Side.BLACK.equals(attackerSide) ? blackAttackers[square] : whiteAttackers[square];
+    }
+
+    /**
+     * Updates the maps after a piece was added or removed on the square (the board is already updated)
+     *
+     * @param square
+     * @param gameBoardData
+     */
+    public void onSquareChanged(int square, ReadOnlyGameBoardData gameBoardData) {
+        long sliders = BitboardUtils.EMPTY;
+
+        for (int pieceType = BitboardUtils.BISHOP; pieceType <= BitboardUtils.QUEEN; pieceType++) {
+            sliders |= gameBoardData.getPieceBitboard(BitboardUtils.WHITE_PAWN + pieceType) |
+                    gameBoardData.getPieceBitboard(BitboardUtils.BLACK_PAWN + pieceType);
+        }
+
+        // The attackers are still the ones before the change
+        long affected = (whiteAttackers[square] | blackAttackers[square]) & sliders & ~(1L << square);
+
+        updateSquare(square, gameBoardData);
+
+        while (affected != BitboardUtils.EMPTY) {
+            updateSquare(Long.numberOfTrailingZeros(affected), gameBoardData);
+            affected &= affected - 1;
+        }
+    }
+
+    private void updateSquare(int square, ReadOnlyGameBoardData gameBoardData) {
+        long squareMask = 1L << square;
+        long oldAttacks = attacksBySquare[square];
+
+        while (oldAttacks != BitboardUtils.EMPTY) {
+            int target = Long.numberOfTrailingZeros(oldAttacks);
+            oldAttacks &= oldAttacks - 1;
+
+            whiteAttackers[target] &= ~squareMask;
+            blackAttackers[target] &= ~squareMask;
+        }
+
+        Pieces piece = gameBoardData.getPieceAt(square);
+
+        if (piece == null) {
+            attacksBySquare[square] = BitboardUtils.EMPTY;
+            return;
+        }
+
+        long attacks = AttackUtils.getPieceAttacks(BitboardUtils.getPieceIndex(piece), square, gameBoardData.getOccupiedBitboard());
+        long[] attackers = Side.BLACK.equals(piece.getSide()) ? blackAttackers : whiteAttackers;
+        attacksBySquare[square] = attacks;
+
+        while (attacks != BitboardUtils.EMPTY) {
+            attackers[Long.numberOfTrailingZeros(attacks)] |= squareMask;
+            attacks &= attacks - 1;
+        }
+    }
+
+    @Override
+    public AttackMapsModel clone() throws CloneNotSupportedException {
+        AttackMapsModel cloned = (AttackMapsModel) super.clone();
+        cloned.attacksBySquare = attacksBySquare.clone();
+        cloned.whiteAttackers = whiteAttackers.clone();
+        cloned.blackAttackers = blackAttackers.clone();
+
+        return cloned;
+    }
+}
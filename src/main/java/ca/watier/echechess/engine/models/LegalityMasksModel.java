@@ -0,0 +1,52 @@
+package ca.watier.echechess.engine.models;
+
+/**
+ * The pins and checks of a side, computed once per position by {@link ca.watier.echechess.engine.utils.LegalityUtils}.
+ * <p>
+ * All the values are bitboards (see {@link ca.watier.echechess.engine.utils.BitboardUtils}), except the king square.
+ */
+public class LegalityMasksModel {
+    private final int kingSquare;
+    private final long checkers;
+    private final long checkMask;
+    private final long pinned;
+
+    public LegalityMasksModel(int kingSquare, long checkers, long checkMask, long pinned) {
+        this.kingSquare = kingSquare;
+        this.checkers = checkers;
+        this.checkMask = checkMask;
+        this.pinned = pinned;
+    }
+
+    /**
+     * @return the square of the king, -1 when the side has no king
+     */
+    public int getKingSquare() {
+        return kingSquare;
+    }
+
+    /**
+     * @return the enemy pieces that attack the king
+     */
+    public long getCheckers() {
+        return checkers;
+    }
+
+    /**
+     * @return the squares where a piece (other than the king) can go to stop the check; all the squares when not in check, none in double check
+     */
+    public long getCheckMask() {
+        return checkMask;
+    }
+
+    /**
+     * @return the pieces that cannot leave the line between the king and an enemy sliding piece
+     */
+    public long getPinned() {
+        return pinned;
+    }
+
+    public boolean isCheck() {
+        return checkers != 0;
+    }
+}
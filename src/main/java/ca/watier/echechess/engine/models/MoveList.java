@@ -0,0 +1,73 @@
+package ca.watier.echechess.engine.models;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of moves encoded with {@link ca.watier.echechess.engine.utils.MoveUtils}; the capacity grows when
+ * needed and is kept when the list is cleared (see {@link ca.watier.echechess.engine.utils.MoveListPool})
+ */
+public class MoveList {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[Math.max(capacity, 1)];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size << 1);
+        }
+
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Keep only the first moves of the list
+     *
+     * @param newSize
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+}
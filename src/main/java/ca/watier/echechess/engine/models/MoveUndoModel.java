@@ -0,0 +1,119 @@
+package ca.watier.echechess.engine.models;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Pieces;
+import ca.watier.echechess.common.enums.Side;
+
+/**
+ * Holds the state needed to revert a move made with {@link ca.watier.echechess.engine.abstracts.GameBoardData#makeMove}.
+ * <p>
+ * Only the squares touched by the move are saved (at most 4, when castling), with their previous piece and states.
+ */
+public class MoveUndoModel {
+    private static final int MAX_NB_OF_SQUARES = 4;
+
+    private final CasePosition[] positions = new CasePosition[MAX_NB_OF_SQUARES];
+    private final Pieces[] pieces = new Pieces[MAX_NB_OF_SQUARES];
+    private final Boolean[] pieceMovedStates = new Boolean[MAX_NB_OF_SQUARES];
+    private final Boolean[] pawnUsedSpecialMoveStates = new Boolean[MAX_NB_OF_SQUARES];
+    private final Integer[] pieceTurns = new Integer[MAX_NB_OF_SQUARES];
+    private final int totalMove;
+    private final int whiteTurnNumber;
+    private final int blackTurnNumber;
+    private final Side allowedMoveSide;
+    private final byte castlingFlags;
+    private final int castlingRights;
+    private final int enPassantFile;
+    private int nbOfSquares;
+
+    public MoveUndoModel(int totalMove, int whiteTurnNumber, int blackTurnNumber, Side allowedMoveSide, byte castlingFlags,
+                         int castlingRights, int enPassantFile) {
+        this.totalMove = totalMove;
+        this.whiteTurnNumber = whiteTurnNumber;
+        this.blackTurnNumber = blackTurnNumber;
+        this.allowedMoveSide = allowedMoveSide;
+        this.castlingFlags = castlingFlags;
+        this.castlingRights = castlingRights;
+        this.enPassantFile = enPassantFile;
+    }
+
+    /**
+     * Save the state of a square, before it's modified
+     *
+     * @param position
+     * @param piece
+     * @param pieceMoved
+     * @param pawnUsedSpecialMove
+     * @param pieceTurn
+     */
+    public void addSquare(CasePosition position, Pieces piece, Boolean pieceMoved, Boolean pawnUsedSpecialMove, Integer pieceTurn) {
+        positions[nbOfSquares] = position;
+        pieces[nbOfSquares] = piece;
+        pieceMovedStates[nbOfSquares] = pieceMoved;
+        pawnUsedSpecialMoveStates[nbOfSquares] = pawnUsedSpecialMove;
+        pieceTurns[nbOfSquares] = pieceTurn;
+        nbOfSquares++;
+    }
+
+    public int getNbOfSquares() {
+        return nbOfSquares;
+    }
+
+    public CasePosition getPosition(int index) {
+        return positions[index];
+    }
+
+    public Pieces getPiece(int index) {
+        return pieces[index];
+    }
+
+    public Boolean getPieceMovedState(int index) {
+        return pieceMovedStates[index];
+    }
+
+    public Boolean getPawnUsedSpecialMoveState(int index) {
+        return pawnUsedSpecialMoveStates[index];
+    }
+
+    public Integer getPieceTurn(int index) {
+        return pieceTurns[index];
+    }
+
+    public int getTotalMove() {
+        return totalMove;
+    }
+
+    public int getWhiteTurnNumber() {
+        return whiteTurnNumber;
+    }
+
+    public int getBlackTurnNumber() {
+        return blackTurnNumber;
+    }
+
+    public Side getAllowedMoveSide() {
+        return allowedMoveSide;
+    }
+
+    public byte getCastlingFlags() {
+        return castlingFlags;
+    }
+
+    /**
+     * Gets the castling rights in the Zobrist hash before the move
+     *
+     * @return
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * Gets the en passant file in the Zobrist hash before the move
+     *
+     * @return
+     */
+    public int getEnPassantFile() {
+        return enPassantFile;
+    }
+}
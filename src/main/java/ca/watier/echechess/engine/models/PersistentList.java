@@ -0,0 +1,111 @@
+package ca.watier.echechess.engine.models;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable list where the elements are added at the end; a list and the lists made by adding elements to it
+ * share all their elements, adding an element is O(1).
+ *
+ * @param <T>
+ */
+public final class PersistentList<T extends Serializable> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = -3105847393516226102L;
+
+    private static final PersistentList<?> EMPTY = new PersistentList<>(null, null, 0);
+
+    private final T last;
+    private final PersistentList<T> previous;
+    private final int size;
+
+    private PersistentList(T last, PersistentList<T> previous, int size) {
+        this.last = last;
+        this.previous = previous;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Serializable> PersistentList<T> empty() {
+        return (PersistentList<T>) EMPTY;
+    }
+
+    public static <T extends Serializable> PersistentList<T> of(List<T> values) {
+        PersistentList<T> list = empty();
+
+        for (T value : values) {
+            list = list.add(value);
+        }
+
+        return list;
+    }
+
+    /**
+     * Gets a new list, with the value at the end; this list is unchanged
+     *
+     * @param value
+     * @return
+     */
+    public PersistentList<T> add(T value) {
+        return new PersistentList<>(value, this, size + 1);
+    }
+
+    /**
+     * @return the last element, null if the list is empty
+     */
+    public T getLast() {
+        return last;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the elements, from the first added to the last
+     *
+     * @return an unmodifiable list
+     */
+    public List<T> toList() {
+        List<T> values = new ArrayList<>(size);
+
+        for (PersistentList<T> current = this; !current.isEmpty(); current = current.previous) {
+            values.add(current.last);
+        }
+
+        Collections.reverse(values);
+        return Collections.unmodifiableList(values);
+    }
+
+    @Serial
+    private Object writeReplace() {
+        return new SerializedForm<>(toList());
+    }
+
+    /**
+     * Serialized as a plain list, the chain of nodes could overflow the stack on long lists
+     */
+    private static final class SerializedForm<T extends Serializable> implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 2298516007744017583L;
+
+        private final ArrayList<T> values;
+
+        private SerializedForm(List<T> values) {
+            this.values = new ArrayList<>(values);
+        }
+
+        @Serial
+        private Object readResolve() {
+            return PersistentList.of(values);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ca.watier.echechess.engine.models;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Pieces;
+import ca.watier.echechess.engine.utils.MoveUtils;
+
+/**
+ * The result of a search; the moves are encoded with {@link MoveUtils} and the score is in centipawns, from the point
+ * of view of the side to move (see {@link ca.watier.echechess.engine.engines.AlphaBetaSearchEngine#MATE_SCORE} for the mates)
+ */
+public class SearchResultModel {
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final int[] principalVariation;
+    private final long nodes;
+
+    public SearchResultModel(int bestMove, int score, int depth, int[] principalVariation, long nodes) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.principalVariation = principalVariation;
+        this.nodes = nodes;
+    }
+
+    /**
+     * @return the best move, {@link MoveUtils#NO_MOVE} if the side cannot move (checkmate or stalemate)
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    public boolean hasBestMove() {
+        return bestMove != MoveUtils.NO_MOVE;
+    }
+
+    public CasePosition getFrom() {
+        return hasBestMove() ? MoveUtils.getFromPosition(bestMove) : null;
+    }
+
+    public CasePosition getTo() {
+        return hasBestMove() ? MoveUtils.getToPosition(bestMove) : null;
+    }
+
+    public Pieces getPromotion() {
+        return hasBestMove() ? MoveUtils.getPromotion(bestMove) : null;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the expected moves, starting with the best move
+     */
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,56 @@
+package ca.watier.echechess.engine.models;
+
+import java.time.Duration;
+
+/**
+ * The time that can be spent to search a move: a fixed time per move, or a part of the remaining time of the clock
+ */
+public class TimeControlModel {
+    // The clock is shared between the moves still to play, the game is expected to last at least this number of moves
+    private static final int EXPECTED_NB_OF_MOVES = 30;
+    // Kept on the clock, for the time spent outside of the search
+    private static final Duration CLOCK_MARGIN = Duration.ofMillis(50);
+    private static final Duration MIN_BUDGET = Duration.ofMillis(1);
+
+    private final Duration budget;
+
+    private TimeControlModel(Duration budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * @param moveTime - the time to search the move
+     * @return
+     */
+    public static TimeControlModel ofMoveTime(Duration moveTime) {
+        if (moveTime == null || moveTime.isNegative()) {
+            throw new IllegalArgumentException("The move time must be positive!");
+        }
+
+        return new TimeControlModel(moveTime);
+    }
+
+    /**
+     * @param remaining - the time left on the clock of the side to move
+     * @param increment - the time added to the clock after each move
+     * @return
+     */
+    public static TimeControlModel ofClock(Duration remaining, Duration increment) {
+        if (remaining == null || increment == null || remaining.isNegative() || increment.isNegative()) {
+            throw new IllegalArgumentException("The remaining time and the increment must be positive!");
+        }
+
+        Duration budget = remaining.dividedBy(EXPECTED_NB_OF_MOVES).plus(increment.multipliedBy(3).dividedBy(4));
+        Duration available = remaining.minus(CLOCK_MARGIN);
+
+        if (budget.compareTo(available) > 0) {
+            budget = available;
+        }
+
+        return new TimeControlModel(budget.compareTo(MIN_BUDGET) < 0 ? MIN_BUDGET : budget);
+    }
+
+    public Duration getBudget() {
+        return budget;
+    }
+}
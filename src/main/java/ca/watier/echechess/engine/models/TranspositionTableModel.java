@@ -0,0 +1,177 @@
+package ca.watier.echechess.engine.models;
+
+import ca.watier.echechess.engine.utils.MoveUtils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A fixed-size table of the search results (best move, score, depth, bound and age), keyed by the Zobrist hash of the
+ * position (see {@link ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData#getZobristKey()}).
+ * <p>
+ * The entries (16 bytes: the key xor the data, then the data) are kept off-heap, in direct buffers of at most 1 GB.
+ * The table can be shared by many threads without lock: the entries are read and written with two opaque accesses
+ * and an entry torn by a concurrent write fails the key check, it's then seen as missing. The memory is freed when
+ * the table is collected.
+ * <pre>
+ * data bits 0 - 26  : best move (see {@link MoveUtils}), {@link MoveUtils#NO_MOVE} if not known
+ * data bits 27 - 44 : score + 2^17
+ * data bits 45 - 51 : depth
+ * data bits 52 - 53 : bound ({@link #BOUND_EXACT}, {@link #BOUND_LOWER}, {@link #BOUND_UPPER})
+ * data bits 54 - 61 : age (see {@link #newSearch()})
+ * </pre>
+ */
+public class TranspositionTableModel {
+
+    public static final long NO_ENTRY = 0L;
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2; // The score is at least the stored value (fail high)
+    public static final int BOUND_UPPER = 3; // The score is at most the stored value (fail low)
+    public static final int MAX_DEPTH = 127;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int ENTRY_SIZE = 16;
+    private static final int ENTRY_SHIFT = 4;
+    private static final int MAX_ENTRIES_PER_BUFFER_SHIFT = 26; // 1 GB
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
+    private static final int MOVE_MASK = (1 << 27) - 1;
+    private static final int SCORE_SHIFT = 27;
+    private static final int SCORE_MASK = (1 << 18) - 1;
+    private static final int SCORE_OFFSET = 1 << 17;
+    private static final int DEPTH_SHIFT = 45;
+    private static final int BOUND_SHIFT = 52;
+    private static final int AGE_SHIFT = 54;
+    private static final int AGE_MASK = 0xFF;
+
+    private final ByteBuffer[] buffers;
+    private final long indexMask;
+    private final int bufferShift;
+    private final int entryInBufferMask;
+    private volatile int age;
+
+    /**
+     * @param sizeInMb - the size of the table, rounded down to a power of two
+     */
+    public TranspositionTableModel(int sizeInMb) {
+        if (sizeInMb < 1) {
+            throw new IllegalArgumentException("The size must be at least 1 MB!");
+        }
+
+        long nbOfEntries = Long.highestOneBit(sizeInMb * BYTES_PER_MB / ENTRY_SIZE);
+        int entriesPerBufferShift = Math.min(Long.numberOfTrailingZeros(nbOfEntries), MAX_ENTRIES_PER_BUFFER_SHIFT);
+        int nbOfBuffers = (int) (nbOfEntries >>> entriesPerBufferShift);
+
+        buffers = new ByteBuffer[nbOfBuffers];
+        for (int i = 0; i < nbOfBuffers; i++) {
+            buffers[i] = ByteBuffer.allocateDirect((1 << entriesPerBufferShift) << ENTRY_SHIFT).order(ByteOrder.nativeOrder());
+        }
+
+        indexMask = nbOfEntries - 1;
+        bufferShift = entriesPerBufferShift;
+        entryInBufferMask = (1 << entriesPerBufferShift) - 1;
+    }
+
+    public static int getMove(long entry) {
+        return (int) (entry & MOVE_MASK);
+    }
+
+    public static int getScore(long entry) {
+        return ((int) (entry >>> SCORE_SHIFT) & SCORE_MASK) - SCORE_OFFSET;
+    }
+
+    public static int getDepth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    public static int getBound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    public static int getAge(long entry) {
+        return (int) (entry >>> AGE_SHIFT) & AGE_MASK;
+    }
+
+    public long getNbOfEntries() {
+        return indexMask + 1;
+    }
+
+    /**
+     * Start a new search, the entries of the previous searches are replaced first
+     */
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    /**
+     * Gets the entry of the position
+     *
+     * @param key - the Zobrist hash of the position
+     * @return the data of the entry (read it with the static getters), {@link #NO_ENTRY} if missing
+     */
+    public long probe(long key) {
+        ByteBuffer buffer = getBuffer(key);
+        int offset = getOffset(key);
+        long data = (long) LONGS.getOpaque(buffer, offset + Long.BYTES);
+        long checkedKey = (long) LONGS.getOpaque(buffer, offset);
+
+        return data != NO_ENTRY && (checkedKey ^ data) == key ? data : NO_ENTRY;
+    }
+
+    /**
+     * Keep the result of the position; the entry of another position is replaced when it's older or not as deep, the
+     * entry of the same position when the new one is at least as deep
+     *
+     * @param key - the Zobrist hash of the position
+     * @param move - the best move, {@link MoveUtils#NO_MOVE} if not known (the previous one is kept)
+     * @param score - between -2^17 and 2^17
+     * @param depth - between 0 and {@link #MAX_DEPTH}
+     * @param bound
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        ByteBuffer buffer = getBuffer(key);
+        int offset = getOffset(key);
+        long previousData = (long) LONGS.getOpaque(buffer, offset + Long.BYTES);
+        long previousKey = (long) LONGS.getOpaque(buffer, offset) ^ previousData;
+        int currentAge = age;
+
+        if (previousData != NO_ENTRY) {
+            if (previousKey == key) {
+                if (depth < getDepth(previousData) && getAge(previousData) == currentAge) {
+                    return;
+                } else if (move == MoveUtils.NO_MOVE) {
+                    move = getMove(previousData);
+                }
+            } else if (getAge(previousData) == currentAge && depth < getDepth(previousData)) {
+                return;
+            }
+        }
+
+        long data = (move & MOVE_MASK) |
+                ((long) ((score + SCORE_OFFSET) & SCORE_MASK) << SCORE_SHIFT) |
+                ((long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT) |
+                ((long) bound << BOUND_SHIFT) |
+                ((long) currentAge << AGE_SHIFT);
+
+        LONGS.setOpaque(buffer, offset, key ^ data);
+        LONGS.setOpaque(buffer, offset + Long.BYTES, data);
+    }
+
+    public void clear() {
+        for (ByteBuffer buffer : buffers) {
+            for (int offset = 0; offset < buffer.capacity(); offset += Long.BYTES) {
+                LONGS.setOpaque(buffer, offset, NO_ENTRY);
+            }
+        }
+    }
+
+    private ByteBuffer getBuffer(long key) {
+        return buffers[(int) ((key & indexMask) >>> bufferShift)];
+    }
+
+    private int getOffset(long key) {
+        return ((int) key & entryInBufferMask) << ENTRY_SHIFT;
+    }
+}
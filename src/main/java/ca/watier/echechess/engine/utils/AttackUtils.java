@@ -0,0 +1,201 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+
+/**
+ * Precomputed attack bitboards, indexed by square (see {@link BitboardUtils}).
+ */
+public final class AttackUtils {
+
+    private static final int[][] KNIGHT_OFFSETS = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+    private static final int[][] KING_OFFSETS = {{0, 1}, {1, 1}, {1, 0}, {1, -1}, {0, -1}, {-1, -1}, {-1, 0}, {-1, 1}};
+
+    private static final long[] KNIGHT_ATTACKS = createLeaperAttacks(KNIGHT_OFFSETS);
+    private static final long[] KING_ATTACKS = createLeaperAttacks(KING_OFFSETS);
+    private static final long[] WHITE_PAWN_ATTACKS = createLeaperAttacks(new int[][]{{-1, 1}, {1, 1}});
+    private static final long[] BLACK_PAWN_ATTACKS = createLeaperAttacks(new int[][]{{-1, -1}, {1, -1}});
+    private static final long[][] BETWEEN = new long[BitboardUtils.NB_OF_SQUARES][BitboardUtils.NB_OF_SQUARES];
+    private static final long[][] LINE = new long[BitboardUtils.NB_OF_SQUARES][BitboardUtils.NB_OF_SQUARES];
+
+    static {
+        for (int first = 0; first < BitboardUtils.NB_OF_SQUARES; first++) {
+            for (int second = 0; second < BitboardUtils.NB_OF_SQUARES; second++) {
+                long secondMask = 1L << second;
+
+                if ((MagicBitboardUtils.getRookAttacks(first, BitboardUtils.EMPTY) & secondMask) != 0) {
+                    initLines(first, second, false);
+                } else if ((MagicBitboardUtils.getBishopAttacks(first, BitboardUtils.EMPTY) & secondMask) != 0) {
+                    initLines(first, second, true);
+                }
+            }
+        }
+    }
+
+    private AttackUtils() {
+    }
+
+    private static long[] createLeaperAttacks(int[][] offsets) {
+        long[] attacks = new long[BitboardUtils.NB_OF_SQUARES];
+
+        for (int square = 0; square < BitboardUtils.NB_OF_SQUARES; square++) {
+            int file = BitboardUtils.getFile(square);
+            int rank = BitboardUtils.getRank(square);
+
+            for (int[] offset : offsets) {
+                int targetFile = file + offset[0];
+                int targetRank = rank + offset[1];
+
+                if (targetFile >= 0 && targetFile < 8 && targetRank >= 0 && targetRank < 8) {
+                    attacks[square] |= 1L << ((targetRank << 3) | targetFile);
+                }
+            }
+        }
+
+        return attacks;
+    }
+
+    private static void initLines(int first, int second, boolean isDiagonal) {
+        long firstMask = 1L << first;
+        long secondMask = 1L << second;
+
+        BETWEEN[first][second] = getSlidingAttacks(first, secondMask, isDiagonal) & getSlidingAttacks(second, firstMask, isDiagonal);
+        LINE[first][second] = (getSlidingAttacks(first, BitboardUtils.EMPTY, isDiagonal) & getSlidingAttacks(second, BitboardUtils.EMPTY, isDiagonal)) | firstMask | secondMask;
+    }
+
+    private static long getSlidingAttacks(int square, long occupancy, boolean isDiagonal) {
+        return isDiagonal ? MagicBitboardUtils.getBishopAttacks(square, occupancy) : MagicBitboardUtils.getRookAttacks(square, occupancy);
+    }
+
+    public static long getKnightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long getKingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Gets the squares attacked by a pawn of the side (the diagonals in front of the pawn)
+     *
+     * @param side
+     * @param square
+     * @return
+     */
+    public static long getPawnAttacks(Side side, int square) {
+        return Side.BLACK.equals(side) ? BLACK_PAWN_ATTACKS[square] : WHITE_PAWN_ATTACKS[square];
+    }
+
+    /**
+     * Gets the squares attacked by the piece on the square
+     *
+     * @param pieceIndex - see {@link BitboardUtils#getPieceIndex}
+     * @param square
+     * @param occupancy - the pieces that block the sliding pieces
+     * @return
+     */
+    public static long getPieceAttacks(int pieceIndex, int square, long occupancy) {
+        return switch (pieceIndex % 6) {
+            case BitboardUtils.PAWN -> getPawnAttacks(pieceIndex < BitboardUtils.BLACK_PAWN ? Side.WHITE : Side.BLACK, square);
+            case BitboardUtils.KNIGHT -> KNIGHT_ATTACKS[square];
+            case BitboardUtils.BISHOP -> MagicBitboardUtils.getBishopAttacks(square, occupancy);
+            case BitboardUtils.ROOK -> MagicBitboardUtils.getRookAttacks(square, occupancy);
+            case BitboardUtils.QUEEN -> MagicBitboardUtils.getQueenAttacks(square, occupancy);
+            default -> KING_ATTACKS[square];
+        };
+    }
+
+    /**
+     * Gets the squares between the two squares (both excluded), empty if they are not on the same line / diagonal
+     *
+     * @param first
+     * @param second
+     * @return
+     */
+    public static long getBetween(int first, int second) {
+        return BETWEEN[first][second];
+    }
+
+    /**
+     * Gets the whole line / diagonal (from one edge of the board to the other) that contains the two squares, empty if they are not aligned
+     *
+     * @param first
+     * @param second
+     * @return
+     */
+    public static long getLine(int first, int second) {
+        return LINE[first][second];
+    }
+
+    /**
+     * Check if a knight can reach the target from the position, on an empty board
+     *
+     * @param from
+     * @param to
+     * @return
+     */
+    public static boolean isKnightAttacking(CasePosition from, CasePosition to) {
+        return (KNIGHT_ATTACKS[BitboardUtils.getSquare(from)] & BitboardUtils.getMask(to)) != 0;
+    }
+
+    /**
+     * Check if a king can reach the target from the position, on an empty board
+     *
+     * @param from
+     * @param to
+     * @return
+     */
+    public static boolean isKingAttacking(CasePosition from, CasePosition to) {
+        return (KING_ATTACKS[BitboardUtils.getSquare(from)] & BitboardUtils.getMask(to)) != 0;
+    }
+
+    /**
+     * Gets the pieces of the attacker side that attack the square
+     *
+     * @param square
+     * @param attackerSide
+     * @param gameBoardData
+     * @param occupancy - the pieces that can block the sliding pieces (usually {@link ReadOnlyGameBoardData#getOccupiedBitboard()})
+     * @return
+     */
+    public static long getAttackers(int square, Side attackerSide, ReadOnlyGameBoardData gameBoardData, long occupancy) {
+        int firstIndex = BitboardUtils.getFirstPieceIndex(attackerSide);
+        long queens = gameBoardData.getPieceBitboard(firstIndex + BitboardUtils.QUEEN);
+
+        // A pawn attacks the square if a pawn of the other side, on this square, would attack the pawn
+        return (getPawnAttacks(Side.getOtherPlayerSide(attackerSide), square) & gameBoardData.getPieceBitboard(firstIndex + BitboardUtils.PAWN)) |
+                (KNIGHT_ATTACKS[square] & gameBoardData.getPieceBitboard(firstIndex + BitboardUtils.KNIGHT)) |
+                (KING_ATTACKS[square] & gameBoardData.getPieceBitboard(firstIndex + BitboardUtils.KING)) |
+                (MagicBitboardUtils.getBishopAttacks(square, occupancy) & (gameBoardData.getPieceBitboard(firstIndex + BitboardUtils.BISHOP) | queens)) |
+                (MagicBitboardUtils.getRookAttacks(square, occupancy) & (gameBoardData.getPieceBitboard(firstIndex + BitboardUtils.ROOK) | queens));
+    }
+
+    /**
+     * Check if one or more pieces of the attacker side attack the square (see {@link ReadOnlyGameBoardData#getAttackers(int, Side)})
+     *
+     * @param square
+     * @param attackerSide
+     * @param gameBoardData
+     * @return
+     */
+    public static boolean isSquareAttacked(int square, Side attackerSide, ReadOnlyGameBoardData gameBoardData) {
+        return gameBoardData.getAttackers(square, attackerSide) != BitboardUtils.EMPTY;
+    }
+}
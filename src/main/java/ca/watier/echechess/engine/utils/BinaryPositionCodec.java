@@ -0,0 +1,206 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Pieces;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
+import ca.watier.echechess.engine.exceptions.FenParserException;
+import ca.watier.echechess.engine.game.FenPositionGameHandler;
+import ca.watier.echechess.engine.handlers.GameEventEvaluatorHandlerImpl;
+import ca.watier.echechess.engine.handlers.PlayerHandlerImpl;
+import ca.watier.echechess.engine.interfaces.GameEventEvaluatorHandler;
+import ca.watier.echechess.engine.interfaces.PlayerHandler;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Packs a position in {@link #ENCODED_SIZE} bytes
+ * <pre>
+ * bytes 0 - 7   : occupancy of the board (bit = square, see {@link BitboardUtils})
+ * bytes 8 - 23  : the piece index (see {@link BitboardUtils#getPieceIndex}) of each occupied square, 4 bits each, from a1 to h8
+ * byte 24       : castling rights that can still be used (bit 0 = white queen side, 1 = white king side, 2 = black queen side, 3 = black king side), bit 4 = black to move
+ * byte 25       : the file (1 to 8) of the pawn that made the hop on the last move, 0 when no pawn can take it en passant
+ * bytes 26 - 31 : total number of moves, white turn number and black turn number (unsigned, 2 bytes each)
+ * </pre>
+ * Like a FEN, the players, the history and the moved flags of the pieces (other than the castling) are not kept.
+ */
+public final class BinaryPositionCodec {
+
+    public static final int ENCODED_SIZE = 32;
+
+    private static final int MAX_NB_OF_PIECES = 32;
+    private static final int MAX_COUNTER_VALUE = 0xFFFF;
+    private static final int NO_EN_PASSANT = 0;
+    private static final int WHITE_QUEEN_CASTLING_FLAG = 1;
+    private static final int WHITE_KING_CASTLING_FLAG = 1 << 1;
+    private static final int BLACK_QUEEN_CASTLING_FLAG = 1 << 2;
+    private static final int BLACK_KING_CASTLING_FLAG = 1 << 3;
+    private static final int BLACK_TO_MOVE_FLAG = 1 << 4;
+
+    private BinaryPositionCodec() {
+    }
+
+    /**
+     * @param gameBoardData
+     * @return the position, in {@link #ENCODED_SIZE} bytes
+     * @throws IllegalArgumentException when there's more than 32 pieces on the board or a counter doesn't fit in 2 bytes
+     */
+    public static byte[] encode(ReadOnlyGameBoardData gameBoardData) {
+        long occupancy = gameBoardData.getOccupiedBitboard();
+
+        if (Long.bitCount(occupancy) > MAX_NB_OF_PIECES) {
+            throw new IllegalArgumentException("Unable to encode more than 32 pieces!");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_SIZE);
+        buffer.putLong(occupancy);
+
+        byte[] pieces = new byte[MAX_NB_OF_PIECES / 2];
+        int pieceNumber = 0;
+
+        for (long bitboard = occupancy; bitboard != BitboardUtils.EMPTY; bitboard &= bitboard - 1, pieceNumber++) {
+            int pieceIndex = BitboardUtils.getPieceIndex(gameBoardData.getPieceAt(Long.numberOfTrailingZeros(bitboard)));
+            pieces[pieceNumber >>> 1] |= (byte) ((pieceNumber & 1) == 0 ? pieceIndex << 4 : pieceIndex);
+        }
+
+        buffer.put(pieces);
+        buffer.put((byte) getFlags(gameBoardData));
+        buffer.put((byte) getEnPassantFile(gameBoardData));
+        buffer.putShort(toCounter(gameBoardData.getNbTotalMove()));
+        buffer.putShort(toCounter(gameBoardData.getWhiteTurnNumber()));
+        buffer.putShort(toCounter(gameBoardData.getBlackTurnNumber()));
+
+        return buffer.array();
+    }
+
+    public static FenPositionGameHandler decode(byte[] value) {
+        PieceMoveConstraintDelegate pieceDelegate = new PieceMoveConstraintDelegate();
+        PlayerHandler playerHandler = new PlayerHandlerImpl();
+        GameEventEvaluatorHandler gameEventEvaluatorHandler = new GameEventEvaluatorHandlerImpl();
+
+        return decode(value, pieceDelegate, playerHandler, gameEventEvaluatorHandler);
+    }
+
+    /**
+     * @param value - a position from {@link #encode(ReadOnlyGameBoardData)}
+     * @param pieceDelegate
+     * @param playerHandler
+     * @param gameEventEvaluatorHandler
+     * @return
+     * @throws IllegalArgumentException when the value is not a valid position
+     */
+    public static FenPositionGameHandler decode(byte[] value, PieceMoveConstraintDelegate pieceDelegate, PlayerHandler playerHandler, GameEventEvaluatorHandler gameEventEvaluatorHandler) {
+        if (value == null || value.length != ENCODED_SIZE) {
+            throw new IllegalArgumentException("The position must be " + ENCODED_SIZE + " bytes!");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        long occupancy = buffer.getLong();
+
+        if (Long.bitCount(occupancy) > MAX_NB_OF_PIECES) {
+            throw new IllegalArgumentException("Unable to decode more than 32 pieces!");
+        }
+
+        byte[] pieces = new byte[MAX_NB_OF_PIECES / 2];
+        buffer.get(pieces);
+
+        Map<CasePosition, Pieces> positions = new EnumMap<>(CasePosition.class);
+        int pieceNumber = 0;
+
+        for (long bitboard = occupancy; bitboard != BitboardUtils.EMPTY; bitboard &= bitboard - 1, pieceNumber++) {
+            int packed = pieces[pieceNumber >>> 1];
+            int pieceIndex = ((pieceNumber & 1) == 0 ? packed >>> 4 : packed) & 0xF;
+
+            if (pieceIndex >= BitboardUtils.NB_OF_PIECES) {
+                throw new IllegalArgumentException("Unknown piece index " + pieceIndex);
+            }
+
+            positions.put(BitboardUtils.getPosition(Long.numberOfTrailingZeros(bitboard)), BitboardUtils.getPiece(pieceIndex));
+        }
+
+        int flags = buffer.get();
+        int enPassantFile = buffer.get();
+        int totalMove = Short.toUnsignedInt(buffer.getShort());
+        int whiteTurnNumber = Short.toUnsignedInt(buffer.getShort());
+        int blackTurnNumber = Short.toUnsignedInt(buffer.getShort());
+        boolean isBlackToMove = (flags & BLACK_TO_MOVE_FLAG) != 0;
+
+        if (enPassantFile < NO_EN_PASSANT || enPassantFile > 8) {
+            throw new IllegalArgumentException("Invalid en passant file " + enPassantFile);
+        }
+
+        FenPositionGameHandler gameHandler = new FenPositionGameHandler(pieceDelegate, playerHandler, gameEventEvaluatorHandler);
+
+        try {
+            gameHandler.init(
+                    isBlackToMove ? 'B' : 'W',
+                    (flags & WHITE_QUEEN_CASTLING_FLAG) != 0,
+                    (flags & WHITE_KING_CASTLING_FLAG) != 0,
+                    (flags & BLACK_QUEEN_CASTLING_FLAG) != 0,
+                    (flags & BLACK_KING_CASTLING_FLAG) != 0
+            );
+            gameHandler.setMoveCounters(totalMove, whiteTurnNumber, blackTurnNumber);
+            gameHandler.setPieces(positions);
+
+            if (enPassantFile != NO_EN_PASSANT) {
+                // The target is the square behind the pawn that made the hop
+                int targetSquare = ((isBlackToMove ? 2 : 5) << 3) | (enPassantFile - 1);
+                gameHandler.setEnPassantTarget(BitboardUtils.getPosition(targetSquare));
+            }
+        } catch (FenParserException e) {
+            throw new IllegalArgumentException("No pawn to take en passant on the file " + enPassantFile, e);
+        }
+
+        return gameHandler;
+    }
+
+    /**
+     * Gets the castling rights that can still be used (see {@link MoveGenerator#getCastlingRights}, same bits) and the side to move;
+     * the flags of a king or a rook that moved and came back are not kept, the moved state being lost
+     */
+    private static int getFlags(ReadOnlyGameBoardData gameBoardData) {
+        int flags = MoveGenerator.getCastlingRights(gameBoardData);
+
+        if (Side.BLACK.equals(gameBoardData.getCurrentAllowedMoveSide())) {
+            flags |= BLACK_TO_MOVE_FLAG;
+        }
+
+        return flags;
+    }
+
+    /**
+     * Gets the file (1 to 8) of the enemy pawn that can be taken en passant (see {@link MoveGenerator#getEnPassantFile}),
+     * {@link #NO_EN_PASSANT} if none; a hop without an enemy pawn next to it is not kept, like in the Zobrist hash
+     */
+    private static int getEnPassantFile(ReadOnlyGameBoardData gameBoardData) {
+        int file = MoveGenerator.getEnPassantFile(gameBoardData);
+        return file == MoveGenerator.NO_EN_PASSANT_FILE ? NO_EN_PASSANT : file + 1;
+    }
+
+    private static short toCounter(int value) {
+        if (value < 0 || value > MAX_COUNTER_VALUE) {
+            throw new IllegalArgumentException("The counter " + value + " doesn't fit in 2 bytes!");
+        }
+
+        return (short) value;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Pieces;
+import ca.watier.echechess.common.enums.Side;
+
+/**
+ * Helpers to convert the {@link CasePosition} and {@link Pieces} into bitboard indexes.
+ * <p>
+ * The squares are indexed from A1 (0) to H8 (63), rank by rank.
+ */
+public final class BitboardUtils {
+
+    public static final int NB_OF_SQUARES = 64;
+    public static final int NB_OF_PIECES = 12;
+    public static final long EMPTY = 0L;
+
+    public static final int WHITE_PAWN = 0;
+    public static final int WHITE_KNIGHT = 1;
+    public static final int WHITE_BISHOP = 2;
+    public static final int WHITE_ROOK = 3;
+    public static final int WHITE_QUEEN = 4;
+    public static final int WHITE_KING = 5;
+    public static final int BLACK_PAWN = 6;
+    public static final int BLACK_KNIGHT = 7;
+    public static final int BLACK_BISHOP = 8;
+    public static final int BLACK_ROOK = 9;
+    public static final int BLACK_QUEEN = 10;
+    public static final int BLACK_KING = 11;
+
+    //The type of the pieces, the index of a piece is the first index of the side + the type
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    private static final CasePosition[] POSITION_BY_SQUARE = new CasePosition[NB_OF_SQUARES];
+    private static final int[] SQUARE_BY_ORDINAL = new int[CasePosition.values().length];
+    private static final Pieces[] PIECE_BY_INDEX = new Pieces[NB_OF_PIECES];
+    private static final int[] INDEX_BY_PIECE_ORDINAL = new int[Pieces.values().length];
+
+    static {
+        for (CasePosition position : CasePosition.values()) {
+            String name = position.name();
+            int file = name.charAt(0) - 'A';
+            int rank = name.charAt(1) - '1';
+            int square = (rank << 3) | file;
+
+            POSITION_BY_SQUARE[square] = position;
+            SQUARE_BY_ORDINAL[position.ordinal()] = square;
+        }
+
+        for (Pieces piece : Pieces.values()) {
+            int index = computePieceIndex(piece);
+            PIECE_BY_INDEX[index] = piece;
+            INDEX_BY_PIECE_ORDINAL[piece.ordinal()] = index;
+        }
+    }
+
+    private BitboardUtils() {
+    }
+
+    private static int computePieceIndex(Pieces piece) {
+        return switch (piece) {
+            case W_PAWN -> WHITE_PAWN;
+            case W_KNIGHT -> WHITE_KNIGHT;
+            case W_BISHOP -> WHITE_BISHOP;
+            case W_ROOK -> WHITE_ROOK;
+            case W_QUEEN -> WHITE_QUEEN;
+            case W_KING -> WHITE_KING;
+            case B_PAWN -> BLACK_PAWN;
+            case B_KNIGHT -> BLACK_KNIGHT;
+            case B_BISHOP -> BLACK_BISHOP;
+            case B_ROOK -> BLACK_ROOK;
+            case B_QUEEN -> BLACK_QUEEN;
+            case B_KING -> BLACK_KING;
+        };
+    }
+
+    /**
+     * Gets the square index (0 to 63) of the position
+     *
+     * @param position
+     * @return
+     */
+    public static int getSquare(CasePosition position) {
+        return SQUARE_BY_ORDINAL[position.ordinal()];
+    }
+
+    /**
+     * Gets the position of a square index (0 to 63)
+     *
+     * @param square
+     * @return
+     */
+    public static CasePosition getPosition(int square) {
+        return POSITION_BY_SQUARE[square];
+    }
+
+    /**
+     * Gets a bitboard with only the bit of the position set
+     *
+     * @param position
+     * @return
+     */
+    public static long getMask(CasePosition position) {
+        return 1L << getSquare(position);
+    }
+
+    /**
+     * Gets the index (0 to 11) of the piece in the bitboard array
+     *
+     * @param piece
+     * @return
+     */
+    public static int getPieceIndex(Pieces piece) {
+        return INDEX_BY_PIECE_ORDINAL[piece.ordinal()];
+    }
+
+    /**
+     * Gets the piece from the index (0 to 11) in the bitboard array
+     *
+     * @param index
+     * @return
+     */
+    public static Pieces getPiece(int index) {
+        return PIECE_BY_INDEX[index];
+    }
+
+    /**
+     * Gets the first index of the pieces of the side (the pieces of a side are contiguous in the bitboard array)
+     *
+     * @param side
+     * @return
+     */
+    public static int getFirstPieceIndex(Side side) {
+        return Side.BLACK.equals(side) ? BLACK_PAWN : WHITE_PAWN;
+    }
+
+    /**
+     * Gets the index (0 to 11) of the piece in the bitboard array
+     *
+     * @param side
+     * @param pieceType - {@link #PAWN} to {@link #KING}
+     * @return
+     */
+    public static int getPieceIndex(Side side, int pieceType) {
+        return getFirstPieceIndex(side) + pieceType;
+    }
+
+    public static int getFile(int square) {
+        return square & 7;
+    }
+
+    public static int getRank(int square) {
+        return square >>> 3;
+    }
+}
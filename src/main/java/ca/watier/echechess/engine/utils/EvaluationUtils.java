@@ -0,0 +1,214 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+
+/**
+ * Static evaluation of a position, in centipawns: the material and the piece-square tables, tapered between the
+ * middlegame and the endgame values with the game phase.
+ * <p>
+ * The terms are kept up to date by the board on each change of a piece (see {@link ReadOnlyGameBoardData#getMiddlegameScore()}),
+ * the evaluation is then read without scanning the board.
+ */
+public final class EvaluationUtils {
+
+    /**
+     * The phase of the starting position (and above), the phase is 0 when only the kings and the pawns are left
+     */
+    public static final int MAX_GAME_PHASE = 24;
+
+    // By piece type (see BitboardUtils), the king is never captured
+    private static final int[] PIECE_TYPE_VALUES = {100, 320, 330, 500, 900, 0};
+    private static final int[] PIECE_TYPE_PHASES = {0, 1, 1, 2, 4, 0};
+
+    // The tables are seen from the white side, the 8th rank first
+    private static final int[] PAWN_MIDDLEGAME_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] PAWN_ENDGAME_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            20, 20, 20, 20, 20, 20, 20, 20,
+            10, 10, 10, 10, 10, 10, 10, 10,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] ROOK_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+
+    // Stays behind the pawns in the middlegame, goes to the center in the endgame
+    private static final int[] KING_MIDDLEGAME_TABLE = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+
+    private static final int[] KING_ENDGAME_TABLE = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    // By piece index and square (see BitboardUtils), the material included; negative for the black pieces
+    private static final int[][] MIDDLEGAME_VALUES = createValues(PAWN_MIDDLEGAME_TABLE, KING_MIDDLEGAME_TABLE);
+    private static final int[][] ENDGAME_VALUES = createValues(PAWN_ENDGAME_TABLE, KING_ENDGAME_TABLE);
+
+    private EvaluationUtils() {
+    }
+
+    private static int[][] createValues(int[] pawnTable, int[] kingTable) {
+        int[][] tables = {pawnTable, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE, kingTable};
+        int[][] values = new int[BitboardUtils.NB_OF_PIECES][BitboardUtils.NB_OF_SQUARES];
+
+        for (int pieceType = BitboardUtils.PAWN; pieceType <= BitboardUtils.KING; pieceType++) {
+            for (int square = 0; square < BitboardUtils.NB_OF_SQUARES; square++) {
+                // The black pieces use the table mirrored vertically
+                values[BitboardUtils.WHITE_PAWN + pieceType][square] = PIECE_TYPE_VALUES[pieceType] + tables[pieceType][square ^ 56];
+                values[BitboardUtils.BLACK_PAWN + pieceType][square] = -(PIECE_TYPE_VALUES[pieceType] + tables[pieceType][square]);
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * @param pieceIndex - see {@link BitboardUtils#getPieceIndex}
+     * @return the value of the piece, in centipawns
+     */
+    public static int getPieceValue(int pieceIndex) {
+        return PIECE_TYPE_VALUES[pieceIndex % 6];
+    }
+
+    /**
+     * Gets the middlegame value of the piece on the square (material and position), from the white side (negative for the black pieces)
+     *
+     * @param pieceIndex - see {@link BitboardUtils#getPieceIndex}
+     * @param square
+     * @return
+     */
+    public static int getMiddlegameValue(int pieceIndex, int square) {
+        return MIDDLEGAME_VALUES[pieceIndex][square];
+    }
+
+    /**
+     * Gets the endgame value of the piece on the square (material and position), from the white side (negative for the black pieces)
+     *
+     * @param pieceIndex - see {@link BitboardUtils#getPieceIndex}
+     * @param square
+     * @return
+     */
+    public static int getEndgameValue(int pieceIndex, int square) {
+        return ENDGAME_VALUES[pieceIndex][square];
+    }
+
+    /**
+     * @param pieceIndex - see {@link BitboardUtils#getPieceIndex}
+     * @return the weight of the piece in the game phase (see {@link #MAX_GAME_PHASE})
+     */
+    public static int getPhaseWeight(int pieceIndex) {
+        return PIECE_TYPE_PHASES[pieceIndex % 6];
+    }
+
+    /**
+     * Evaluates the position from the white side (positive when white is ahead)
+     *
+     * @param gameBoardData
+     * @return
+     */
+    public static int getScore(ReadOnlyGameBoardData gameBoardData) {
+        // The promotions can bring the phase above the starting one
+        int phase = Math.min(gameBoardData.getGamePhase(), MAX_GAME_PHASE);
+
+        return (gameBoardData.getMiddlegameScore() * phase + gameBoardData.getEndgameScore() * (MAX_GAME_PHASE - phase)) / MAX_GAME_PHASE;
+    }
+
+    /**
+     * Evaluates the position from the point of view of the side to move (positive when the side is ahead)
+     *
+     * @param gameBoardData
+     * @return
+     */
+    public static int evaluate(ReadOnlyGameBoardData gameBoardData) {
+        int score = getScore(gameBoardData);
+
+        return Side.BLACK.equals(gameBoardData.getCurrentAllowedMoveSide()) ? -score : score;
+    }
+}
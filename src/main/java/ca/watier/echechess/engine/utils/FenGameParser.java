@@ -1,5 +1,6 @@
 package ca.watier.echechess.engine.utils;
 
+import ca.watier.echechess.common.enums.CasePosition;
 import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
 import ca.watier.echechess.engine.exceptions.FenParserException;
 import ca.watier.echechess.engine.game.FenPositionGameHandler;
@@ -18,7 +19,8 @@ import java.util.regex.Pattern;
 
 public final class FenGameParser {
     //language=regexp
-    private static final String VALID_FEN_PATTERN = "(?i)^(([rqkbnp]|[1-8]){1,8}/){7}(([rqkbnp]|[1-8]){1,8}) [w|b]( [kq]{1,4})*$";
+    private static final String VALID_FEN_PATTERN = "(?i)^(([rqkbnp]|[1-8]){1,8}/){7}(([rqkbnp]|[1-8]){1,8}) [w|b]( ([kq]{1,4}|-)( ([a-h][36]|-)( \\d+ \\d+)?)?)?$";
+    private static final String NO_VALUE = "-";
     //language=regexp
     private static final String FEN_SECTION_SEPARATOR = " ((?i)[wb]) *";
     private static final Pattern FEN_SECTION_SEPARATOR_MATCHER = Pattern.compile(FEN_SECTION_SEPARATOR);
@@ -51,7 +53,7 @@ public final class FenGameParser {
         if (matcher.find()) {
             char sideToPlay = StringUtils.trim(matcher.group(0)).charAt(0);
 
-            String[] sections = fen.split(FEN_SECTION_SEPARATOR);
+            String[] sections = fen.split(FEN_SECTION_SEPARATOR, 2);
 
             if (ArrayUtils.isEmpty(sections)) {
                 throw new FenParserException();
@@ -61,6 +63,7 @@ public final class FenGameParser {
             boolean isWhiteKingMoveAvail = false;
             boolean isBlackQueenMoveAvail = false;
             boolean isBlackKingMoveAvail = false;
+            String rawEnPassantTarget = NO_VALUE;
 
             if (sections.length == 2) { //Castling flags
 
@@ -84,6 +87,11 @@ public final class FenGameParser {
                         }
                     }
                 }
+
+                // The half-move clock and the full-move number are not tracked by the engine
+                if (!endingSectionStack.isEmpty()) {
+                    rawEnPassantTarget = endingSectionStack.pop();
+                }
             }
 
             fenPositionGameHandler.init(
@@ -96,6 +104,10 @@ public final class FenGameParser {
 
             String rawBoard = StringUtils.trim(sections[0]);
             fenPositionGameHandler.setPieces(rawBoard.split("/"));
+
+            if (!NO_VALUE.equals(rawEnPassantTarget)) {
+                fenPositionGameHandler.setEnPassantTarget(CasePosition.valueOf(rawEnPassantTarget.toUpperCase()));
+            }
         } else {
             throw new FenParserException();
         }
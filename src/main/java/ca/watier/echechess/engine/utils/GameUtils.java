@@ -20,7 +20,7 @@ import ca.watier.echechess.common.enums.CasePosition;
 import ca.watier.echechess.common.enums.Direction;
 import ca.watier.echechess.common.enums.Pieces;
 import ca.watier.echechess.common.utils.MathUtils;
-import ca.watier.echechess.engine.abstracts.GameBoardData;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
 import ca.watier.echechess.engine.models.DistancePiecePositionModel;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.ObjectUtils;
@@ -196,7 +196,7 @@ public final class GameUtils {
      * @param gameBoard
      * @return
      */
-    public static boolean isDefaultPosition(CasePosition position, Pieces pieces, GameBoardData gameBoard) {
+    public static boolean isDefaultPosition(CasePosition position, Pieces pieces, ReadOnlyGameBoardData gameBoard) {
         if (position == null || pieces == null || gameBoard == null) {
             return false;
         }
@@ -0,0 +1,160 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.Pieces;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+import ca.watier.echechess.engine.models.LegalityMasksModel;
+
+import static ca.watier.echechess.engine.utils.BitboardUtils.*;
+
+/**
+ * Checks if a move leaves the king in check, without playing it.
+ * <p>
+ * The pinned pieces and the check mask are computed once per position ({@link #getMasks(Side, ReadOnlyGameBoardData)}); a
+ * move is then legal when:
+ * <ul>
+ *     <li>King: the target is not attacked once the king left its square</li>
+ *     <li>Pinned piece: the target stays on the line between the king and the pinning piece</li>
+ *     <li>Any piece: the target is in the check mask (capture the checker or block it)</li>
+ * </ul>
+ * The en passant and the castling (they move two pieces) are checked with the occupancy of the board after the move;
+ * the board is never modified.
+ */
+public final class LegalityUtils {
+
+    private static final int NO_KING = -1;
+
+    private LegalityUtils() {
+    }
+
+    public static LegalityMasksModel getMasks(Side side, ReadOnlyGameBoardData gameBoardData) {
+        int kingSquare = gameBoardData.getKingSquare(side);
+
+        if (kingSquare == NO_KING) {
+            return new LegalityMasksModel(NO_KING, EMPTY, ~EMPTY, EMPTY);
+        }
+
+        Side otherSide = Side.getOtherPlayerSide(side);
+        int enemyFirstIndex = getFirstPieceIndex(otherSide);
+        long occupied = gameBoardData.getOccupiedBitboard();
+        long own = gameBoardData.getSideBitboard(side);
+        long enemyQueens = gameBoardData.getPieceBitboard(enemyFirstIndex + QUEEN);
+
+        long checkers = gameBoardData.getAttackers(kingSquare, otherSide);
+
+        long checkMask;
+        if (checkers == EMPTY) {
+            checkMask = ~EMPTY;
+        } else if (Long.bitCount(checkers) == 1) {
+            checkMask = checkers | AttackUtils.getBetween(kingSquare, Long.numberOfTrailingZeros(checkers));
+        } else { // Double check, only the king can move
+            checkMask = EMPTY;
+        }
+
+        // The enemy sliding pieces that would attack the king on an empty board
+        long snipers = (MagicBitboardUtils.getRookAttacks(kingSquare, EMPTY) & (gameBoardData.getPieceBitboard(enemyFirstIndex + ROOK) | enemyQueens)) |
+                (MagicBitboardUtils.getBishopAttacks(kingSquare, EMPTY) & (gameBoardData.getPieceBitboard(enemyFirstIndex + BISHOP) | enemyQueens));
+
+        long pinned = EMPTY;
+        while (snipers != EMPTY) {
+            int sniperSquare = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+
+            long blockers = AttackUtils.getBetween(kingSquare, sniperSquare) & occupied;
+
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & own;
+            }
+        }
+
+        return new LegalityMasksModel(kingSquare, checkers, checkMask, pinned);
+    }
+
+    /**
+     * Check if the move of the piece (already valid for the piece) keeps the king of the piece safe
+     *
+     * @param masks - the masks of the side of the piece
+     * @param from
+     * @param to
+     * @param gameBoardData
+     * @return
+     */
+    public static boolean isLegal(LegalityMasksModel masks, int from, int to, ReadOnlyGameBoardData gameBoardData) {
+        int kingSquare = masks.getKingSquare();
+
+        if (kingSquare == NO_KING) {
+            return true;
+        }
+
+        Pieces piece = gameBoardData.getPieceAt(from);
+
+        if (piece == null) {
+            return true;
+        }
+
+        Side side = piece.getSide();
+        Side otherSide = Side.getOtherPlayerSide(side);
+        Pieces target = gameBoardData.getPieceAt(to);
+
+        if (from == kingSquare) {
+            if (target != null && Pieces.isRook(target) && Pieces.isSameSide(piece, target)) {
+                return isCastlingSafe(from, to, otherSide, gameBoardData);
+            }
+
+            long occupiedWithoutKing = gameBoardData.getOccupiedBitboard() & ~(1L << kingSquare);
+            return AttackUtils.getAttackers(to, otherSide, gameBoardData, occupiedWithoutKing) == EMPTY;
+        }
+
+        if (Pieces.isPawn(piece) && target == null && getFile(from) != getFile(to)) {
+            return isEnPassantSafe(kingSquare, from, to, otherSide, gameBoardData);
+        }
+
+        long toMask = 1L << to;
+
+        if ((masks.getCheckMask() & toMask) == 0) {
+            return false;
+        }
+
+        return (masks.getPinned() & (1L << from)) == 0 || (AttackUtils.getLine(kingSquare, from) & toMask) != 0;
+    }
+
+    /**
+     * The king moves two squares toward the rook and the rook jumps over the king
+     */
+    private static boolean isCastlingSafe(int kingSquare, int rookSquare, Side otherSide, ReadOnlyGameBoardData gameBoardData) {
+        int step = rookSquare > kingSquare ? 1 : -1;
+        int kingTarget = kingSquare + (2 * step);
+        int rookTarget = kingSquare + step;
+
+        long occupied = (gameBoardData.getOccupiedBitboard() & ~((1L << kingSquare) | (1L << rookSquare))) |
+                (1L << kingTarget) | (1L << rookTarget);
+
+        return AttackUtils.getAttackers(kingTarget, otherSide, gameBoardData, occupied) == EMPTY;
+    }
+
+    /**
+     * Both pawns leave the rank of the king, this can uncover a slider on the rank (or the diagonal of the captured pawn)
+     */
+    private static boolean isEnPassantSafe(int kingSquare, int from, int to, Side otherSide, ReadOnlyGameBoardData gameBoardData) {
+        long capturedMask = 1L << ((getRank(from) << 3) | getFile(to));
+        long occupied = (gameBoardData.getOccupiedBitboard() & ~((1L << from) | capturedMask)) | (1L << to);
+
+        return (AttackUtils.getAttackers(kingSquare, otherSide, gameBoardData, occupied) & ~capturedMask) == EMPTY;
+    }
+}
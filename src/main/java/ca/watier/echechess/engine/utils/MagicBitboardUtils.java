@@ -0,0 +1,188 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.utils;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Sliding pieces attacks (bishop, rook and queen) with magic bitboards.
+ * <p>
+ * For each square, the relevant occupancy (the rays without the board edges) is multiplied by a magic number and
+ * shifted to get the index of the attack bitboard in a precomputed table. The magic numbers are searched once, when
+ * the class is loaded, with a fixed seed.
+ */
+public final class MagicBitboardUtils {
+
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] ROOK_MASKS = new long[BitboardUtils.NB_OF_SQUARES];
+    private static final long[] ROOK_MAGICS = new long[BitboardUtils.NB_OF_SQUARES];
+    private static final int[] ROOK_SHIFTS = new int[BitboardUtils.NB_OF_SQUARES];
+    private static final long[][] ROOK_ATTACKS = new long[BitboardUtils.NB_OF_SQUARES][];
+
+    private static final long[] BISHOP_MASKS = new long[BitboardUtils.NB_OF_SQUARES];
+    private static final long[] BISHOP_MAGICS = new long[BitboardUtils.NB_OF_SQUARES];
+    private static final int[] BISHOP_SHIFTS = new int[BitboardUtils.NB_OF_SQUARES];
+    private static final long[][] BISHOP_ATTACKS = new long[BitboardUtils.NB_OF_SQUARES][];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        for (int square = 0; square < BitboardUtils.NB_OF_SQUARES; square++) {
+            initSquare(square, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_ATTACKS, random);
+            initSquare(square, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_ATTACKS, random);
+        }
+    }
+
+    private MagicBitboardUtils() {
+    }
+
+    private static void initSquare(int square, int[][] directions, long[] masks, long[] magics, int[] shifts, long[][] attacks, SplittableRandom random) {
+        long mask = getRelevantOccupancyMask(square, directions);
+        int nbOfBits = Long.bitCount(mask);
+        int nbOfOccupancies = 1 << nbOfBits;
+
+        long[] occupancies = new long[nbOfOccupancies];
+        long[] references = new long[nbOfOccupancies];
+
+        long subset = BitboardUtils.EMPTY;
+        for (int i = 0; i < nbOfOccupancies; i++) { // Carry-Rippler, enumerate all the subsets of the mask
+            occupancies[i] = subset;
+            references[i] = getSlidingAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        int shift = Long.SIZE - nbOfBits;
+        long[] table = new long[nbOfOccupancies];
+        boolean[] used = new boolean[nbOfOccupancies];
+
+        long magic;
+        boolean isValid;
+        do {
+            magic = random.nextLong() & random.nextLong() & random.nextLong(); // Few bits set, give better candidates
+
+            if (Long.bitCount((mask * magic) >>> 56) < 6) {
+                isValid = false;
+                continue;
+            }
+
+            Arrays.fill(used, false);
+            isValid = true;
+
+            for (int i = 0; i < nbOfOccupancies && isValid; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> shift);
+
+                if (!used[index]) {
+                    used[index] = true;
+                    table[index] = references[i];
+                } else if (table[index] != references[i]) {
+                    isValid = false;
+                }
+            }
+        } while (!isValid);
+
+        masks[square] = mask;
+        magics[square] = magic;
+        shifts[square] = shift;
+        attacks[square] = table;
+    }
+
+    private static long getRelevantOccupancyMask(int square, int[][] directions) {
+        long mask = BitboardUtils.EMPTY;
+        int file = BitboardUtils.getFile(square);
+        int rank = BitboardUtils.getRank(square);
+
+        for (int[] direction : directions) {
+            int currentFile = file + direction[0];
+            int currentRank = rank + direction[1];
+
+            // The last square of a ray is never blocking anything
+            while (isOnBoard(currentFile + direction[0], currentRank + direction[1])) {
+                mask |= 1L << ((currentRank << 3) | currentFile);
+                currentFile += direction[0];
+                currentRank += direction[1];
+            }
+        }
+
+        return mask;
+    }
+
+    private static long getSlidingAttacks(int square, long occupancy, int[][] directions) {
+        long attacks = BitboardUtils.EMPTY;
+        int file = BitboardUtils.getFile(square);
+        int rank = BitboardUtils.getRank(square);
+
+        for (int[] direction : directions) {
+            int currentFile = file + direction[0];
+            int currentRank = rank + direction[1];
+
+            while (isOnBoard(currentFile, currentRank)) {
+                long bit = 1L << ((currentRank << 3) | currentFile);
+                attacks |= bit;
+
+                if ((occupancy & bit) != 0) {
+                    break;
+                }
+
+                currentFile += direction[0];
+                currentRank += direction[1];
+            }
+        }
+
+        return attacks;
+    }
+
+    private static boolean isOnBoard(int file, int rank) {
+        return file >= 0 && file < 8 && rank >= 0 && rank < 8;
+    }
+
+    /**
+     * Gets the squares attacked by a rook, the first piece found in each direction is included
+     *
+     * @param square
+     * @param occupancy - all the pieces on the board
+     * @return
+     */
+    public static long getRookAttacks(int square, long occupancy) {
+        return ROOK_ATTACKS[square][(int) (((occupancy & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    /**
+     * Gets the squares attacked by a bishop, the first piece found in each direction is included
+     *
+     * @param square
+     * @param occupancy - all the pieces on the board
+     * @return
+     */
+    public static long getBishopAttacks(int square, long occupancy) {
+        return BISHOP_ATTACKS[square][(int) (((occupancy & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    /**
+     * Gets the squares attacked by a queen, the first piece found in each direction is included
+     *
+     * @param square
+     * @param occupancy - all the pieces on the board
+     * @return
+     */
+    public static long getQueenAttacks(int square, long occupancy) {
+        return getRookAttacks(square, occupancy) | getBishopAttacks(square, occupancy);
+    }
+}
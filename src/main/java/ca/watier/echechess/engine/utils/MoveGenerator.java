@@ -0,0 +1,368 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Pieces;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+import ca.watier.echechess.engine.models.LegalityMasksModel;
+import ca.watier.echechess.engine.models.MoveList;
+import org.apache.commons.lang3.ObjectUtils;
+
+import static ca.watier.echechess.engine.utils.BitboardUtils.*;
+
+/**
+ * Generates all the legal moves of a side in one pass, with the same rules as the
+ * {@link ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate}:
+ * <ul>
+ *     <li>The pawn hop is allowed when the pawn is on its default position, on the second rank</li>
+ *     <li>The en passant is allowed on the pawn that made the hop on the last move</li>
+ *     <li>The castling is the king moving to the rook position</li>
+ *     <li>The promotions are generated for the queen, rook, bishop and knight</li>
+ * </ul>
+ * The moves are encoded with {@link MoveUtils}, with the moved and the captured piece.
+ */
+public final class MoveGenerator {
+
+    public static final int WHITE_QUEEN_CASTLING_RIGHT = 1;
+    public static final int WHITE_KING_CASTLING_RIGHT = 1 << 1;
+    public static final int BLACK_QUEEN_CASTLING_RIGHT = 1 << 2;
+    public static final int BLACK_KING_CASTLING_RIGHT = 1 << 3;
+    public static final int NO_EN_PASSANT_FILE = -1;
+
+    private static final int WHITE_KING_SQUARE = 4; // E1
+    private static final int BLACK_KING_SQUARE = 60; // E8
+    private static final int[] PROMOTION_PIECE_TYPES = {QUEEN, ROOK, BISHOP, KNIGHT};
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Gets the castling rights that can still be used; the flags of the board are only removed when castling, a right
+     * also needs the king and the rook on their default squares, both never moved
+     *
+     * @param gameBoardData
+     * @return one bit per castling ({@link #WHITE_QUEEN_CASTLING_RIGHT}, {@link #WHITE_KING_CASTLING_RIGHT}, {@link #BLACK_QUEEN_CASTLING_RIGHT}, {@link #BLACK_KING_CASTLING_RIGHT})
+     */
+    public static int getCastlingRights(ReadOnlyGameBoardData gameBoardData) {
+        int rights = 0;
+
+        if (gameBoardData.isWhiteQueenCastlingAvailable() && hasCastlingPieces(gameBoardData, WHITE_KING, WHITE_KING_SQUARE, WHITE_KING_SQUARE - 4)) {
+            rights |= WHITE_QUEEN_CASTLING_RIGHT;
+        }
+
+        if (gameBoardData.isWhiteKingCastlingAvailable() && hasCastlingPieces(gameBoardData, WHITE_KING, WHITE_KING_SQUARE, WHITE_KING_SQUARE + 3)) {
+            rights |= WHITE_KING_CASTLING_RIGHT;
+        }
+
+        if (gameBoardData.isBlackQueenCastlingAvailable() && hasCastlingPieces(gameBoardData, BLACK_KING, BLACK_KING_SQUARE, BLACK_KING_SQUARE - 4)) {
+            rights |= BLACK_QUEEN_CASTLING_RIGHT;
+        }
+
+        if (gameBoardData.isBlackKingCastlingAvailable() && hasCastlingPieces(gameBoardData, BLACK_KING, BLACK_KING_SQUARE, BLACK_KING_SQUARE + 3)) {
+            rights |= BLACK_KING_CASTLING_RIGHT;
+        }
+
+        return rights;
+    }
+
+    private static boolean hasCastlingPieces(ReadOnlyGameBoardData gameBoardData, int kingIndex, int kingSquare, int rookSquare) {
+        return (gameBoardData.getPieceBitboard(kingIndex) & (1L << kingSquare)) != 0 &&
+                (gameBoardData.getPieceBitboard(kingIndex - KING + ROOK) & (1L << rookSquare)) != 0 &&
+                !gameBoardData.isPieceMoved(getPosition(kingSquare)) &&
+                !gameBoardData.isPieceMoved(getPosition(rookSquare));
+    }
+
+    /**
+     * Gets the file of the enemy pawn that a pawn of the side to move can take en passant; like the generated moves,
+     * the pins are not checked
+     *
+     * @param gameBoardData
+     * @return the file (0 to 7), {@link #NO_EN_PASSANT_FILE} if there's no en passant capture
+     */
+    public static int getEnPassantFile(ReadOnlyGameBoardData gameBoardData) {
+        Side side = gameBoardData.getCurrentAllowedMoveSide();
+
+        if (!Side.WHITE.equals(side) && !Side.BLACK.equals(side)) {
+            return NO_EN_PASSANT_FILE;
+        }
+
+        boolean isWhite = Side.WHITE.equals(side);
+        long rankMask = 0xFFL << ((isWhite ? 4 : 3) << 3);
+        long pawns = gameBoardData.getPieceBitboard(getPieceIndex(side, PAWN)) & rankMask;
+
+        if (pawns == EMPTY) {
+            return NO_EN_PASSANT_FILE;
+        }
+
+        // The enemy pawns next to a pawn of the side, on the same rank
+        long enemyPawns = gameBoardData.getPieceBitboard(getPieceIndex(Side.getOtherPlayerSide(side), PAWN)) &
+                (((pawns << 1) | (pawns >>> 1)) & rankMask);
+        long occupied = gameBoardData.getOccupiedBitboard();
+        int forward = isWhite ? 8 : -8;
+
+        for (; enemyPawns != EMPTY; enemyPawns &= enemyPawns - 1) {
+            int square = Long.numberOfTrailingZeros(enemyPawns);
+
+            if ((occupied & (1L << (square + forward))) == 0 && isPawnHopOnLastMove(gameBoardData, square)) {
+                return getFile(square);
+            }
+        }
+
+        return NO_EN_PASSANT_FILE;
+    }
+
+    /**
+     * Generates the legal moves of the side, the list is cleared before
+     *
+     * @param side
+     * @param gameBoardData
+     * @param moves
+     * @return the number of moves
+     */
+    public static int generateLegalMoves(Side side, ReadOnlyGameBoardData gameBoardData, MoveList moves) {
+        if (ObjectUtils.anyNull(side, gameBoardData, moves)) {
+            return 0;
+        }
+
+        moves.clear();
+
+        if (Side.OBSERVER.equals(side)) {
+            return 0;
+        }
+
+        generatePseudoLegalMoves(side, gameBoardData, moves);
+
+        LegalityMasksModel masks = LegalityUtils.getMasks(side, gameBoardData);
+        int nbOfLegalMoves = 0;
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+
+            // The castling is already validated when generated
+            if (MoveUtils.getFlag(move) == MoveUtils.FLAG_CASTLING ||
+                    LegalityUtils.isLegal(masks, MoveUtils.getFrom(move), MoveUtils.getTo(move), gameBoardData)) {
+                moves.set(nbOfLegalMoves++, move);
+            }
+        }
+
+        moves.truncate(nbOfLegalMoves);
+        return nbOfLegalMoves;
+    }
+
+    /**
+     * Check if the side has at least one legal move; stops on the first legal move found
+     *
+     * @param side
+     * @param gameBoardData
+     * @return
+     */
+    public static boolean hasLegalMove(Side side, ReadOnlyGameBoardData gameBoardData) {
+        if (ObjectUtils.anyNull(side, gameBoardData) || Side.OBSERVER.equals(side)) {
+            return false;
+        }
+
+        MoveList moves = MoveListPool.acquire();
+        try {
+            generatePseudoLegalMoves(side, gameBoardData, moves);
+
+            LegalityMasksModel masks = LegalityUtils.getMasks(side, gameBoardData);
+
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+
+                if (MoveUtils.getFlag(move) == MoveUtils.FLAG_CASTLING ||
+                        LegalityUtils.isLegal(masks, MoveUtils.getFrom(move), MoveUtils.getTo(move), gameBoardData)) {
+                    return true;
+                }
+            }
+
+            return false;
+        } finally {
+            MoveListPool.release(moves);
+        }
+    }
+
+    private static void generatePseudoLegalMoves(Side side, ReadOnlyGameBoardData gameBoardData, MoveList moves) {
+        Side otherSide = Side.getOtherPlayerSide(side);
+        long own = gameBoardData.getSideBitboard(side);
+        long enemy = gameBoardData.getSideBitboard(otherSide);
+        long occupied = own | enemy;
+        long targets = ~own;
+        int firstIndex = getFirstPieceIndex(side);
+
+        generatePawnMoves(side, gameBoardData, firstIndex, enemy, occupied, moves);
+        generatePieceMoves(gameBoardData, firstIndex, KNIGHT, targets, enemy, occupied, moves);
+        generatePieceMoves(gameBoardData, firstIndex, BISHOP, targets, enemy, occupied, moves);
+        generatePieceMoves(gameBoardData, firstIndex, ROOK, targets, enemy, occupied, moves);
+        generatePieceMoves(gameBoardData, firstIndex, QUEEN, targets, enemy, occupied, moves);
+        generatePieceMoves(gameBoardData, firstIndex, KING, targets, enemy, occupied, moves);
+        generateCastlingMoves(side, otherSide, gameBoardData, firstIndex, occupied, moves);
+    }
+
+    private static void generatePieceMoves(ReadOnlyGameBoardData gameBoardData, int firstIndex, int pieceType, long targets, long enemy, long occupied, MoveList moves) {
+        int pieceIndex = firstIndex + pieceType;
+        long pieces = gameBoardData.getPieceBitboard(pieceIndex);
+
+        while (pieces != EMPTY) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+
+            long attacks = AttackUtils.getPieceAttacks(pieceIndex, from, occupied);
+            addMoves(gameBoardData, from, pieceIndex, attacks & targets, enemy, moves);
+        }
+    }
+
+    private static void addMoves(ReadOnlyGameBoardData gameBoardData, int from, int pieceIndex, long targets, long enemy, MoveList moves) {
+        while (targets != EMPTY) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+
+            moves.add(MoveUtils.encode(from, to, MoveUtils.FLAG_NORMAL, pieceIndex, getCapturedPieceIndex(gameBoardData, to, enemy)));
+        }
+    }
+
+    private static int getCapturedPieceIndex(ReadOnlyGameBoardData gameBoardData, int square, long enemy) {
+        if ((enemy & (1L << square)) == 0) {
+            return MoveUtils.NO_PIECE;
+        }
+
+        return getPieceIndex(gameBoardData.getPieceAt(square));
+    }
+
+    private static void generatePawnMoves(Side side, ReadOnlyGameBoardData gameBoardData, int firstIndex, long enemy, long occupied, MoveList moves) {
+        boolean isWhite = Side.WHITE.equals(side);
+        int forward = isWhite ? 8 : -8;
+        int lastRank = isWhite ? 7 : 0;
+        int hopRank = isWhite ? 1 : 6;
+        int enPassantRank = isWhite ? 4 : 3;
+        Pieces pawn = getPiece(firstIndex + PAWN);
+        int enemyPawnIndex = getPieceIndex(Side.getOtherPlayerSide(side), PAWN);
+        long enemyPawns = gameBoardData.getPieceBitboard(enemyPawnIndex);
+
+        long pawns = gameBoardData.getPieceBitboard(firstIndex + PAWN);
+        while (pawns != EMPTY) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+
+            int to = from + forward;
+            if (to < 0 || to >= NB_OF_SQUARES) { // Pawn on the last rank, cannot move
+                continue;
+            }
+
+            if ((occupied & (1L << to)) == 0) {
+                addPawnMove(from, to, lastRank, firstIndex, MoveUtils.NO_PIECE, moves);
+
+                int hopTo = to + forward;
+                if (getRank(from) == hopRank && (occupied & (1L << hopTo)) == 0 &&
+                        gameBoardData.isDefaultPosition(getPosition(from), pawn)) {
+                    moves.add(MoveUtils.encode(from, hopTo, MoveUtils.FLAG_PAWN_HOP, firstIndex + PAWN, MoveUtils.NO_PIECE));
+                }
+            }
+
+            long captures = AttackUtils.getPawnAttacks(side, from) & enemy;
+            while (captures != EMPTY) {
+                int captureTo = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+
+                addPawnMove(from, captureTo, lastRank, firstIndex, getCapturedPieceIndex(gameBoardData, captureTo, enemy), moves);
+            }
+
+            if (getRank(from) == enPassantRank) {
+                generateEnPassantMove(gameBoardData, from, from - 1, forward, firstIndex + PAWN, enemyPawnIndex, enemyPawns, occupied, moves);
+                generateEnPassantMove(gameBoardData, from, from + 1, forward, firstIndex + PAWN, enemyPawnIndex, enemyPawns, occupied, moves);
+            }
+        }
+    }
+
+    private static void addPawnMove(int from, int to, int lastRank, int firstIndex, int capturedPieceIndex, MoveList moves) {
+        if (getRank(to) == lastRank) {
+            for (int pieceType : PROMOTION_PIECE_TYPES) {
+                moves.add(MoveUtils.encodePromotion(from, to, firstIndex + pieceType, firstIndex + PAWN, capturedPieceIndex));
+            }
+        } else {
+            moves.add(MoveUtils.encode(from, to, MoveUtils.FLAG_NORMAL, firstIndex + PAWN, capturedPieceIndex));
+        }
+    }
+
+    private static void generateEnPassantMove(ReadOnlyGameBoardData gameBoardData, int from, int enemyPawnSquare, int forward, int pawnIndex, int enemyPawnIndex, long enemyPawns, long occupied, MoveList moves) {
+        if (Math.abs(getFile(from) - getFile(enemyPawnSquare)) != 1 || (enemyPawns & (1L << enemyPawnSquare)) == 0) {
+            return;
+        }
+
+        int to = enemyPawnSquare + forward;
+        if ((occupied & (1L << to)) != 0) {
+            return;
+        }
+
+        if (isPawnHopOnLastMove(gameBoardData, enemyPawnSquare)) {
+            moves.add(MoveUtils.encode(from, to, MoveUtils.FLAG_EN_PASSANT, pawnIndex, enemyPawnIndex));
+        }
+    }
+
+    private static boolean isPawnHopOnLastMove(ReadOnlyGameBoardData gameBoardData, int square) {
+        CasePosition position = getPosition(square);
+        Integer pawnTurn = gameBoardData.getPieceTurn(position);
+
+        return pawnTurn != null && gameBoardData.isPawnUsedSpecialMove(position) && gameBoardData.getNbTotalMove() - pawnTurn == 1;
+    }
+
+    private static void generateCastlingMoves(Side side, Side otherSide, ReadOnlyGameBoardData gameBoardData, int firstIndex, long occupied, MoveList moves) {
+        boolean isWhite = Side.WHITE.equals(side);
+        boolean isKingSideAvailable = isWhite ? gameBoardData.isWhiteKingCastlingAvailable() : gameBoardData.isBlackKingCastlingAvailable();
+        boolean isQueenSideAvailable = isWhite ? gameBoardData.isWhiteQueenCastlingAvailable() : gameBoardData.isBlackQueenCastlingAvailable();
+
+        if (!isKingSideAvailable && !isQueenSideAvailable) {
+            return;
+        }
+
+        int kingSquare = isWhite ? WHITE_KING_SQUARE : BLACK_KING_SQUARE;
+
+        if (gameBoardData.getKingSquare(side) != kingSquare ||
+                gameBoardData.isPieceMoved(getPosition(kingSquare)) ||
+                AttackUtils.isSquareAttacked(kingSquare, otherSide, gameBoardData)) {
+            return;
+        }
+
+        long rooks = gameBoardData.getPieceBitboard(firstIndex + ROOK);
+
+        if (isKingSideAvailable && isCastlingValid(gameBoardData, otherSide, rooks, occupied, kingSquare, kingSquare + 3, 1)) {
+            moves.add(MoveUtils.encode(kingSquare, kingSquare + 3, MoveUtils.FLAG_CASTLING, firstIndex + KING, MoveUtils.NO_PIECE));
+        }
+
+        if (isQueenSideAvailable && isCastlingValid(gameBoardData, otherSide, rooks, occupied, kingSquare, kingSquare - 4, -1)) {
+            moves.add(MoveUtils.encode(kingSquare, kingSquare - 4, MoveUtils.FLAG_CASTLING, firstIndex + KING, MoveUtils.NO_PIECE));
+        }
+    }
+
+    private static boolean isCastlingValid(ReadOnlyGameBoardData gameBoardData, Side otherSide, long rooks, long occupied, int kingSquare, int rookSquare, int step) {
+        if ((rooks & (1L << rookSquare)) == 0 || gameBoardData.isPieceMoved(getPosition(rookSquare))) {
+            return false;
+        }
+
+        for (int square = kingSquare + step; square != rookSquare; square += step) {
+            if ((occupied & (1L << square)) != 0) {
+                return false;
+            }
+        }
+
+        // The king cannot pass or end on an attacked square
+        return !AttackUtils.isSquareAttacked(kingSquare + step, otherSide, gameBoardData) &&
+                !AttackUtils.isSquareAttacked(kingSquare + (2 * step), otherSide, gameBoardData);
+    }
+}
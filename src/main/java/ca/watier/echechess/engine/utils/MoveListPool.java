@@ -0,0 +1,71 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.engine.models.MoveList;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A pool of {@link MoveList} per thread, to avoid the allocation of a new list each time the moves are generated.
+ * <pre>
+ * MoveList moves = MoveListPool.acquire();
+ * try {
+ *     ...
+ * } finally {
+ *     MoveListPool.release(moves);
+ * }
+ * </pre>
+ */
+public final class MoveListPool {
+
+    private static final int MAX_POOLED_LISTS = 64;
+    private static final ThreadLocal<Deque<MoveList>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private MoveListPool() {
+    }
+
+    /**
+     * Gets an empty list from the pool of the current thread, or a new one if the pool is empty
+     *
+     * @return
+     */
+    public static MoveList acquire() {
+        MoveList moves = POOL.get().pollFirst();
+
+        if (moves == null) {
+            return new MoveList();
+        }
+
+        moves.clear();
+        return moves;
+    }
+
+    /**
+     * Gives the list back to the pool of the current thread; the list must not be used after
+     *
+     * @param moves
+     */
+    public static void release(MoveList moves) {
+        Deque<MoveList> pool = POOL.get();
+
+        if (moves != null && pool.size() < MAX_POOLED_LISTS) {
+            pool.offerFirst(moves);
+        }
+    }
+}
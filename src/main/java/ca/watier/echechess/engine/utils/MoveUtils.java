@@ -0,0 +1,178 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.MoveType;
+import ca.watier.echechess.common.enums.Pieces;
+
+/**
+ * Moves packed in an int
+ * <pre>
+ * bits 0 - 5   : from square
+ * bits 6 - 11  : to square (the rook square when castling)
+ * bits 12 - 14 : flag ({@link #FLAG_NORMAL}, {@link #FLAG_PAWN_HOP}, {@link #FLAG_EN_PASSANT}, {@link #FLAG_CASTLING}, {@link #FLAG_PROMOTION})
+ * bits 15 - 18 : promotion piece index (see {@link BitboardUtils#getPieceIndex})
+ * bits 19 - 22 : moved piece index + 1 (0 when not set)
+ * bits 23 - 26 : captured piece index + 1 (0 when the move is not a capture)
+ * </pre>
+ * The moves from {@link MoveGenerator} always contain the moved and the captured piece.
+ */
+public final class MoveUtils {
+
+    public static final int FLAG_NORMAL = 0;
+    public static final int FLAG_PAWN_HOP = 1;
+    public static final int FLAG_EN_PASSANT = 2;
+    public static final int FLAG_CASTLING = 3;
+    public static final int FLAG_PROMOTION = 4;
+    public static final int NO_PIECE = -1;
+    // Never a generated move, they always contain the moved piece
+    public static final int NO_MOVE = 0;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int TO_SHIFT = 6;
+    private static final int FLAG_SHIFT = 12;
+    private static final int FLAG_MASK = 0x7;
+    private static final int PROMOTION_SHIFT = 15;
+    private static final int PIECE_MASK = 0xF;
+    private static final int MOVED_PIECE_SHIFT = 19;
+    private static final int CAPTURED_PIECE_SHIFT = 23;
+
+    private MoveUtils() {
+    }
+
+    public static int encode(int from, int to, int flag) {
+        return from | (to << TO_SHIFT) | (flag << FLAG_SHIFT);
+    }
+
+    public static int encodePromotion(int from, int to, int promotionPieceIndex) {
+        return encode(from, to, FLAG_PROMOTION) | (promotionPieceIndex << PROMOTION_SHIFT);
+    }
+
+    /**
+     * @param from
+     * @param to
+     * @param flag
+     * @param movedPieceIndex - the index of the piece (see {@link BitboardUtils#getPieceIndex})
+     * @param capturedPieceIndex - the index of the captured piece, {@link #NO_PIECE} if not a capture
+     * @return
+     */
+    public static int encode(int from, int to, int flag, int movedPieceIndex, int capturedPieceIndex) {
+        return withPieces(encode(from, to, flag), movedPieceIndex, capturedPieceIndex);
+    }
+
+    public static int encodePromotion(int from, int to, int promotionPieceIndex, int movedPieceIndex, int capturedPieceIndex) {
+        return withPieces(encodePromotion(from, to, promotionPieceIndex), movedPieceIndex, capturedPieceIndex);
+    }
+
+    private static int withPieces(int move, int movedPieceIndex, int capturedPieceIndex) {
+        return move | ((movedPieceIndex + 1) << MOVED_PIECE_SHIFT) | ((capturedPieceIndex + 1) << CAPTURED_PIECE_SHIFT);
+    }
+
+    public static int getFrom(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int getTo(int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    public static int getFlag(int move) {
+        return (move >>> FLAG_SHIFT) & FLAG_MASK;
+    }
+
+    public static int getPromotionPieceIndex(int move) {
+        return (move >>> PROMOTION_SHIFT) & PIECE_MASK;
+    }
+
+    /**
+     * @param move
+     * @return the index of the moved piece, {@link #NO_PIECE} if not set
+     */
+    public static int getMovedPieceIndex(int move) {
+        return ((move >>> MOVED_PIECE_SHIFT) & PIECE_MASK) - 1;
+    }
+
+    /**
+     * @param move
+     * @return the index of the captured piece (the pawn for the en passant), {@link #NO_PIECE} if not a capture
+     */
+    public static int getCapturedPieceIndex(int move) {
+        return ((move >>> CAPTURED_PIECE_SHIFT) & PIECE_MASK) - 1;
+    }
+
+    public static boolean isCapture(int move) {
+        return getCapturedPieceIndex(move) != NO_PIECE;
+    }
+
+    public static CasePosition getFromPosition(int move) {
+        return BitboardUtils.getPosition(getFrom(move));
+    }
+
+    public static CasePosition getToPosition(int move) {
+        return BitboardUtils.getPosition(getTo(move));
+    }
+
+    /**
+     * Gets the promotion piece, null if the move is not a promotion
+     *
+     * @param move
+     * @return
+     */
+    public static Pieces getPromotion(int move) {
+        if (getFlag(move) != FLAG_PROMOTION) {
+            return null;
+        }
+
+        return BitboardUtils.getPiece(getPromotionPieceIndex(move));
+    }
+
+    /**
+     * Gets the {@link MoveType} to use with {@link ca.watier.echechess.engine.abstracts.GameBoardData#makeMove}
+     *
+     * @param move
+     * @return
+     */
+    public static MoveType getMoveType(int move) {
+        return switch (getFlag(move)) {
+            case FLAG_PAWN_HOP -> MoveType.PAWN_HOP;
+            case FLAG_EN_PASSANT -> MoveType.EN_PASSANT;
+            case FLAG_CASTLING -> MoveType.CASTLING;
+            case FLAG_PROMOTION -> MoveType.PAWN_PROMOTION;
+            default -> MoveType.NORMAL_MOVE;
+        };
+    }
+
+    /**
+     * Gets the move in the long algebraic notation (e2e4, e7e8q); the castling is written with the rook position
+     *
+     * @param move
+     * @return
+     */
+    public static String toString(int move) {
+        StringBuilder value = new StringBuilder(5)
+                .append(getFromPosition(move).name().toLowerCase())
+                .append(getToPosition(move).name().toLowerCase());
+
+        Pieces promotion = getPromotion(move);
+        if (promotion != null) {
+            value.append(promotion.getName().toLowerCase());
+        }
+
+        return value.toString();
+    }
+}
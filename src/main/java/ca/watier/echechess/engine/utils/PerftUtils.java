@@ -0,0 +1,274 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.abstracts.GameBoardData;
+import ca.watier.echechess.engine.models.MoveList;
+import ca.watier.echechess.engine.models.MoveUndoModel;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the move tree (perft), to validate the move generation against known positions
+ * and to measure its speed.
+ * <p>
+ * The moves are played with {@link GameBoardData#makeMove} and reverted with {@link GameBoardData#unmakeMove}, the
+ * board is left untouched.
+ * <p>
+ * The parallel versions split the first plies across a {@link ForkJoinPool}, each task working on its own copy of the board.
+ */
+public final class PerftUtils {
+
+    // The number of plies, under the root moves, that are split in sub-tasks
+    public static final int DEFAULT_SPLIT_PLIES = 1;
+    // Under this depth, the sub-tree is too small to be worth a task
+    private static final int MIN_SPLIT_DEPTH = 3;
+
+    private PerftUtils() {
+    }
+
+    /**
+     * Counts the leaf nodes, from the side that can play
+     *
+     * @param gameBoardData
+     * @param depth
+     * @return
+     */
+    public static long perft(GameBoardData gameBoardData, int depth) {
+        if (gameBoardData == null || depth < 0) {
+            return 0;
+        }
+
+        return perft(gameBoardData, depth, createMoveLists(depth));
+    }
+
+    /**
+     * Counts the leaf nodes under each move of the root, the key is the move in long algebraic notation (see {@link MoveUtils#toString(int)})
+     *
+     * @param gameBoardData
+     * @param depth
+     * @return
+     */
+    public static Map<String, Long> divide(GameBoardData gameBoardData, int depth) {
+        Map<String, Long> values = new LinkedHashMap<>();
+
+        if (gameBoardData == null || depth < 1) {
+            return values;
+        }
+
+        MoveList[] moveLists = createMoveLists(depth);
+        MoveList moves = moveLists[depth];
+        MoveGenerator.generateLegalMoves(gameBoardData.getCurrentAllowedMoveSide(), gameBoardData, moves);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+
+            MoveUndoModel undo = gameBoardData.makeMove(move);
+            try {
+                values.put(MoveUtils.toString(move), perft(gameBoardData, depth - 1, moveLists));
+            } finally {
+                gameBoardData.unmakeMove(undo);
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Counts the leaf nodes, with the tree split across the pool
+     *
+     * @param gameBoardData
+     * @param depth
+     * @param pool
+     * @return
+     */
+    public static long parallelPerft(GameBoardData gameBoardData, int depth, ForkJoinPool pool) {
+        return parallelPerft(gameBoardData, depth, pool, DEFAULT_SPLIT_PLIES);
+    }
+
+    /**
+     * Same as {@link #parallelPerft(GameBoardData, int, ForkJoinPool)}, with the number of plies split in sub-tasks
+     *
+     * @param gameBoardData
+     * @param depth
+     * @param pool
+     * @param splitPlies - the number of plies, under the root moves, split in sub-tasks (0 = one task per root move)
+     * @return
+     */
+    public static long parallelPerft(GameBoardData gameBoardData, int depth, ForkJoinPool pool, int splitPlies) {
+        if (gameBoardData == null || pool == null || depth < 0 || splitPlies < 0) {
+            return 0;
+        } else if (depth == 0) {
+            return 1;
+        }
+
+        long nodes = 0;
+        for (long value : parallelDivide(gameBoardData, depth, pool, splitPlies).values()) {
+            nodes += value;
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Same as {@link #divide(GameBoardData, int)}, with each root move (and the next plies) counted in its own task
+     *
+     * @param gameBoardData
+     * @param depth
+     * @param pool
+     * @return
+     */
+    public static Map<String, Long> parallelDivide(GameBoardData gameBoardData, int depth, ForkJoinPool pool) {
+        return parallelDivide(gameBoardData, depth, pool, DEFAULT_SPLIT_PLIES);
+    }
+
+    /**
+     * Same as {@link #parallelDivide(GameBoardData, int, ForkJoinPool)}, with the number of plies split in sub-tasks
+     *
+     * @param gameBoardData
+     * @param depth
+     * @param pool
+     * @param splitPlies - the number of plies, under the root moves, split in sub-tasks (0 = one task per root move)
+     * @return
+     */
+    public static Map<String, Long> parallelDivide(GameBoardData gameBoardData, int depth, ForkJoinPool pool, int splitPlies) {
+        Map<String, Long> values = new LinkedHashMap<>();
+
+        if (gameBoardData == null || pool == null || depth < 1 || splitPlies < 0) {
+            return values;
+        }
+
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(gameBoardData.getCurrentAllowedMoveSide(), gameBoardData, moves);
+
+        List<PerftTask> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            tasks.add(new PerftTask(gameBoardData, moves.get(i), depth - 1, splitPlies));
+        }
+
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+
+        for (int i = 0; i < moves.size(); i++) {
+            values.put(MoveUtils.toString(moves.get(i)), tasks.get(i).join());
+        }
+
+        return values;
+    }
+
+    private static long perft(GameBoardData gameBoardData, int depth, MoveList[] moveLists) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        Side side = gameBoardData.getCurrentAllowedMoveSide();
+        MoveList moves = moveLists[depth];
+        int nbOfMoves = MoveGenerator.generateLegalMoves(side, gameBoardData, moves);
+
+        if (depth == 1) { // The moves are legal, no need to play them
+            return nbOfMoves;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < nbOfMoves; i++) {
+            MoveUndoModel undo = gameBoardData.makeMove(moves.get(i));
+            try {
+                nodes += perft(gameBoardData, depth - 1, moveLists);
+            } finally {
+                gameBoardData.unmakeMove(undo);
+            }
+        }
+
+        return nodes;
+    }
+
+    // One list per depth, reused between the siblings
+    private static MoveList[] createMoveLists(int depth) {
+        MoveList[] moveLists = new MoveList[depth + 1];
+
+        for (int i = 0; i <= depth; i++) {
+            moveLists[i] = new MoveList();
+        }
+
+        return moveLists;
+    }
+
+    private static GameBoardData copyOf(GameBoardData gameBoardData) {
+        try {
+            return gameBoardData.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Plays the move on a copy of the board, then counts the nodes under it
+     */
+    private static final class PerftTask extends RecursiveTask<Long> {
+        @Serial
+        private static final long serialVersionUID = -4829340912652304184L;
+
+        private final GameBoardData gameBoardData;
+        private final int move;
+        private final int depth;
+        private final int splitPlies;
+
+        private PerftTask(GameBoardData gameBoardData, int move, int depth, int splitPlies) {
+            this.gameBoardData = gameBoardData;
+            this.move = move;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+        }
+
+        @Override
+        protected Long compute() {
+            GameBoardData copy = copyOf(gameBoardData);
+            copy.makeMove(move);
+
+            if (splitPlies == 0 || depth < MIN_SPLIT_DEPTH) {
+                return perft(copy, depth, createMoveLists(depth));
+            }
+
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegalMoves(copy.getCurrentAllowedMoveSide(), copy, moves);
+
+            List<PerftTask> tasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                tasks.add(new PerftTask(copy, moves.get(i), depth - 1, splitPlies - 1));
+            }
+
+            long nodes = 0;
+            for (PerftTask task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+
+            return nodes;
+        }
+    }
+}
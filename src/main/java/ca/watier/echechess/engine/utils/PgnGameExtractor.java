@@ -20,7 +20,6 @@ import ca.watier.echechess.common.enums.*;
 import ca.watier.echechess.common.pojos.MoveHistory;
 import ca.watier.echechess.common.pojos.PieceDataSection;
 import ca.watier.echechess.common.pojos.PieceSingleMoveSection;
-import ca.watier.echechess.engine.abstracts.GameBoardData;
 import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
 import ca.watier.echechess.engine.engines.GenericGameHandler;
 import ca.watier.echechess.engine.exceptions.*;
@@ -28,6 +27,7 @@ import ca.watier.echechess.engine.handlers.GameEventEvaluatorHandlerImpl;
 import ca.watier.echechess.engine.handlers.PlayerHandlerImpl;
 import ca.watier.echechess.engine.interfaces.GameEventEvaluatorHandler;
 import ca.watier.echechess.engine.interfaces.PlayerHandler;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
 import ca.watier.echechess.engine.models.enums.MoveStatus;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
@@ -364,13 +364,13 @@ public class PgnGameExtractor {
             return values;
         }
 
-        GameBoardData cloneOfCurrentDataState = gameHandler.getCloneOfCurrentDataState();
+        ReadOnlyGameBoardData currentDataState = gameHandler.getCurrentDataState();
 
         for (Map.Entry<CasePosition, Pieces> casePositionPiecesEntry : gameHandler.getPiecesLocation(sideToKeep).entrySet()) {
             CasePosition from = casePositionPiecesEntry.getKey();
             Pieces piecesFrom = casePositionPiecesEntry.getValue();
 
-            MoveStatus moveStatus = gameHandler.getMoveStatus(from, to, cloneOfCurrentDataState);
+            MoveStatus moveStatus = gameHandler.getMoveStatus(from, to, currentDataState);
             if (MoveStatus.isMoveValid(moveStatus)) {
                 values.put(from, piecesFrom);
             }
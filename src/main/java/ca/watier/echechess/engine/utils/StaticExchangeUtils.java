@@ -0,0 +1,149 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Pieces;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+
+/**
+ * Static exchange evaluation (SEE): the material won or lost (in centipawns, see {@link EvaluationUtils}) by the
+ * side that starts the captures on a square, when both sides keep capturing with their least valuable piece and
+ * can stop when it's better for them.
+ * <p>
+ * The pieces are removed from an occupancy mask, the sliding pieces behind them (x-rays) are then seen as attackers;
+ * the board is not modified. The pins, the promotions and the checks are not considered.
+ */
+public final class StaticExchangeUtils {
+
+    // The king can capture last, it's never taken back
+    private static final int KING_VALUE = 10_000;
+    private static final int MAX_NB_OF_CAPTURES = 32;
+
+    private StaticExchangeUtils() {
+    }
+
+    /**
+     * Evaluates the exchange started by the capture (the piece on the target is taken by the piece on the source)
+     *
+     * @param gameBoardData
+     * @param from - the square of the first capturing piece (see {@link BitboardUtils})
+     * @param to - the target square; when empty (en passant, quiet move), the first move is valued as not capturing anything
+     * @return the net material won by the side of the first capturing piece, 0 if there's no piece on the source
+     */
+    public static int evaluateCapture(ReadOnlyGameBoardData gameBoardData, int from, int to) {
+        Pieces attacker = gameBoardData.getPieceAt(from);
+
+        if (attacker == null) {
+            return 0;
+        }
+
+        Pieces target = gameBoardData.getPieceAt(to);
+        int targetValue = target == null ? 0 : getValue(BitboardUtils.getPieceIndex(target));
+
+        return evaluate(gameBoardData, to, BitboardUtils.getPieceIndex(attacker), 1L << from, targetValue, attacker.getSide());
+    }
+
+    /**
+     * Evaluates the exchange on the piece of the square, started by the enemy with its least valuable attacker
+     *
+     * @param gameBoardData
+     * @param target - the square of the piece (see {@link BitboardUtils})
+     * @return the net material won by the enemy of the piece; 0 if the square is empty or not attacked, a positive value when the piece is hanging
+     */
+    public static int evaluateSquare(ReadOnlyGameBoardData gameBoardData, int target) {
+        Pieces piece = gameBoardData.getPieceAt(target);
+
+        if (piece == null) {
+            return 0;
+        }
+
+        Side attackerSide = Side.getOtherPlayerSide(piece.getSide());
+        long attackers = AttackUtils.getAttackers(target, attackerSide, gameBoardData, gameBoardData.getOccupiedBitboard());
+        int attackerIndex = getLeastValuableAttacker(attackers, attackerSide, gameBoardData);
+
+        if (attackerIndex == MoveUtils.NO_PIECE) {
+            return 0;
+        }
+
+        long attackerMask = Long.lowestOneBit(attackers & gameBoardData.getPieceBitboard(attackerIndex));
+
+        return Math.max(0, evaluate(gameBoardData, target, attackerIndex, attackerMask, getValue(BitboardUtils.getPieceIndex(piece)), attackerSide));
+    }
+
+    public static int evaluateSquare(ReadOnlyGameBoardData gameBoardData, CasePosition target) {
+        return target == null ? 0 : evaluateSquare(gameBoardData, BitboardUtils.getSquare(target));
+    }
+
+    private static int evaluate(ReadOnlyGameBoardData gameBoardData, int target, int attackerIndex, long attackerMask, int targetValue, Side attackerSide) {
+        int[] gains = new int[MAX_NB_OF_CAPTURES];
+        long occupancy = gameBoardData.getOccupiedBitboard();
+        Side side = attackerSide;
+        int depth = 0;
+
+        gains[0] = targetValue;
+
+        while (true) {
+            // The capturing piece is now on the target, it's the next one to be taken
+            depth++;
+            gains[depth] = getValue(attackerIndex) - gains[depth - 1];
+            occupancy ^= attackerMask;
+            side = Side.getOtherPlayerSide(side);
+
+            if (depth == MAX_NB_OF_CAPTURES - 1 || Math.max(-gains[depth - 1], gains[depth]) < 0) {
+                break; // None of the sides can do better by continuing
+            }
+
+            long attackers = AttackUtils.getAttackers(target, side, gameBoardData, occupancy) & occupancy;
+            attackerIndex = getLeastValuableAttacker(attackers, side, gameBoardData);
+
+            if (attackerIndex == MoveUtils.NO_PIECE) {
+                break;
+            }
+
+            attackerMask = Long.lowestOneBit(attackers & gameBoardData.getPieceBitboard(attackerIndex));
+        }
+
+        // The last capture is not made, then each side chooses between capturing and stopping
+        while (--depth > 0) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+        }
+
+        return gains[0];
+    }
+
+    private static int getLeastValuableAttacker(long attackers, Side side, ReadOnlyGameBoardData gameBoardData) {
+        if (attackers == BitboardUtils.EMPTY) {
+            return MoveUtils.NO_PIECE;
+        }
+
+        int firstIndex = BitboardUtils.getFirstPieceIndex(side);
+
+        for (int pieceType = BitboardUtils.PAWN; pieceType <= BitboardUtils.KING; pieceType++) {
+            if ((attackers & gameBoardData.getPieceBitboard(firstIndex + pieceType)) != 0) {
+                return firstIndex + pieceType;
+            }
+        }
+
+        return MoveUtils.NO_PIECE;
+    }
+
+    private static int getValue(int pieceIndex) {
+        return pieceIndex % 6 == BitboardUtils.KING ? KING_VALUE : EvaluationUtils.getPieceValue(pieceIndex);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ *    Copyright 2014 - 2021 Yannick Watier
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.Side;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys used to compute the Zobrist hash of a position (pieces placement, castling rights, en passant file and side to move).
+ * <p>
+ * The keys are generated from a fixed seed, so the hash of a position is stable between the runs.
+ */
+public final class ZobristUtils {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final int NB_OF_CASTLING_COMBINATIONS = 16;
+    private static final int NB_OF_FILES = 8;
+
+    private static final long[][] PIECE_KEYS = new long[BitboardUtils.NB_OF_PIECES][BitboardUtils.NB_OF_SQUARES];
+    private static final long[] CASTLING_KEYS = new long[NB_OF_CASTLING_COMBINATIONS];
+    private static final long[] EN_PASSANT_KEYS = new long[NB_OF_FILES];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        for (long[] pieceKeys : PIECE_KEYS) {
+            for (int square = 0; square < BitboardUtils.NB_OF_SQUARES; square++) {
+                pieceKeys[square] = random.nextLong();
+            }
+        }
+
+        for (int flags = 1; flags < NB_OF_CASTLING_COMBINATIONS; flags++) { // no castling available = 0
+            CASTLING_KEYS[flags] = random.nextLong();
+        }
+
+        BLACK_TO_MOVE_KEY = random.nextLong();
+
+        for (int file = 0; file < NB_OF_FILES; file++) {
+            EN_PASSANT_KEYS[file] = random.nextLong();
+        }
+    }
+
+    private ZobristUtils() {
+    }
+
+    /**
+     * Gets the key of a piece on a square
+     *
+     * @param pieceIndex - see {@link BitboardUtils#getPieceIndex}
+     * @param square
+     * @return
+     */
+    public static long getPieceKey(int pieceIndex, int square) {
+        return PIECE_KEYS[pieceIndex][square];
+    }
+
+    /**
+     * Gets the key of the castling rights (4 bits, one per castling, see {@link MoveGenerator#getCastlingRights})
+     *
+     * @param castlingFlags
+     * @return
+     */
+    public static long getCastlingKey(int castlingFlags) {
+        return CASTLING_KEYS[castlingFlags & (NB_OF_CASTLING_COMBINATIONS - 1)];
+    }
+
+    /**
+     * Gets the key of the en passant file (see {@link MoveGenerator#getEnPassantFile})
+     *
+     * @param file - 0 to 7, {@link MoveGenerator#NO_EN_PASSANT_FILE} has no key
+     * @return
+     */
+    public static long getEnPassantKey(int file) {
+        return file == MoveGenerator.NO_EN_PASSANT_FILE ? 0L : EN_PASSANT_KEYS[file];
+    }
+
+    /**
+     * Gets the key of the side to move, only black has a key
+     *
+     * @param side
+     * @return
+     */
+    public static long getSideKey(Side side) {
+        return Side.BLACK.equals(side) ? BLACK_TO_MOVE_KEY : 0L;
+    }
+}
@@ -0,0 +1,329 @@
+package ca.watier.echechess.engine.abstracts;
+
+import ca.watier.echechess.common.enums.MoveType;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.exceptions.FenParserException;
+import ca.watier.echechess.engine.game.FenPositionGameHandler;
+import ca.watier.echechess.engine.models.MoveList;
+import ca.watier.echechess.engine.models.MoveUndoModel;
+import ca.watier.echechess.engine.utils.AttackUtils;
+import ca.watier.echechess.engine.utils.BitboardUtils;
+import ca.watier.echechess.engine.utils.EvaluationUtils;
+import ca.watier.echechess.engine.utils.FenGameParser;
+import ca.watier.echechess.engine.utils.MoveGenerator;
+import ca.watier.echechess.engine.utils.MoveUtils;
+import ca.watier.echechess.engine.utils.ZobristUtils;
+import org.junit.jupiter.api.Test;
+
+import static ca.watier.echechess.common.enums.CasePosition.*;
+import static ca.watier.echechess.common.enums.Pieces.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GameBoardDataTest {
+
+    @Test
+    public void makeMove_pawnHop_thenUnmake() throws FenParserException, CloneNotSupportedException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq").getCloneOfCurrentDataState();
+        GameBoardData original = gameBoardData.clone();
+
+        // when
+        MoveUndoModel undo = gameBoardData.makeMove(E2, E4, MoveType.PAWN_HOP);
+
+        // then
+        assertThat(gameBoardData.getPiece(E2)).isNull();
+        assertThat(gameBoardData.getPiece(E4)).isEqualTo(W_PAWN);
+        assertThat(gameBoardData.isPawnUsedSpecialMove(E4)).isTrue();
+        assertThat(gameBoardData.isPieceMoved(E4)).isTrue();
+        assertThat(gameBoardData.getNbTotalMove()).isEqualTo(1);
+        assertThat(gameBoardData.getCurrentAllowedMoveSide()).isEqualTo(Side.BLACK);
+
+        gameBoardData.unmakeMove(undo);
+        assertSameState(original, gameBoardData);
+    }
+
+    @Test
+    public void makeMove_capture_thenUnmake() throws FenParserException, CloneNotSupportedException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq").getCloneOfCurrentDataState();
+        GameBoardData original = gameBoardData.clone();
+
+        // when
+        MoveUndoModel undo = gameBoardData.makeMove(E4, D5, MoveType.NORMAL_MOVE);
+
+        // then
+        assertThat(gameBoardData.getPiece(D5)).isEqualTo(W_PAWN);
+        assertThat(gameBoardData.getPiecesLocation(Side.BLACK)).hasSize(15);
+
+        gameBoardData.unmakeMove(undo);
+        assertSameState(original, gameBoardData);
+    }
+
+    @Test
+    public void makeMove_enPassant_thenUnmake() throws FenParserException, CloneNotSupportedException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("4k3/8/8/3pP3/8/8/8/4K3 w").getCloneOfCurrentDataState();
+        GameBoardData original = gameBoardData.clone();
+
+        // when
+        MoveUndoModel undo = gameBoardData.makeMove(E5, D6, MoveType.EN_PASSANT);
+
+        // then
+        assertThat(gameBoardData.getPiece(D6)).isEqualTo(W_PAWN);
+        assertThat(gameBoardData.getPiece(D5)).isNull();
+        assertThat(gameBoardData.getPiece(E5)).isNull();
+
+        gameBoardData.unmakeMove(undo);
+        assertSameState(original, gameBoardData);
+    }
+
+    @Test
+    public void makeMove_castling_thenUnmake() throws FenParserException, CloneNotSupportedException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq").getCloneOfCurrentDataState();
+        GameBoardData original = gameBoardData.clone();
+
+        // when
+        MoveUndoModel undo = gameBoardData.makeMove(E1, A1, MoveType.CASTLING);
+
+        // then
+        assertThat(gameBoardData.getPiece(C1)).isEqualTo(W_KING);
+        assertThat(gameBoardData.getPiece(D1)).isEqualTo(W_ROOK);
+        assertThat(gameBoardData.getPiece(A1)).isNull();
+        assertThat(gameBoardData.getPiece(E1)).isNull();
+        assertThat(gameBoardData.isWhiteQueenCastlingAvailable()).isFalse();
+        assertThat(gameBoardData.isWhiteKingCastlingAvailable()).isTrue();
+        assertThat(gameBoardData.getNbTotalMove()).isEqualTo(original.getNbTotalMove() + 1);
+        assertThat(gameBoardData.getWhiteTurnNumber()).isEqualTo(original.getWhiteTurnNumber() + 1);
+        assertThat(gameBoardData.getBlackTurnNumber()).isEqualTo(original.getBlackTurnNumber());
+
+        gameBoardData.unmakeMove(undo);
+        assertSameState(original, gameBoardData);
+    }
+
+    @Test
+    public void zobristKey_sameAsParsedPositionAfterMoves() throws FenParserException {
+        // given
+        FenPositionGameHandler gameHandler = FenGameParser.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq");
+        FenPositionGameHandler expectedGameHandler = FenGameParser.parse("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq");
+
+        // when
+        gameHandler.movePiece(E2, E4, Side.WHITE);
+        gameHandler.movePiece(E7, E5, Side.BLACK);
+
+        // then
+        assertThat(gameHandler.getZobristKey()).isEqualTo(expectedGameHandler.getZobristKey());
+    }
+
+    @Test
+    public void zobristKey_castlingLostWhenTheKingMovedBack() throws FenParserException {
+        // given
+        FenPositionGameHandler gameHandler = FenGameParser.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq");
+        long withCastling = gameHandler.getZobristKey();
+        long withoutCastling = FenGameParser.parse("r3k2r/8/8/8/8/8/8/R3K2R w").getZobristKey();
+
+        // when
+        gameHandler.movePiece(E1, D1, Side.WHITE);
+        gameHandler.movePiece(E8, D8, Side.BLACK);
+        gameHandler.movePiece(D1, E1, Side.WHITE);
+        gameHandler.movePiece(D8, E8, Side.BLACK);
+
+        // then
+        assertThat(gameHandler.getZobristKey()).isEqualTo(withoutCastling).isNotEqualTo(withCastling);
+    }
+
+    @Test
+    public void zobristKey_enPassantOnlyWhenACaptureIsPossible() throws FenParserException, CloneNotSupportedException {
+        // given
+        FenPositionGameHandler withoutEnemyPawn = FenGameParser.parse("4k3/8/8/8/8/8/4P3/4K3 w");
+        GameBoardData withEnemyPawn = FenGameParser.parse("4k3/8/8/8/3p4/8/4P3/4K3 w").getCloneOfCurrentDataState();
+        GameBoardData original = withEnemyPawn.clone();
+
+        // when
+        withoutEnemyPawn.movePiece(E2, E4, Side.WHITE);
+        MoveUndoModel undo = withEnemyPawn.makeMove(E2, E4, MoveType.PAWN_HOP);
+
+        // then
+        assertThat(withoutEnemyPawn.getZobristKey()).isEqualTo(FenGameParser.parse("4k3/8/8/8/4P3/8/8/4K3 b").getZobristKey());
+        assertThat(withEnemyPawn.getZobristKey())
+                .isEqualTo(FenGameParser.parse("4k3/8/8/8/3pP3/8/8/4K3 b - e3").getZobristKey())
+                .isNotEqualTo(FenGameParser.parse("4k3/8/8/8/3pP3/8/8/4K3 b").getZobristKey());
+
+        withEnemyPawn.unmakeMove(undo);
+        assertSameState(original, withEnemyPawn);
+    }
+
+    @Test
+    public void zobristKey_sameAsRecomputedKeyOnEachMove() throws FenParserException {
+        // given
+        GameBoardData kiwipete = FenGameParser.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq").getCloneOfCurrentDataState();
+        GameBoardData enPassant = FenGameParser.parse("r3k3/1p1p1p2/8/P1P1P3/8/8/8/4K2R b Kq").getCloneOfCurrentDataState();
+
+        // then
+        assertSameKeyOnEachMove(kiwipete, 3);
+        assertSameKeyOnEachMove(enPassant, 3);
+    }
+
+    /**
+     * Compares the incremental key with the key recomputed from the whole position, after each move and unmake
+     */
+    private void assertSameKeyOnEachMove(GameBoardData gameBoardData, int depth) {
+        assertThat(gameBoardData.getZobristKey()).isEqualTo(getRecomputedZobristKey(gameBoardData));
+
+        if (depth == 0) {
+            return;
+        }
+
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(gameBoardData.getCurrentAllowedMoveSide(), gameBoardData, moves);
+
+        for (int i = 0; i < moves.size(); i++) {
+            MoveUndoModel undo = gameBoardData.makeMove(moves.get(i));
+            assertSameKeyOnEachMove(gameBoardData, depth - 1);
+
+            gameBoardData.unmakeMove(undo);
+            assertThat(gameBoardData.getZobristKey()).isEqualTo(getRecomputedZobristKey(gameBoardData));
+        }
+    }
+
+    private long getRecomputedZobristKey(GameBoardData gameBoardData) {
+        long key = ZobristUtils.getCastlingKey(MoveGenerator.getCastlingRights(gameBoardData)) ^
+                ZobristUtils.getEnPassantKey(MoveGenerator.getEnPassantFile(gameBoardData)) ^
+                ZobristUtils.getSideKey(gameBoardData.getCurrentAllowedMoveSide());
+
+        for (int index = 0; index < BitboardUtils.NB_OF_PIECES; index++) {
+            for (long bitboard = gameBoardData.getPieceBitboard(index); bitboard != BitboardUtils.EMPTY; bitboard &= bitboard - 1) {
+                key ^= ZobristUtils.getPieceKey(index, Long.numberOfTrailingZeros(bitboard));
+            }
+        }
+
+        return key;
+    }
+
+    @Test
+    public void zobristKey_sideAndCastlingChangeTheKey() throws FenParserException {
+        // given
+        long whiteToPlay = FenGameParser.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq").getZobristKey();
+        long blackToPlay = FenGameParser.parse("r3k2r/8/8/8/8/8/8/R3K2R b KQkq").getZobristKey();
+        long withoutCastling = FenGameParser.parse("r3k2r/8/8/8/8/8/8/R3K2R w").getZobristKey();
+
+        // then
+        assertThat(whiteToPlay).isNotEqualTo(blackToPlay);
+        assertThat(whiteToPlay).isNotEqualTo(withoutCastling);
+    }
+
+    @Test
+    public void evaluation_sameAsParsedPositionAfterMoves() throws FenParserException {
+        // given
+        FenPositionGameHandler gameHandler = FenGameParser.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq");
+        FenPositionGameHandler expectedGameHandler = FenGameParser.parse("rnbqkbnr/ppp1pppp/8/3P4/8/8/PPPP1PPP/RNBQKBNR b KQkq");
+
+        // when
+        int startingScore = gameHandler.getEvaluation();
+        int startingPhase = gameHandler.getCloneOfCurrentDataState().getGamePhase();
+        gameHandler.movePiece(E2, E4, Side.WHITE);
+        gameHandler.movePiece(D7, D5, Side.BLACK);
+        gameHandler.movePiece(E4, D5, Side.WHITE);
+
+        // then
+        GameBoardData gameBoardData = gameHandler.getCloneOfCurrentDataState();
+        GameBoardData expected = expectedGameHandler.getCloneOfCurrentDataState();
+        assertThat(startingScore).isZero();
+        assertThat(startingPhase).isEqualTo(EvaluationUtils.MAX_GAME_PHASE);
+        assertThat(gameBoardData.getMiddlegameScore()).isEqualTo(expected.getMiddlegameScore());
+        assertThat(gameBoardData.getEndgameScore()).isEqualTo(expected.getEndgameScore());
+        assertThat(gameBoardData.getGamePhase()).isEqualTo(expected.getGamePhase());
+        assertThat(gameHandler.getEvaluation()).isEqualTo(expectedGameHandler.getEvaluation()).isGreaterThan(50);
+    }
+
+    @Test
+    public void evaluation_taperedWithThePhase() throws FenParserException, CloneNotSupportedException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("4k3/P7/8/8/8/8/8/4K3 w").getCloneOfCurrentDataState();
+        GameBoardData original = gameBoardData.clone();
+
+        // when
+        int pawnEndgameScore = EvaluationUtils.getScore(gameBoardData);
+        MoveUndoModel undo = gameBoardData.makeMove(A7, A8, MoveType.PAWN_PROMOTION, W_QUEEN);
+        int queenEndgameScore = EvaluationUtils.getScore(gameBoardData);
+
+        // then
+        assertThat(original.getGamePhase()).isZero();
+        assertThat(pawnEndgameScore).isEqualTo(original.getEndgameScore());
+        assertThat(gameBoardData.getGamePhase()).isEqualTo(EvaluationUtils.getPhaseWeight(BitboardUtils.getPieceIndex(W_QUEEN)));
+        assertThat(queenEndgameScore).isGreaterThan(pawnEndgameScore + 500);
+
+        gameBoardData.unmakeMove(undo);
+        assertSameState(original, gameBoardData);
+    }
+
+    @Test
+    public void kingPosition_trackedOnMoves() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq").getCloneOfCurrentDataState();
+
+        // when
+        MoveUndoModel undo = gameBoardData.makeMove(E1, H1, MoveType.CASTLING);
+
+        // then
+        assertThat(gameBoardData.getKingPosition(Side.WHITE)).isEqualTo(G1);
+        assertThat(gameBoardData.getKingPosition(Side.BLACK)).isEqualTo(E8);
+
+        gameBoardData.unmakeMove(undo);
+        assertThat(gameBoardData.getKingPosition(Side.WHITE)).isEqualTo(E1);
+
+        gameBoardData.removePieceFromBoard(E8);
+        assertThat(gameBoardData.getKingPosition(Side.BLACK)).isNull();
+        assertThat(gameBoardData.getKingSquare(Side.BLACK)).isEqualTo(-1);
+    }
+
+    private void assertSameState(GameBoardData expected, GameBoardData actual) {
+        assertThat(actual.getZobristKey()).isEqualTo(expected.getZobristKey());
+        assertThat(actual.getMiddlegameScore()).isEqualTo(expected.getMiddlegameScore());
+        assertThat(actual.getEndgameScore()).isEqualTo(expected.getEndgameScore());
+        assertThat(actual.getGamePhase()).isEqualTo(expected.getGamePhase());
+        assertThat(actual.getPiecesLocation()).isEqualTo(expected.getPiecesLocation());
+        assertThat(actual.getIsPiecesMovedMap()).isEqualTo(expected.getIsPiecesMovedMap());
+        assertThat(actual.getIsPawnUsedSpecialMoveMap()).isEqualTo(expected.getIsPawnUsedSpecialMoveMap());
+        assertThat(actual.getTurnNumberPieceMap()).isEqualTo(expected.getTurnNumberPieceMap());
+        assertThat(actual.getNbTotalMove()).isEqualTo(expected.getNbTotalMove());
+        assertThat(actual.getWhiteTurnNumber()).isEqualTo(expected.getWhiteTurnNumber());
+        assertThat(actual.getBlackTurnNumber()).isEqualTo(expected.getBlackTurnNumber());
+        assertThat(actual.getCurrentAllowedMoveSide()).isEqualTo(expected.getCurrentAllowedMoveSide());
+        assertThat(actual.isWhiteKingCastlingAvailable()).isEqualTo(expected.isWhiteKingCastlingAvailable());
+        assertThat(actual.isWhiteQueenCastlingAvailable()).isEqualTo(expected.isWhiteQueenCastlingAvailable());
+        assertThat(actual.isBlackKingCastlingAvailable()).isEqualTo(expected.isBlackKingCastlingAvailable());
+        assertThat(actual.isBlackQueenCastlingAvailable()).isEqualTo(expected.isBlackQueenCastlingAvailable());
+    }
+
+    @Test
+    public void attackMaps_sameAsComputedAttackers() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq").getCloneOfCurrentDataState();
+        gameBoardData.setAttackMapsEnabled(true);
+        MoveList moves = new MoveList();
+
+        // when
+        MoveGenerator.generateLegalMoves(Side.WHITE, gameBoardData, moves);
+
+        // then
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            MoveUndoModel undo = gameBoardData.makeMove(MoveUtils.getFromPosition(move), MoveUtils.getToPosition(move), MoveUtils.getMoveType(move), MoveUtils.getPromotion(move));
+            assertSameAttackers(gameBoardData, MoveUtils.toString(move));
+
+            gameBoardData.unmakeMove(undo);
+            assertSameAttackers(gameBoardData, MoveUtils.toString(move));
+        }
+    }
+
+    private void assertSameAttackers(GameBoardData gameBoardData, String move) {
+        for (int square = 0; square < BitboardUtils.NB_OF_SQUARES; square++) {
+            for (Side side : new Side[]{Side.WHITE, Side.BLACK}) {
+                assertThat(gameBoardData.getAttackers(square, side))
+                        .as("%s - %d - %s", move, square, side)
+                        .isEqualTo(AttackUtils.getAttackers(square, side, gameBoardData, gameBoardData.getOccupiedBitboard()));
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package ca.watier.echechess.engine.abstracts;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.MoveType;
+import ca.watier.echechess.common.enums.Pieces;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.engines.GenericGameHandler;
+import ca.watier.echechess.engine.exceptions.FenParserException;
+import ca.watier.echechess.engine.game.FenPositionGameHandler;
+import ca.watier.echechess.engine.models.MoveList;
+import ca.watier.echechess.engine.utils.BitboardUtils;
+import ca.watier.echechess.engine.utils.FenGameParser;
+import ca.watier.echechess.engine.utils.MoveGenerator;
+import ca.watier.echechess.engine.utils.MoveUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static ca.watier.echechess.common.enums.CasePosition.*;
+import static ca.watier.echechess.common.enums.Pieces.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PersistentGameBoardDataTest {
+
+    @Test
+    public void getSnapshot_notChangedByTheBoard() throws FenParserException {
+        // given
+        GenericGameHandler gameHandler = FenGameParser.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq");
+        PersistentGameBoardData snapshot = gameHandler.getSnapshot();
+
+        // when
+        gameHandler.movePiece(E2, E4, Side.WHITE);
+        PersistentGameBoardData secondSnapshot = gameHandler.getSnapshot();
+        gameHandler.movePiece(E7, E5, Side.BLACK);
+        PersistentGameBoardData thirdSnapshot = gameHandler.getSnapshot();
+
+        // then
+        assertThat(gameHandler.getSnapshot()).isSameAs(thirdSnapshot);
+        assertThat(snapshot.getPiece(E2)).isEqualTo(W_PAWN);
+        assertThat(snapshot.getMoveHistory()).isEmpty();
+        assertThat(secondSnapshot.getPiece(E4)).isEqualTo(W_PAWN);
+        assertThat(secondSnapshot.getPiece(E7)).isEqualTo(B_PAWN);
+        assertThat(secondSnapshot.getMoveHistory()).hasSize(1);
+        assertThat(secondSnapshot.getZobristKey()).isNotEqualTo(thirdSnapshot.getZobristKey());
+        assertThat(thirdSnapshot.getMoveHistory()).containsExactlyElementsOf(gameHandler.getMoveHistory());
+    }
+
+    @Test
+    public void getSnapshot_polledWhileMovesArePlayed() throws Exception {
+        // given
+        FenPositionGameHandler gameHandler = FenGameParser.parse("4k3/8/8/8/8/8/8/R3K3 w");
+        Map<CasePosition, Pieces> startPosition = Map.of(A8, W_ROOK, E8, B_KING, E1, W_KING);
+        CasePosition[][] moves = {{A8, A1}, {E8, D8}, {A1, A2}, {D8, E8}};
+        Map<Long, Long> expectedKeyByVersion = new ConcurrentHashMap<>();
+        Queue<Map.Entry<Long, PersistentGameBoardData>> polledSnapshots = new ConcurrentLinkedQueue<>();
+        AtomicBoolean isDone = new AtomicBoolean();
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+
+        try {
+            // when
+            List<Future<?>> pollers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                pollers.add(executorService.submit(() -> {
+                    PersistentGameBoardData previous = null;
+
+                    while (!isDone.get()) {
+                        long version = gameHandler.getVersion();
+                        PersistentGameBoardData snapshot = gameHandler.getSnapshot();
+
+                        if (snapshot != previous && gameHandler.getVersion() == version) {
+                            polledSnapshots.add(Map.entry(version, snapshot));
+                            previous = snapshot;
+                        }
+                    }
+                }));
+            }
+
+            for (int cycle = 0; cycle < 1000; cycle++) {
+                gameHandler.setPieces(startPosition);
+                expectedKeyByVersion.put(gameHandler.getVersion(), gameHandler.getZobristKey());
+
+                for (int i = 0; i < moves.length; i++) {
+                    assertThat(gameHandler.movePiece(moves[i][0], moves[i][1], i % 2 == 0 ? Side.WHITE : Side.BLACK)).isNotEqualTo(MoveType.MOVE_NOT_ALLOWED);
+                    expectedKeyByVersion.put(gameHandler.getVersion(), gameHandler.getZobristKey());
+                }
+            }
+
+            isDone.set(true);
+
+            for (Future<?> poller : pollers) {
+                poller.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            isDone.set(true);
+            executorService.shutdownNow();
+        }
+
+        // then
+        for (Map.Entry<Long, PersistentGameBoardData> polledSnapshot : polledSnapshots) {
+            Long expectedKey = expectedKeyByVersion.get(polledSnapshot.getKey());
+
+            if (expectedKey != null) {
+                assertThat(polledSnapshot.getValue().getZobristKey()).as("version %d", polledSnapshot.getKey()).isEqualTo(expectedKey);
+            }
+        }
+
+        assertThat(gameHandler.getSnapshot().getZobristKey()).isEqualTo(gameHandler.getZobristKey());
+    }
+
+    @Test
+    public void withMove_sameAsGameBoardData() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("r3k2r/8/8/3p4/8/8/8/R2QK2R w KQkq").getCloneOfCurrentDataState();
+        PersistentGameBoardData snapshot = PersistentGameBoardData.of(gameBoardData);
+
+        // when
+        PersistentGameBoardData fork = snapshot.withMove(D1, D5);
+        gameBoardData.makeMove(D1, D5, MoveType.NORMAL_MOVE);
+
+        // then
+        assertThat(snapshot.getPiece(D1)).isEqualTo(W_QUEEN);
+        assertThat(snapshot.getPiece(D5)).isEqualTo(B_PAWN);
+        assertThat(fork.getPiecesLocation()).isEqualTo(gameBoardData.getPiecesLocation());
+        assertThat(fork.getZobristKey()).isEqualTo(gameBoardData.getZobristKey());
+        assertThat(fork.getMiddlegameScore()).isEqualTo(gameBoardData.getMiddlegameScore());
+        assertThat(fork.getEndgameScore()).isEqualTo(gameBoardData.getEndgameScore());
+        assertThat(fork.getGamePhase()).isEqualTo(gameBoardData.getGamePhase());
+        assertThat(fork.getCurrentAllowedMoveSide()).isEqualTo(Side.BLACK);
+        assertThat(fork.isPieceMoved(D5)).isTrue();
+        assertThat(fork.getDefaultPositions()).isSameAs(snapshot.getDefaultPositions());
+    }
+
+    @Test
+    public void withMove_castlingRightsInTheKey() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq").getCloneOfCurrentDataState();
+        PersistentGameBoardData snapshot = PersistentGameBoardData.of(gameBoardData);
+
+        // when
+        PersistentGameBoardData fork = snapshot.withMove(H1, H2);
+        gameBoardData.makeMove(H1, H2, MoveType.NORMAL_MOVE);
+
+        // then
+        assertThat(fork.getZobristKey()).isEqualTo(gameBoardData.getZobristKey());
+        assertThat(fork.getZobristKey()).isEqualTo(FenGameParser.parse("r3k2r/8/8/8/8/8/7R/R3K3 b Qkq").getZobristKey());
+    }
+
+    @Test
+    public void withMove_ownPieceTargetRejected() throws FenParserException {
+        // given
+        PersistentGameBoardData snapshot = PersistentGameBoardData.of(FenGameParser.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq").getCloneOfCurrentDataState());
+
+        // when
+        PersistentGameBoardData fork = snapshot.withMove(E1, H1);
+
+        // then
+        assertThat(fork).isSameAs(snapshot);
+        assertThat(fork.getPiece(H1)).isEqualTo(W_ROOK);
+    }
+
+    @Test
+    public void withMove_otherSideRejected() throws FenParserException {
+        // given
+        PersistentGameBoardData snapshot = PersistentGameBoardData.of(FenGameParser.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq").getCloneOfCurrentDataState());
+
+        // when
+        PersistentGameBoardData fork = snapshot.withMove(E7, E5);
+
+        // then
+        assertThat(fork).isSameAs(snapshot);
+        assertThat(fork.getCurrentAllowedMoveSide()).isEqualTo(Side.WHITE);
+    }
+
+    @Test
+    public void withMove_promotionAndEnPassantRejected() throws FenParserException {
+        // given
+        PersistentGameBoardData promotion = PersistentGameBoardData.of(FenGameParser.parse("4k3/P7/8/8/8/8/8/4K3 w").getCloneOfCurrentDataState());
+        PersistentGameBoardData enPassant = PersistentGameBoardData.of(FenGameParser.parse("4k3/8/8/3pP3/8/8/8/4K3 w - d6").getCloneOfCurrentDataState());
+
+        // when
+        PersistentGameBoardData promotionFork = promotion.withMove(A7, A8);
+        PersistentGameBoardData enPassantFork = enPassant.withMove(E5, D6);
+
+        // then
+        assertThat(promotionFork).isSameAs(promotion);
+        assertThat(enPassantFork).isSameAs(enPassant);
+    }
+
+    @Test
+    public void withMove_pawnHopAllowsTheEnPassant() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("4k3/8/8/8/3p4/8/4P3/4K3 w").getCloneOfCurrentDataState();
+        PersistentGameBoardData snapshot = PersistentGameBoardData.of(gameBoardData);
+
+        // when
+        PersistentGameBoardData fork = snapshot.withMove(E2, E4);
+        gameBoardData.makeMove(E2, E4, MoveType.PAWN_HOP);
+
+        // then
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(Side.BLACK, fork.toGameBoardData(), moves);
+
+        assertThat(fork.isPawnUsedSpecialMove(E4)).isTrue();
+        assertThat(fork.getIsPawnUsedSpecialMoveMap()).isEqualTo(gameBoardData.getIsPawnUsedSpecialMoveMap());
+        assertThat(fork.getZobristKey()).isEqualTo(gameBoardData.getZobristKey());
+        assertThat(moves.contains(MoveUtils.encode(BitboardUtils.getSquare(D4), BitboardUtils.getSquare(E3), MoveUtils.FLAG_EN_PASSANT, BitboardUtils.BLACK_PAWN, BitboardUtils.WHITE_PAWN))).isTrue();
+    }
+
+    @Test
+    public void toGameBoardData_sameState() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("r3k2r/8/8/8/8/8/8/R3K2R b Kq").getCloneOfCurrentDataState();
+        PersistentGameBoardData snapshot = PersistentGameBoardData.of(gameBoardData);
+
+        // when
+        GameBoardData copy = snapshot.toGameBoardData();
+        copy.makeMove(E8, D8, MoveType.NORMAL_MOVE);
+
+        // then
+        assertThat(snapshot.getPiece(E8)).isEqualTo(B_KING);
+        assertThat(PersistentGameBoardData.of(gameBoardData).getZobristKey()).isEqualTo(snapshot.getZobristKey());
+        assertThat(snapshot.toGameBoardData().getZobristKey()).isEqualTo(gameBoardData.getZobristKey());
+        assertThat(snapshot.toGameBoardData().getPiecesLocation()).isEqualTo(gameBoardData.getPiecesLocation());
+        assertThat(snapshot.toGameBoardData().isBlackQueenCastlingAvailable()).isTrue();
+        assertThat(snapshot.toGameBoardData().isBlackKingCastlingAvailable()).isFalse();
+    }
+}
@@ -0,0 +1,95 @@
+package ca.watier.echechess.engine.engines;
+
+import ca.watier.echechess.engine.abstracts.GameBoardData;
+import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
+import ca.watier.echechess.engine.exceptions.FenParserException;
+import ca.watier.echechess.engine.models.SearchResultModel;
+import ca.watier.echechess.engine.models.TranspositionTableModel;
+import ca.watier.echechess.engine.utils.FenGameParser;
+import org.junit.jupiter.api.Test;
+
+import static ca.watier.echechess.common.enums.CasePosition.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AlphaBetaSearchEngineTest {
+
+    private final AlphaBetaSearchEngine searchEngine = new AlphaBetaSearchEngine(new PieceMoveConstraintDelegate());
+
+    @Test
+    public void search_mateInOne() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("6k1/5ppp/8/8/8/8/5PPP/R5K1 w -").getCloneOfCurrentDataState();
+        long zobristKey = gameBoardData.getZobristKey();
+
+        // when
+        SearchResultModel result = searchEngine.search(gameBoardData, 3);
+
+        // then
+        assertThat(result.getFrom()).isEqualTo(A1);
+        assertThat(result.getTo()).isEqualTo(A8);
+        assertThat(result.getScore()).isEqualTo(AlphaBetaSearchEngine.MATE_SCORE - 1);
+        assertThat(result.getPrincipalVariation()).hasSize(1);
+        assertThat(gameBoardData.getZobristKey()).isEqualTo(zobristKey);
+    }
+
+    @Test
+    public void search_mateFoundInTheQuiescence() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("6k1/5ppp/8/8/8/8/5PPP/R5K1 w -").getCloneOfCurrentDataState();
+
+        // when
+        SearchResultModel result = searchEngine.search(gameBoardData, 1);
+
+        // then
+        assertThat(result.getFrom()).isEqualTo(A1);
+        assertThat(result.getTo()).isEqualTo(A8);
+        assertThat(result.getScore()).isEqualTo(AlphaBetaSearchEngine.MATE_SCORE - 1);
+    }
+
+    @Test
+    public void search_takesTheHangingQueen() throws FenParserException {
+        // given
+        GenericGameHandler gameHandler = FenGameParser.parse("4k3/8/8/3q4/8/2N5/8/4K3 w -");
+
+        // when
+        SearchResultModel result = searchEngine.search(gameHandler, 2);
+
+        // then
+        assertThat(result.getFrom()).isEqualTo(C3);
+        assertThat(result.getTo()).isEqualTo(D5);
+        assertThat(result.getScore()).isGreaterThan(0);
+        assertThat(result.getPrincipalVariation()[0]).isEqualTo(result.getBestMove());
+        assertThat(result.getNodes()).isPositive();
+    }
+
+    @Test
+    public void search_noMove() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("7k/5Q2/6K1/8/8/8/8/8 b -").getCloneOfCurrentDataState();
+
+        // when
+        SearchResultModel result = searchEngine.search(gameBoardData, 2);
+
+        // then
+        assertThat(result.hasBestMove()).isFalse();
+        assertThat(result.getScore()).isZero();
+    }
+
+    @Test
+    public void search_withTranspositionTable() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq").getCloneOfCurrentDataState();
+        AlphaBetaSearchEngine engineWithTable = new AlphaBetaSearchEngine(new PieceMoveConstraintDelegate(), new TranspositionTableModel(4));
+
+        // when
+        SearchResultModel expected = searchEngine.search(gameBoardData, 4);
+        SearchResultModel first = engineWithTable.search(gameBoardData, 4);
+        SearchResultModel second = engineWithTable.search(gameBoardData, 4);
+
+        // then
+        assertThat(first.getScore()).isEqualTo(expected.getScore());
+        assertThat(first.getNodes()).isLessThan(expected.getNodes());
+        assertThat(second.getScore()).isEqualTo(expected.getScore());
+        assertThat(second.getNodes()).isLessThan(first.getNodes());
+    }
+}
@@ -0,0 +1,129 @@
+package ca.watier.echechess.engine.engines;
+
+import ca.watier.echechess.engine.abstracts.GameBoardData;
+import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
+import ca.watier.echechess.engine.exceptions.FenParserException;
+import ca.watier.echechess.engine.models.SearchResultModel;
+import ca.watier.echechess.engine.models.TranspositionTableModel;
+import ca.watier.echechess.engine.utils.FenGameParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static ca.watier.echechess.common.enums.CasePosition.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LazySmpSearchEngineTest {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(3);
+    private final LazySmpSearchEngine searchEngine = new LazySmpSearchEngine(new PieceMoveConstraintDelegate(), new TranspositionTableModel(8), executorService);
+
+    @AfterEach
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void search_mateInOne() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("k7/8/1K6/8/8/8/8/7R w -").getCloneOfCurrentDataState();
+        long zobristKey = gameBoardData.getZobristKey();
+
+        // when
+        SearchResultModel result = searchEngine.search(gameBoardData, 5, 4);
+
+        // then
+        assertThat(result.getScore()).isEqualTo(AlphaBetaSearchEngine.MATE_SCORE - 1);
+        assertThat(result.getTo()).isEqualTo(H8);
+        assertThat(result.getPrincipalVariation()).hasSize(1);
+        assertThat(gameBoardData.getZobristKey()).isEqualTo(zobristKey);
+    }
+
+    @Test
+    public void search_sameMoveAsOneThread() throws FenParserException {
+        // given
+        GenericGameHandler gameHandler = FenGameParser.parse("4k3/8/8/3q4/8/2N5/8/4K3 w -");
+
+        // when
+        SearchResultModel oneThread = searchEngine.search(gameHandler, 4, 1);
+        SearchResultModel fourThreads = searchEngine.search(gameHandler, 4, 4);
+
+        // then
+        assertThat(oneThread.getFrom()).isEqualTo(C3);
+        assertThat(oneThread.getTo()).isEqualTo(D5);
+        assertThat(fourThreads.getBestMove()).isEqualTo(oneThread.getBestMove());
+        assertThat(fourThreads.getDepth()).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    public void search_deeperHelperResultChosen() throws FenParserException {
+        // given
+        AtomicInteger nbOfCompletedHelpers = new AtomicInteger();
+        ExecutorService callingThreadExecutor = new CallingThreadExecutorService(nbOfCompletedHelpers);
+        LazySmpSearchEngine engine = new LazySmpSearchEngine(new PieceMoveConstraintDelegate(), new TranspositionTableModel(8), callingThreadExecutor);
+        GameBoardData gameBoardData = FenGameParser.parse("4k3/8/8/3q4/8/2N5/8/4K3 w -").getCloneOfCurrentDataState();
+
+        // when, the helpers run to the end before the main search, that is stopped after its first depth
+        SearchResultModel result = engine.search(gameBoardData, 4, 3, () -> nbOfCompletedHelpers.get() == 2);
+
+        // then
+        assertThat(nbOfCompletedHelpers).hasValue(2);
+        assertThat(result.getDepth()).isEqualTo(4);
+        assertThat(result.getFrom()).isEqualTo(C3);
+        assertThat(result.getTo()).isEqualTo(D5);
+    }
+
+    @Test
+    public void search_invalidNbOfThreads() {
+        assertThatThrownBy(() -> searchEngine.search(new GameBoardData(), 2, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Runs the submitted helpers in the calling thread, before the main search
+     */
+    private static class CallingThreadExecutorService extends AbstractExecutorService {
+
+        private final AtomicInteger nbOfCompletedTasks;
+
+        private CallingThreadExecutorService(AtomicInteger nbOfCompletedTasks) {
+            this.nbOfCompletedTasks = nbOfCompletedTasks;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+            nbOfCompletedTasks.incrementAndGet();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
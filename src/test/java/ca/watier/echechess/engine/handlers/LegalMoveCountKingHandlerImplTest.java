@@ -0,0 +1,51 @@
+package ca.watier.echechess.engine.handlers;
+
+import ca.watier.echechess.common.enums.KingStatus;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
+import ca.watier.echechess.engine.exceptions.FenParserException;
+import ca.watier.echechess.engine.interfaces.KingHandler;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+import ca.watier.echechess.engine.utils.FenGameParser;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LegalMoveCountKingHandlerImplTest {
+
+    private final PieceMoveConstraintDelegate delegate = new PieceMoveConstraintDelegate(LegalMoveCountKingHandlerImpl::new);
+    private final KingHandler kingHandler = new LegalMoveCountKingHandlerImpl(delegate);
+    private final KingHandler standardKingHandler = new StandardKingHandlerImpl(new PieceMoveConstraintDelegate());
+
+    @Test
+    public void getKingStatus() throws FenParserException {
+        assertKingStatus("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq", Side.WHITE, KingStatus.OK);
+        assertKingStatus("4k3/8/8/8/8/8/4R3/4K3 b", Side.BLACK, KingStatus.CHECK);
+        assertKingStatus("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq", Side.WHITE, KingStatus.CHECKMATE);
+        assertKingStatus("k7/8/1Q6/8/8/8/8/7K b", Side.BLACK, KingStatus.STALEMATE);
+    }
+
+    @Test
+    public void getKingStatus_usedByTheDelegate() throws FenParserException {
+        // given
+        ReadOnlyGameBoardData gameBoardData = FenGameParser.parse("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq").getCurrentDataState();
+
+        // when
+        KingStatus kingStatus = delegate.getKingStatus(Side.WHITE, gameBoardData);
+
+        // then
+        assertThat(kingStatus).isEqualTo(KingStatus.CHECKMATE);
+    }
+
+    private void assertKingStatus(String fen, Side side, KingStatus expected) throws FenParserException {
+        // given
+        ReadOnlyGameBoardData gameBoardData = FenGameParser.parse(fen).getCurrentDataState();
+
+        // when
+        KingStatus kingStatus = kingHandler.getKingStatus(side, gameBoardData);
+
+        // then
+        assertThat(kingStatus).as(fen).isEqualTo(expected);
+        assertThat(kingStatus).as(fen).isEqualTo(standardKingHandler.getKingStatus(side, gameBoardData));
+    }
+}
@@ -0,0 +1,59 @@
+package ca.watier.echechess.engine.models;
+
+import ca.watier.echechess.engine.utils.MoveUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TranspositionTableModelTest {
+
+    @Test
+    public void probe_sameAsStored() {
+        // given
+        TranspositionTableModel transpositionTable = new TranspositionTableModel(1);
+        int move = MoveUtils.encodePromotion(52, 60, 4, 0, 9);
+        long key = 0x1234_5678_9ABC_DEF0L;
+
+        // when
+        transpositionTable.store(key, move, -99_990, 12, TranspositionTableModel.BOUND_LOWER);
+        long entry = transpositionTable.probe(key);
+
+        // then
+        assertThat(transpositionTable.getNbOfEntries()).isEqualTo(1L << 16);
+        assertThat(TranspositionTableModel.getMove(entry)).isEqualTo(move);
+        assertThat(TranspositionTableModel.getScore(entry)).isEqualTo(-99_990);
+        assertThat(TranspositionTableModel.getDepth(entry)).isEqualTo(12);
+        assertThat(TranspositionTableModel.getBound(entry)).isEqualTo(TranspositionTableModel.BOUND_LOWER);
+        assertThat(transpositionTable.probe(key + (1L << 16))).isEqualTo(TranspositionTableModel.NO_ENTRY);
+    }
+
+    @Test
+    public void store_keepsTheDeepestOfTheSearch() {
+        // given
+        TranspositionTableModel transpositionTable = new TranspositionTableModel(1);
+        long key = 42L;
+        long otherKey = key + (1L << 16); // Same slot
+
+        // when
+        transpositionTable.store(key, MoveUtils.NO_MOVE, 10, 8, TranspositionTableModel.BOUND_EXACT);
+        transpositionTable.store(otherKey, MoveUtils.NO_MOVE, 20, 3, TranspositionTableModel.BOUND_EXACT);
+
+        // then
+        assertThat(transpositionTable.probe(key)).isNotEqualTo(TranspositionTableModel.NO_ENTRY);
+        assertThat(transpositionTable.probe(otherKey)).isEqualTo(TranspositionTableModel.NO_ENTRY);
+
+        // when
+        transpositionTable.newSearch();
+        transpositionTable.store(otherKey, MoveUtils.NO_MOVE, 20, 3, TranspositionTableModel.BOUND_EXACT);
+
+        // then
+        assertThat(transpositionTable.probe(key)).isEqualTo(TranspositionTableModel.NO_ENTRY);
+        assertThat(TranspositionTableModel.getScore(transpositionTable.probe(otherKey))).isEqualTo(20);
+
+        // when
+        transpositionTable.clear();
+
+        // then
+        assertThat(transpositionTable.probe(otherKey)).isEqualTo(TranspositionTableModel.NO_ENTRY);
+    }
+}
@@ -0,0 +1,108 @@
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.MoveType;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.abstracts.GameBoardData;
+import ca.watier.echechess.engine.exceptions.FenParserException;
+import ca.watier.echechess.engine.game.FenPositionGameHandler;
+import ca.watier.echechess.engine.models.MoveList;
+import org.junit.jupiter.api.Test;
+
+import static ca.watier.echechess.common.enums.CasePosition.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BinaryPositionCodecTest {
+
+    @Test
+    public void decode_sameAsEncoded() throws FenParserException {
+        String[] positions = {
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq",
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b Kq",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w -"
+        };
+
+        for (String fen : positions) {
+            // given
+            GameBoardData gameBoardData = FenGameParser.parse(fen).getCloneOfCurrentDataState();
+
+            // when
+            byte[] encoded = BinaryPositionCodec.encode(gameBoardData);
+            FenPositionGameHandler decoded = BinaryPositionCodec.decode(encoded);
+
+            // then
+            assertThat(encoded).hasSize(BinaryPositionCodec.ENCODED_SIZE);
+            assertThat(decoded.getPiecesLocation()).isEqualTo(gameBoardData.getPiecesLocation());
+            assertThat(decoded.getZobristKey()).isEqualTo(gameBoardData.getZobristKey());
+            assertThat(decoded.getCurrentDataState().getCurrentAllowedMoveSide()).isEqualTo(gameBoardData.getCurrentAllowedMoveSide());
+            assertThat(BinaryPositionCodec.encode(decoded.getCurrentDataState())).isEqualTo(encoded);
+        }
+    }
+
+    @Test
+    public void decode_noCastlingAfterTheKingMovedBack() throws FenParserException {
+        // given
+        FenPositionGameHandler gameHandler = FenGameParser.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq");
+        gameHandler.movePiece(E1, D1, Side.WHITE);
+        gameHandler.movePiece(E8, D8, Side.BLACK);
+        gameHandler.movePiece(D1, E1, Side.WHITE);
+        gameHandler.movePiece(D8, E8, Side.BLACK);
+
+        // when
+        FenPositionGameHandler decoded = BinaryPositionCodec.decode(BinaryPositionCodec.encode(gameHandler.getCurrentDataState()));
+
+        // then
+        MoveList moves = new MoveList();
+        MoveList decodedMoves = new MoveList();
+        MoveGenerator.generateLegalMoves(Side.WHITE, gameHandler.getCurrentDataState(), moves);
+        MoveGenerator.generateLegalMoves(Side.WHITE, decoded.getCurrentDataState(), decodedMoves);
+
+        assertThat(gameHandler.getMoveConstraintDelegate().getMoveType(E1, H1, gameHandler.getCurrentDataState())).isNotEqualTo(MoveType.CASTLING);
+        assertThat(decoded.getMoveConstraintDelegate().getMoveType(E1, H1, decoded.getCurrentDataState())).isNotEqualTo(MoveType.CASTLING);
+        assertThat(decodedMoves.toArray()).containsExactlyInAnyOrder(moves.toArray());
+        assertThat(decoded.getCurrentDataState().isWhiteKingCastlingAvailable()).isFalse();
+        assertThat(decoded.getCurrentDataState().isBlackQueenCastlingAvailable()).isFalse();
+        assertThat(decoded.getZobristKey()).isEqualTo(gameHandler.getZobristKey());
+    }
+
+    @Test
+    public void decode_enPassantAndCounters() throws FenParserException {
+        // given
+        FenPositionGameHandler gameHandler = FenGameParser.parse("rnbqkbnr/pppppppp/8/4P3/8/8/PPPP1PPP/RNBQKBNR b KQkq");
+        gameHandler.setMoveCounters(4, 2, 2);
+        gameHandler.movePiece(D7, D5, Side.BLACK);
+
+        // when
+        FenPositionGameHandler decoded = BinaryPositionCodec.decode(BinaryPositionCodec.encode(gameHandler.getCurrentDataState()));
+
+        // then
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(Side.WHITE, decoded.getCurrentDataState(), moves);
+
+        assertThat(moves.contains(MoveUtils.encode(BitboardUtils.getSquare(E5), BitboardUtils.getSquare(D6), MoveUtils.FLAG_EN_PASSANT, BitboardUtils.WHITE_PAWN, BitboardUtils.BLACK_PAWN))).isTrue();
+        assertThat(decoded.getCurrentDataState().getNbTotalMove()).isEqualTo(5);
+        assertThat(decoded.getCurrentDataState().getBlackTurnNumber()).isEqualTo(3);
+        assertThat(decoded.getCurrentDataState().getWhiteTurnNumber()).isEqualTo(2);
+    }
+
+    @Test
+    public void encode_noEnPassantWithoutAnEnemyPawnNextToTheHop() throws FenParserException {
+        // given
+        FenPositionGameHandler gameHandler = FenGameParser.parse("4k3/3p4/8/8/8/8/8/4KN2 b");
+        gameHandler.movePiece(D7, D5, Side.BLACK);
+
+        // when
+        byte[] encoded = BinaryPositionCodec.encode(gameHandler.getCurrentDataState());
+        FenPositionGameHandler decoded = BinaryPositionCodec.decode(encoded);
+
+        // then
+        assertThat(encoded[25]).isZero();
+        assertThat(decoded.getZobristKey()).isEqualTo(gameHandler.getZobristKey());
+        assertThat(BinaryPositionCodec.encode(decoded.getCurrentDataState())).isEqualTo(encoded);
+    }
+
+    @Test
+    public void decode_invalidValue() {
+        assertThatThrownBy(() -> BinaryPositionCodec.decode(new byte[8])).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,52 @@
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.abstracts.GameBoardData;
+import ca.watier.echechess.engine.exceptions.FenParserException;
+import ca.watier.echechess.engine.models.LegalityMasksModel;
+import org.junit.jupiter.api.Test;
+
+import static ca.watier.echechess.common.enums.CasePosition.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LegalityUtilsTest {
+
+    @Test
+    public void getMasks_pinnedPieces() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("4k3/8/8/8/4r3/8/4B3/b3K3 w").getCloneOfCurrentDataState();
+
+        // when
+        LegalityMasksModel masks = LegalityUtils.getMasks(Side.WHITE, gameBoardData);
+
+        // then
+        assertThat(masks.isCheck()).isFalse();
+        assertThat(masks.getPinned()).isEqualTo(BitboardUtils.getMask(E2));
+        assertThat(isLegal(masks, E2, D3, gameBoardData)).isFalse();
+        assertThat(isLegal(masks, E1, D1, gameBoardData)).isTrue();
+        assertThat(isLegal(masks, E1, E2, gameBoardData)).isFalse();
+    }
+
+    @Test
+    public void getMasks_check() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("4k3/8/8/8/8/2N5/8/r3K2B w").getCloneOfCurrentDataState();
+
+        // when
+        LegalityMasksModel masks = LegalityUtils.getMasks(Side.WHITE, gameBoardData);
+
+        // then
+        assertThat(masks.isCheck()).isTrue();
+        assertThat(masks.getCheckers()).isEqualTo(BitboardUtils.getMask(A1));
+        assertThat(isLegal(masks, C3, A2, gameBoardData)).isFalse();
+        assertThat(isLegal(masks, C3, D1, gameBoardData)).isTrue();
+        assertThat(isLegal(masks, C3, B1, gameBoardData)).isTrue();
+        assertThat(isLegal(masks, E1, F1, gameBoardData)).isFalse();
+        assertThat(isLegal(masks, E1, E2, gameBoardData)).isTrue();
+    }
+
+    private boolean isLegal(LegalityMasksModel masks, CasePosition from, CasePosition to, GameBoardData gameBoardData) {
+        return LegalityUtils.isLegal(masks, BitboardUtils.getSquare(from), BitboardUtils.getSquare(to), gameBoardData);
+    }
+}
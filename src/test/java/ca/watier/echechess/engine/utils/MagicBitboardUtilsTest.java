@@ -0,0 +1,64 @@
+package ca.watier.echechess.engine.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MagicBitboardUtilsTest {
+
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    @Test
+    public void slidingAttacks_sameAsRayWalk() {
+        // given
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int i = 0; i < 2_000; i++) {
+            long occupancy = random.nextLong() & random.nextLong();
+
+            for (int square = 0; square < 64; square++) {
+                // when
+                long rookAttacks = MagicBitboardUtils.getRookAttacks(square, occupancy);
+                long bishopAttacks = MagicBitboardUtils.getBishopAttacks(square, occupancy);
+
+                // then
+                assertThat(rookAttacks).isEqualTo(walkRays(square, occupancy, ROOK_DIRECTIONS));
+                assertThat(bishopAttacks).isEqualTo(walkRays(square, occupancy, BISHOP_DIRECTIONS));
+            }
+        }
+    }
+
+    @Test
+    public void queenAttacks_emptyBoard() {
+        // A1 -> the first rank, the A file and the long diagonal
+        assertThat(Long.bitCount(MagicBitboardUtils.getQueenAttacks(0, 0L))).isEqualTo(21);
+        // D4
+        assertThat(Long.bitCount(MagicBitboardUtils.getQueenAttacks(27, 0L))).isEqualTo(27);
+    }
+
+    private long walkRays(int square, long occupancy, int[][] directions) {
+        long attacks = 0L;
+
+        for (int[] direction : directions) {
+            int file = (square & 7) + direction[0];
+            int rank = (square >>> 3) + direction[1];
+
+            while (file >= 0 && file < 8 && rank >= 0 && rank < 8) {
+                long bit = 1L << (rank * 8 + file);
+                attacks |= bit;
+
+                if ((occupancy & bit) != 0) {
+                    break;
+                }
+
+                file += direction[0];
+                rank += direction[1];
+            }
+        }
+
+        return attacks;
+    }
+}
@@ -0,0 +1,160 @@
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Pieces;
+import ca.watier.echechess.common.enums.Side;
+import ca.watier.echechess.engine.abstracts.GameBoardData;
+import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
+import ca.watier.echechess.engine.exceptions.FenParserException;
+import ca.watier.echechess.engine.models.MoveList;
+import ca.watier.echechess.engine.models.MoveUndoModel;
+import ca.watier.echechess.engine.models.enums.MoveStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MoveGeneratorTest {
+
+    @Test
+    public void generateLegalMoves_startPosition() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq").getCloneOfCurrentDataState();
+        MoveList moves = new MoveList();
+
+        // when
+        int nbOfMoves = MoveGenerator.generateLegalMoves(Side.WHITE, gameBoardData, moves);
+
+        // then
+        assertThat(nbOfMoves).isEqualTo(20);
+        assertThat(moves.size()).isEqualTo(20);
+    }
+
+    @Test
+    public void generateLegalMoves_kiwipete() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq").getCloneOfCurrentDataState();
+        MoveList moves = new MoveList();
+
+        // when
+        int nbOfMoves = MoveGenerator.generateLegalMoves(Side.WHITE, gameBoardData, moves);
+
+        // then
+        assertThat(nbOfMoves).isEqualTo(48);
+        assertThat(toStrings(moves)).contains("e1h1", "e1a1");
+    }
+
+    @Test
+    public void generateLegalMoves_promotionsAndPins() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("k7/1P6/8/8/4r3/8/4B3/4K2R w").getCloneOfCurrentDataState();
+        MoveList moves = new MoveList();
+
+        // when
+        MoveGenerator.generateLegalMoves(Side.WHITE, gameBoardData, moves);
+
+        // then
+        assertThat(toStrings(moves))
+                .contains("b7b8q", "b7b8r", "b7b8b", "b7b8n", "e1d2", "h1h8")
+                .doesNotContain("e2d3", "e2f1", "e1e2");
+    }
+
+    @Test
+    public void generateLegalMoves_movedAndCapturedPieces() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("4k3/8/8/3pP3/8/8/8/R3K3 w Q d6").getCloneOfCurrentDataState();
+        MoveList moves = new MoveList();
+
+        // when
+        MoveGenerator.generateLegalMoves(Side.WHITE, gameBoardData, moves);
+
+        // then
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            String value = MoveUtils.toString(move);
+            Pieces movedPiece = gameBoardData.getPiece(MoveUtils.getFromPosition(move));
+
+            assertThat(MoveUtils.getMovedPieceIndex(move)).as(value).isEqualTo(BitboardUtils.getPieceIndex(movedPiece));
+
+            if ("e5d6".equals(value)) {
+                assertThat(MoveUtils.getCapturedPieceIndex(move)).isEqualTo(BitboardUtils.BLACK_PAWN);
+            } else {
+                assertThat(MoveUtils.isCapture(move)).as(value).isFalse();
+            }
+        }
+
+        assertThat(toStrings(moves)).contains("e5d6", "e1a1");
+    }
+
+    @Test
+    public void generateLegalMoves_sameAsMoveStatus() throws FenParserException {
+        assertSameAsMoveStatus("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq");
+        assertSameAsMoveStatus("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b KQkq");
+        assertSameAsMoveStatus("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR b KQkq");
+        assertSameAsMoveStatus("k7/2P5/8/8/4r3/8/4B3/4K2R w");
+        assertSameAsMoveStatus("4k3/8/8/3pP3/8/8/8/R3K3 w Q d6");
+        assertSameAsMoveStatus("8/8/8/K2pP2r/8/8/8/4k3 w - d6");
+    }
+
+    /**
+     * Compares the generated moves with the ones of {@link PieceMoveConstraintDelegate#getMoveStatus}, tried on each
+     * target of each piece (the castling and the promotion pieces are not compared), the king safety of each move is
+     * also checked on the board
+     */
+    private void assertSameAsMoveStatus(String fen) throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse(fen).getCloneOfCurrentDataState();
+        Side side = gameBoardData.getCurrentAllowedMoveSide();
+        PieceMoveConstraintDelegate delegate = new PieceMoveConstraintDelegate();
+        MoveList moves = new MoveList();
+        Set<String> expectedMoves = new HashSet<>();
+
+        for (CasePosition from : gameBoardData.getPiecesLocation(side).keySet()) {
+            for (CasePosition to : CasePosition.values()) {
+                MoveStatus moveStatus = delegate.getMoveStatus(from, to, gameBoardData);
+
+                if (MoveStatus.VALID_MOVE.equals(moveStatus) || MoveStatus.VALID_ATTACK.equals(moveStatus)) {
+                    expectedMoves.add(from.name().toLowerCase() + to.name().toLowerCase());
+                }
+            }
+        }
+
+        // when
+        MoveGenerator.generateLegalMoves(side, gameBoardData, moves);
+
+        // then
+        Set<String> generatedMoves = new HashSet<>();
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+
+            if (MoveUtils.getFlag(move) != MoveUtils.FLAG_CASTLING) {
+                generatedMoves.add(MoveUtils.getFromPosition(move).name().toLowerCase() + MoveUtils.getToPosition(move).name().toLowerCase());
+            }
+
+            // The king is never left in check, checked on the board without LegalityUtils
+            MoveUndoModel undo = gameBoardData.makeMove(move);
+            int kingSquare = gameBoardData.getKingSquare(side);
+            assertThat(AttackUtils.getAttackers(kingSquare, Side.getOtherPlayerSide(side), gameBoardData, gameBoardData.getOccupiedBitboard()))
+                    .as("%s - %s", fen, MoveUtils.toString(move))
+                    .isZero();
+            gameBoardData.unmakeMove(undo);
+        }
+
+        assertThat(generatedMoves).as(fen).isEqualTo(expectedMoves);
+    }
+
+    private List<String> toStrings(MoveList moves) {
+        List<String> values = new ArrayList<>();
+
+        for (int i = 0; i < moves.size(); i++) {
+            values.add(MoveUtils.toString(moves.get(i)));
+        }
+
+        return values;
+    }
+}
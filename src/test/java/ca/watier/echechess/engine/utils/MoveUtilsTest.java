@@ -0,0 +1,57 @@
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.Pieces;
+import ca.watier.echechess.engine.models.MoveList;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MoveUtilsTest {
+
+    @Test
+    public void encode_withPieces() {
+        // given
+        int from = BitboardUtils.getSquare(CasePosition.B7);
+        int to = BitboardUtils.getSquare(CasePosition.A8);
+
+        // when
+        int move = MoveUtils.encodePromotion(from, to, BitboardUtils.WHITE_QUEEN, BitboardUtils.WHITE_PAWN, BitboardUtils.BLACK_ROOK);
+        int quietMove = MoveUtils.encode(from, to, MoveUtils.FLAG_NORMAL, BitboardUtils.WHITE_KING, MoveUtils.NO_PIECE);
+
+        // then
+        assertThat(MoveUtils.getFromPosition(move)).isEqualTo(CasePosition.B7);
+        assertThat(MoveUtils.getToPosition(move)).isEqualTo(CasePosition.A8);
+        assertThat(MoveUtils.getPromotion(move)).isEqualTo(Pieces.W_QUEEN);
+        assertThat(MoveUtils.getMovedPieceIndex(move)).isEqualTo(BitboardUtils.WHITE_PAWN);
+        assertThat(MoveUtils.getCapturedPieceIndex(move)).isEqualTo(BitboardUtils.BLACK_ROOK);
+        assertThat(MoveUtils.isCapture(move)).isTrue();
+        assertThat(MoveUtils.toString(move)).isEqualTo("b7a8q");
+
+        assertThat(MoveUtils.getMovedPieceIndex(quietMove)).isEqualTo(BitboardUtils.WHITE_KING);
+        assertThat(MoveUtils.isCapture(quietMove)).isFalse();
+        assertThat(MoveUtils.getCapturedPieceIndex(MoveUtils.encode(from, to, MoveUtils.FLAG_NORMAL))).isEqualTo(MoveUtils.NO_PIECE);
+    }
+
+    @Test
+    public void moveList_growsAndIsReused() {
+        // given
+        MoveList moves = MoveListPool.acquire();
+
+        // when
+        for (int i = 0; i < MoveList.DEFAULT_CAPACITY * 2; i++) {
+            moves.add(i);
+        }
+
+        // then
+        assertThat(moves.size()).isEqualTo(MoveList.DEFAULT_CAPACITY * 2);
+        assertThat(moves.get(MoveList.DEFAULT_CAPACITY + 1)).isEqualTo(MoveList.DEFAULT_CAPACITY + 1);
+
+        MoveListPool.release(moves);
+        MoveList reusedMoves = MoveListPool.acquire();
+
+        assertThat(reusedMoves).isSameAs(moves);
+        assertThat(reusedMoves.isEmpty()).isTrue();
+        MoveListPool.release(reusedMoves);
+    }
+}
@@ -0,0 +1,134 @@
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.engine.abstracts.GameBoardData;
+import ca.watier.echechess.engine.exceptions.FenParserException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The reference positions and counts from https://www.chessprogramming.org/Perft_Results
+ */
+public class PerftUtilsTest {
+
+    private static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    public void perft_startPosition() throws FenParserException {
+        assertPerft(START_POSITION, 1, 20);
+        assertPerft(START_POSITION, 2, 400);
+        assertPerft(START_POSITION, 3, 8902);
+        assertPerft(START_POSITION, 4, 197281);
+    }
+
+    @Test
+    public void perft_kiwipete() throws FenParserException {
+        assertPerft(KIWIPETE, 1, 48);
+        assertPerft(KIWIPETE, 2, 2039);
+        assertPerft(KIWIPETE, 3, 97862);
+    }
+
+    @Test
+    public void perft_position3() throws FenParserException {
+        assertPerft("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 4, 43238);
+        assertPerft("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 5, 674624);
+    }
+
+    @Test
+    public void perft_position4() throws FenParserException {
+        assertPerft("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 3, 9467);
+        // Mirrored
+        assertPerft("r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1", 3, 9467);
+    }
+
+    @Test
+    public void perft_position5() throws FenParserException {
+        assertPerft("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 3, 62379);
+    }
+
+    @Test
+    public void perft_position6() throws FenParserException {
+        assertPerft("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", 3, 89890);
+    }
+
+    @Test
+    public void perft_enPassantFromFen() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3").getCloneOfCurrentDataState();
+
+        // when
+        Map<String, Long> divide = PerftUtils.divide(gameBoardData, 1);
+
+        // then
+        assertThat(divide).containsKeys("e5f6", "e5e6").doesNotContainKey("e5d6");
+    }
+
+    @Test
+    public void divide_sumIsPerft() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse(KIWIPETE).getCloneOfCurrentDataState();
+
+        // when
+        Map<String, Long> divide = PerftUtils.divide(gameBoardData, 2);
+
+        // then
+        assertThat(divide).hasSize(48).containsEntry("e1h1", 43L).containsEntry("e1a1", 43L);
+        assertThat(divide.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(2039L);
+    }
+
+    @Test
+    public void parallelDivide_sameAsDivide() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse(KIWIPETE).getCloneOfCurrentDataState();
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            // when
+            Map<String, Long> divide = PerftUtils.parallelDivide(gameBoardData, 3, pool);
+            long nodes = PerftUtils.parallelPerft(gameBoardData, 4, pool);
+
+            // then
+            assertThat(divide).containsExactlyEntriesOf(PerftUtils.divide(gameBoardData, 3));
+            assertThat(nodes).isEqualTo(4085603L);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelPerft_splitPlies() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse(START_POSITION).getCloneOfCurrentDataState();
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            // when
+            long withoutSplit = PerftUtils.parallelPerft(gameBoardData, 5, pool, 0);
+            long withTwoSplitPlies = PerftUtils.parallelPerft(gameBoardData, 5, pool, 2);
+            Map<String, Long> divide = PerftUtils.parallelDivide(gameBoardData, 3, pool, 2);
+
+            // then
+            assertThat(withoutSplit).isEqualTo(4865609L);
+            assertThat(withTwoSplitPlies).isEqualTo(4865609L);
+            assertThat(divide).containsExactlyEntriesOf(PerftUtils.divide(gameBoardData, 3));
+            assertThat(PerftUtils.parallelPerft(gameBoardData, 5, pool, -1)).isZero();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void assertPerft(String fen, int depth, long expectedNodes) throws FenParserException {
+        // given
+        GameBoardData gameBoardData = FenGameParser.parse(fen).getCloneOfCurrentDataState();
+
+        // when
+        long nodes = PerftUtils.perft(gameBoardData, depth);
+
+        // then
+        assertThat(nodes).isEqualTo(expectedNodes);
+    }
+}
@@ -0,0 +1,88 @@
+package ca.watier.echechess.engine.utils;
+
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.engine.abstracts.GameBoardData;
+import ca.watier.echechess.engine.exceptions.FenParserException;
+import org.junit.jupiter.api.Test;
+
+import static ca.watier.echechess.common.enums.CasePosition.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StaticExchangeUtilsTest {
+
+    @Test
+    public void evaluateCapture_notAttackedPawn() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = parse("4k3/8/5p2/4p3/8/8/8/4RK2 w");
+
+        // when
+        int rookTakesPawn = evaluateCapture(gameBoardData, E1, E5);
+
+        // then
+        assertThat(rookTakesPawn).isEqualTo(100 - 500);
+    }
+
+    @Test
+    public void evaluateCapture_xRayAttackers() throws FenParserException {
+        // given
+        // The second rook is behind the first one
+        GameBoardData singleRook = parse("4r1k1/8/8/4p3/8/8/4R3/7K w");
+        GameBoardData doubledRooks = parse("4r1k1/8/8/4p3/8/8/4R3/4R2K w");
+        GameBoardData doubledRooksAndKnight = parse("4r1k1/8/2n5/4p3/8/8/4R3/4R2K w");
+
+        // when
+        int singleRookValue = evaluateCapture(singleRook, E2, E5);
+        int doubledRooksValue = evaluateCapture(doubledRooks, E2, E5);
+        int doubledRooksAndKnightValue = evaluateCapture(doubledRooksAndKnight, E2, E5);
+
+        // then
+        assertThat(singleRookValue).isEqualTo(100 - 500);
+        assertThat(doubledRooksValue).isEqualTo(100);
+        assertThat(doubledRooksAndKnightValue).isEqualTo(100 - 500);
+    }
+
+    @Test
+    public void evaluateCapture_kingCannotTakeDefendedPiece() throws FenParserException {
+        // given
+        GameBoardData defended = parse("6k1/8/8/8/8/2n5/4q3/4K3 w");
+        GameBoardData hanging = parse("6k1/8/8/8/8/8/4q3/4K3 w");
+
+        // when
+        int defendedValue = evaluateCapture(defended, E1, E2);
+        int hangingValue = evaluateCapture(hanging, E1, E2);
+
+        // then
+        assertThat(defendedValue).isNegative();
+        assertThat(hangingValue).isEqualTo(900);
+    }
+
+    @Test
+    public void evaluateSquare_hangingAndDefendedPieces() throws FenParserException {
+        // given
+        GameBoardData gameBoardData = parse("4k3/8/8/3n4/4PP2/8/8/4K2R b");
+        long occupiedBefore = gameBoardData.getOccupiedBitboard();
+
+        // when
+        int knight = StaticExchangeUtils.evaluateSquare(gameBoardData, D5);
+        int pawn = StaticExchangeUtils.evaluateSquare(gameBoardData, F4);
+        int notAttackedPawn = StaticExchangeUtils.evaluateSquare(gameBoardData, E4);
+        int rook = StaticExchangeUtils.evaluateSquare(gameBoardData, H1);
+        int emptySquare = StaticExchangeUtils.evaluateSquare(gameBoardData, A4);
+
+        // then
+        assertThat(knight).isEqualTo(320);
+        assertThat(pawn).isEqualTo(100);
+        assertThat(notAttackedPawn).isZero();
+        assertThat(rook).isZero();
+        assertThat(emptySquare).isZero();
+        assertThat(gameBoardData.getOccupiedBitboard()).isEqualTo(occupiedBefore);
+    }
+
+    private int evaluateCapture(GameBoardData gameBoardData, CasePosition from, CasePosition to) {
+        return StaticExchangeUtils.evaluateCapture(gameBoardData, BitboardUtils.getSquare(from), BitboardUtils.getSquare(to));
+    }
+
+    private GameBoardData parse(String fen) throws FenParserException {
+        return FenGameParser.parse(fen).getCloneOfCurrentDataState();
+    }
+}
@@ -16,12 +16,14 @@
 
 package ca.watier.game;
 
+import ca.watier.echechess.common.enums.Pieces;
 import ca.watier.echechess.common.enums.Side;
 import ca.watier.echechess.engine.abstracts.GameBoardData;
 import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
 import ca.watier.echechess.engine.engines.GenericGameHandler;
 import ca.watier.echechess.engine.handlers.PlayerHandlerImpl;
 import ca.watier.echechess.engine.interfaces.GameEventEvaluatorHandler;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -88,4 +90,20 @@ public class GameBoardTest {
         assertThat(genericHandler.getCloneOfCurrentDataState().getPieceTurn(G3)).isNull();
         assertThat(genericHandler.getCloneOfCurrentDataState().getPieceTurn(G4)).isEqualTo(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getCurrentDataState_followsTheBoard() {
+        // given
+        ReadOnlyGameBoardData currentDataState = genericHandler.getCurrentDataState();
+        GameBoardData cloneOfCurrentDataState = genericHandler.getCloneOfCurrentDataState();
+
+        // when
+        genericHandler.movePiece(E2, E4, WHITE);
+
+        // then
+        assertThat(currentDataState.getPiece(E4)).isEqualTo(Pieces.W_PAWN);
+        assertThat(currentDataState.getMoveHistory()).hasSize(1);
+        assertThat(cloneOfCurrentDataState.getPiece(E4)).isNull();
+        assertThat(cloneOfCurrentDataState.getMoveHistory()).isEmpty();
+    }
+}
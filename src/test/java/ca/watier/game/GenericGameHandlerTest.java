@@ -1,20 +1,41 @@
 package ca.watier.game;
 
+import ca.watier.echechess.common.enums.CasePosition;
+import ca.watier.echechess.common.enums.MoveType;
+import ca.watier.echechess.common.enums.Pieces;
 import ca.watier.echechess.common.sessions.Player;
 import ca.watier.echechess.engine.delegates.PieceMoveConstraintDelegate;
 import ca.watier.echechess.engine.engines.GenericGameHandler;
+import ca.watier.echechess.engine.game.FenPositionGameHandler;
 import ca.watier.echechess.engine.handlers.PlayerHandlerImpl;
 import ca.watier.echechess.engine.interfaces.GameEventEvaluatorHandler;
+import ca.watier.echechess.engine.interfaces.ReadOnlyGameBoardData;
+import ca.watier.echechess.engine.models.SearchResultModel;
+import ca.watier.echechess.engine.models.TimeControlModel;
+import ca.watier.echechess.engine.utils.AttackUtils;
+import ca.watier.echechess.engine.utils.FenGameParser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static ca.watier.echechess.common.enums.CasePosition.*;
+import static ca.watier.echechess.common.enums.Pieces.*;
 import static ca.watier.echechess.common.enums.Side.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class GenericGameHandlerTest {
@@ -54,4 +75,180 @@ public class GenericGameHandlerTest {
         assertThat(genericGameHandler.setPlayerToSide(playerOne, BLACK)).isTrue(); //Change the observer to black
         assertThat(genericGameHandler.getPlayerSide(playerOne)).isEqualByComparingTo(BLACK);
     }
+
+    @Test
+    public void kingStatus_keptUntilTheBoardChanges() {
+        // given
+        GenericGameHandler gameHandler = GenericGameHandler.newStandardHandlerFromConstraintDelegate(pieceMoveConstraintDelegate);
+
+        // when
+        gameHandler.isCheck(WHITE);
+        gameHandler.isCheckMate(WHITE);
+        gameHandler.isGameEnded();
+        gameHandler.isGameStalemate();
+
+        // then
+        verify(pieceMoveConstraintDelegate, times(1)).getKingStatus(eq(WHITE), any());
+        verify(pieceMoveConstraintDelegate, times(1)).getKingStatus(eq(BLACK), any());
+
+        // when
+        long version = gameHandler.getVersion();
+        gameHandler.movePiece(E2, E4, WHITE);
+        clearInvocations(pieceMoveConstraintDelegate);
+        gameHandler.isCheck(WHITE);
+        gameHandler.isGameEnded();
+
+        // then
+        assertThat(gameHandler.getVersion()).isGreaterThan(version);
+        verify(pieceMoveConstraintDelegate, times(1)).getKingStatus(eq(WHITE), any());
+        verify(pieceMoveConstraintDelegate, times(1)).getKingStatus(eq(BLACK), any());
+    }
+
+    @Test
+    public void kingStatus_polledWhileMovesArePlayed() throws Exception {
+        // given
+        FenPositionGameHandler gameHandler = FenGameParser.parse("4k3/8/8/8/8/8/8/R3K3 w");
+        Map<CasePosition, Pieces> checkPosition = Map.of(A8, W_ROOK, E8, B_KING, E1, W_KING);
+        CasePosition[][] moves = {{A8, A1}, {E8, D8}, {A1, A2}, {D8, E8}};
+        Map<Long, Boolean> expectedByVersion = new ConcurrentHashMap<>();
+        List<long[]> polledValues = new CopyOnWriteArrayList<>();
+        AtomicBoolean isDone = new AtomicBoolean();
+        ExecutorService executorService = Executors.newFixedThreadPool(3);
+
+        try {
+            // when
+            List<Future<?>> pollers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                pollers.add(executorService.submit(() -> {
+                    while (!isDone.get()) {
+                        long version = gameHandler.getVersion();
+                        boolean isCheck = gameHandler.isCheck(BLACK);
+
+                        if (gameHandler.getVersion() == version) {
+                            polledValues.add(new long[]{version, isCheck ? 1 : 0});
+                        }
+                    }
+                }));
+            }
+
+            for (int cycle = 0; cycle < 1000; cycle++) {
+                gameHandler.setPieces(checkPosition);
+                expectedByVersion.put(gameHandler.getVersion(), true);
+
+                for (int i = 0; i < moves.length; i++) {
+                    assertThat(gameHandler.movePiece(moves[i][0], moves[i][1], i % 2 == 0 ? WHITE : BLACK)).isNotEqualTo(MoveType.MOVE_NOT_ALLOWED);
+                    expectedByVersion.put(gameHandler.getVersion(), isBlackKingAttacked(gameHandler.getCloneOfCurrentDataState()));
+                }
+            }
+
+            isDone.set(true);
+
+            for (Future<?> poller : pollers) {
+                poller.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            isDone.set(true);
+            executorService.shutdownNow();
+        }
+
+        // then
+        assertThat(expectedByVersion.values()).contains(true, false);
+
+        for (long[] polledValue : polledValues) {
+            Boolean expected = expectedByVersion.get(polledValue[0]);
+
+            if (expected != null) {
+                assertThat(polledValue[1] == 1).as("version %d", polledValue[0]).isEqualTo(expected);
+            }
+        }
+
+        assertThat(gameHandler.isCheck(BLACK)).isEqualTo(expectedByVersion.get(gameHandler.getVersion()));
+    }
+
+    @Test
+    public void serialization_keepsTheGameState() throws IOException, ClassNotFoundException {
+        // given
+        GenericGameHandler gameHandler = GenericGameHandler.newStandardHandlerFromConstraintDelegate(new PieceMoveConstraintDelegate());
+        gameHandler.setPlayerToSide(playerOne, WHITE);
+        gameHandler.setPlayerToSide(playerTwo, BLACK);
+        gameHandler.setPlayerToSide(new Player("observer"), OBSERVER);
+        gameHandler.setUuid("game");
+        gameHandler.movePiece(E2, E4, WHITE);
+        gameHandler.movePiece(E7, E5, BLACK);
+        gameHandler.movePiece(G1, F3, WHITE);
+
+        // when
+        GenericGameHandler first = serializeAndRead(gameHandler);
+        GenericGameHandler second = serializeAndRead(gameHandler);
+
+        // then
+        assertThat(first.getPiecesLocation()).isEqualTo(gameHandler.getPiecesLocation());
+        assertThat(first.getZobristKey()).isEqualTo(gameHandler.getZobristKey());
+        assertThat(first.getMoveHistory()).hasSize(3);
+        assertThat(first.getMoveHistory().get(2).getTo()).isEqualTo(F3);
+        assertThat(first.getMoveHistory().get(2).getMoveType()).isEqualTo(gameHandler.getMoveHistory().get(2).getMoveType());
+        assertThat(first.getSnapshot().getPersistentMoveHistory().size()).isEqualTo(3);
+        assertThat(first.getCurrentDataState().isPieceMoved(F3)).isTrue();
+        assertThat(first.getPlayerSide(playerOne)).isEqualTo(WHITE);
+        assertThat(first.getPlayerSide(playerTwo)).isEqualTo(BLACK);
+        assertThat(first.getPlayerSide(new Player("observer"))).isEqualTo(OBSERVER);
+        assertThat(first.getUuid()).isEqualTo("game");
+        assertThat(first.getMoveConstraintDelegate()).isSameAs(second.getMoveConstraintDelegate());
+        assertThat(first.movePiece(B8, C6, BLACK)).isEqualTo(MoveType.NORMAL_MOVE);
+    }
+
+    @Test
+    public void suggestMove_withinTheMoveTime() {
+        // given
+        GenericGameHandler gameHandler = GenericGameHandler.newStandardHandlerFromConstraintDelegate(new PieceMoveConstraintDelegate());
+        gameHandler.movePiece(E2, E4, WHITE);
+        long zobristKey = gameHandler.getZobristKey();
+
+        // when
+        long start = System.nanoTime();
+        SearchResultModel result = gameHandler.suggestMove(TimeControlModel.ofMoveTime(Duration.ofMillis(300)));
+        long elapsed = System.nanoTime() - start;
+
+        // then
+        assertThat(result.hasBestMove()).isTrue();
+        assertThat(gameHandler.getPiece(result.getFrom()).getSide()).isEqualTo(BLACK);
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(2).toNanos());
+        assertThat(gameHandler.getZobristKey()).isEqualTo(zobristKey);
+    }
+
+    @Test
+    public void suggestMove_cancelled() {
+        // given
+        GenericGameHandler gameHandler = GenericGameHandler.newStandardHandlerFromConstraintDelegate(new PieceMoveConstraintDelegate());
+
+        // when
+        SearchResultModel result = gameHandler.suggestMove(TimeControlModel.ofClock(Duration.ofMinutes(10), Duration.ZERO), () -> true);
+
+        // then
+        assertThat(result.hasBestMove()).isTrue();
+        assertThat(result.getDepth()).isEqualTo(1);
+    }
+
+    @Test
+    public void timeControl_clockBudget() {
+        assertThat(TimeControlModel.ofClock(Duration.ofSeconds(60), Duration.ofSeconds(2)).getBudget()).isEqualTo(Duration.ofMillis(3500));
+        assertThat(TimeControlModel.ofClock(Duration.ofMillis(40), Duration.ZERO).getBudget()).isEqualTo(Duration.ofMillis(1));
+    }
+
+    private boolean isBlackKingAttacked(ReadOnlyGameBoardData gameBoardData) {
+        int kingSquare = gameBoardData.getKingSquare(BLACK);
+        return AttackUtils.getAttackers(kingSquare, WHITE, gameBoardData, gameBoardData.getOccupiedBitboard()) != 0;
+    }
+
+    private GenericGameHandler serializeAndRead(GenericGameHandler gameHandler) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(gameHandler);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (GenericGameHandler) in.readObject();
+        }
+    }
 }